@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups within the {@link BindingIndex} of a synthetic UBL table: from a
+ * syntax path to its semantic, from a semantic ID to its paths and by a
+ * path prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=error")
+public class BindingIndexBenchmark {
+
+    @Param({"1000", "10000"})
+    public int mSemanticCount;
+
+    private BindingIndex mIndex;
+    private String mPath;
+    private String mSemanticId;
+
+    @Setup
+    public void setUp() {
+        TableContext table = SyntheticModel.newTable(mSemanticCount);
+        table.getDocument().addTable(table);
+        mIndex = new BindingIndex();
+        mIndex.addDocument(table.getDocument());
+        mPath = "/Invoice/cac:InvoiceLine/cbc:Note" + (mSemanticCount / 2) + "/@languageID";
+        mSemanticId = "BT-" + (mSemanticCount / 2);
+    }
+
+    @Benchmark
+    public List<NodeSyntax> byPath() {
+        return mIndex.getSyntaxNodesByPath(BindingIndex.Syntax.UBL, mPath);
+    }
+
+    @Benchmark
+    public List<NodeSyntax> bySemanticId() {
+        return mIndex.getSyntaxNodes(mSemanticId, BindingIndex.Syntax.UBL);
+    }
+
+    @Benchmark
+    public List<NodeSyntax> byPrefix() {
+        return mIndex.getSyntaxNodesByPrefix(BindingIndex.Syntax.UBL, "/Invoice/cac:InvoiceLine/cbc:Note" + (mSemanticCount / 2));
+    }
+}
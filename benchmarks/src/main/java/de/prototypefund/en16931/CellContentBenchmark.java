@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.odftoolkit.odfdom.doc.OdfTextDocument;
+import org.odftoolkit.odfdom.dom.element.table.TableTableElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.NodeList;
+
+/**
+ * Iterates the rows of the tables of the example specification or of a
+ * synthetic normative table with 1,000 rows, without and with reading the
+ * content of their cells by {@link OdtTableExtraction#getCellContent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellContentBenchmark {
+
+    private static final int SYNTHETIC_ROW_COUNT = 1000;
+    private static final int SYNTHETIC_COLUMN_COUNT = 11;
+
+    @Param({"example", "synthetic"})
+    public String mInput;
+
+    private List<TableTableElement> mTables;
+
+    @Setup
+    public void setUp() throws Exception {
+        mTables = new ArrayList<>();
+        if (mInput.equals("example")) {
+            OdfTextDocument doc = OdfTextDocument.loadDocument(ExampleDocument.newCopy());
+            NodeList tables = doc.getContentRoot().getElementsByTagNameNS(TableTableElement.ELEMENT_NAME.getUri(), TableTableElement.ELEMENT_NAME.getLocalName());
+            for (int i = 0; i < tables.getLength(); i++) {
+                mTables.add((TableTableElement) tables.item(i));
+            }
+        } else {
+            mTables.add(TableCursorBenchmark.newTable(OdfTextDocument.newTextDocument(), SYNTHETIC_ROW_COUNT, SYNTHETIC_COLUMN_COUNT));
+        }
+    }
+
+    @Benchmark
+    public int rows() {
+        int count = 0;
+        for (TableTableElement table : mTables) {
+            TableCursor cursor = new TableCursor(table);
+            while (cursor.nextRow()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void cells(Blackhole bh) {
+        for (TableTableElement table : mTables) {
+            TableCursor cursor = new TableCursor(table);
+            while (cursor.nextRow()) {
+                while (cursor.nextCell()) {
+                    bh.consume(cursor.getCell());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void cellContent(Blackhole bh) {
+        for (TableTableElement table : mTables) {
+            TableCursor cursor = new TableCursor(table);
+            while (cursor.nextRow()) {
+                while (cursor.nextCell()) {
+                    bh.consume(OdtTableExtraction.getCellContent(cursor.getCell()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the data model of a synthetic table, i.e. the construction of
+ * {@link NodeSemantic} and {@link NodeXml} with all setters, and validating
+ * the cardinality mismatches of the model and comparing it with an equal
+ * model, as informative table and as table of the other syntax. The console
+ * output of the validation is suppressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=error")
+public class DataModelBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int mSemanticCount;
+
+    private TableContext mTable;
+    private TableContext mOtherTable;
+    private PrintStream mSystemOut;
+
+    @Setup
+    public void setUp() {
+        mTable = SyntheticModel.newTable(mSemanticCount);
+        mOtherTable = SyntheticModel.newTable(mSemanticCount);
+        mSystemOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(mSystemOut);
+    }
+
+    @Benchmark
+    public TableContext construction() {
+        return SyntheticModel.newTable(mSemanticCount);
+    }
+
+    @Benchmark
+    public void cardinalityValidation() {
+        NodeSemantic.validateCardinalityMismatches(mTable, false);
+    }
+
+    @Benchmark
+    public void parallelCardinalityValidation() {
+        NodeSemantic.validateCardinalityMismatches(mTable, true);
+    }
+
+    @Benchmark
+    public ValidationReport tableDiff() {
+        ValidationReport report = new ValidationReport();
+        TableDiff.compare(mTable, mOtherTable, report);
+        return report;
+    }
+
+    @Benchmark
+    public ValidationReport syntaxConsistency() {
+        ValidationReport report = new ValidationReport();
+        SyntaxConsistencyCheck.compare(Collections.singletonList(mTable), Collections.singletonList(mOtherTable), report);
+        return report;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Provides the example specification of the unit tests as benchmark input.
+ */
+final class ExampleDocument {
+
+    static final String FILE_NAME = "16931-3-3_example.odt";
+
+    private ExampleDocument() {
+    }
+
+    /**
+     * Copies the example specification from the classpath into a new
+     * temporary directory, where the output files of its extraction are
+     * written to.
+     *
+     * @return the copy of the example specification
+     */
+    static File newCopy() throws IOException {
+        Path dir = Files.createTempDirectory("en16931-benchmark");
+        Path copy = dir.resolve(FILE_NAME);
+        try (InputStream in = ExampleDocument.class.getClassLoader().getResourceAsStream(FILE_NAME)) {
+            if (in == null) {
+                throw new IOException("Missing benchmark resource " + FILE_NAME);
+            }
+            Files.copy(in, copy);
+        }
+        return copy.toFile();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.odftoolkit.odfdom.doc.OdfTextDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Loading and complete extraction of the example specification: by ODFDOM,
+ * by streaming its content.xml and by a hit of the extraction cache. The
+ * output files are written into a temporary directory, log messages below
+ * errors and the console output of the validation are suppressed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=error")
+public class ExtractionBenchmark {
+
+    private File mExample;
+    private PrintStream mSystemOut;
+
+    @Setup
+    public void setUp() throws Exception {
+        mExample = ExampleDocument.newCopy();
+        mSystemOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        // fills the cache
+        newCachedExtraction().collectSpecData(mExample.getAbsolutePath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(mSystemOut);
+    }
+
+    @Benchmark
+    public void loadDocument(Blackhole bh) throws Exception {
+        OdfTextDocument doc = OdfTextDocument.loadDocument(mExample);
+        bh.consume(doc.getContentRoot());
+        doc.close();
+    }
+
+    @Benchmark
+    public void extractDom() throws Exception {
+        new OdtTableExtraction().collectSpecData(mExample.getAbsolutePath());
+    }
+
+    @Benchmark
+    public void extractStreaming() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setStreaming(true);
+        extraction.collectSpecData(mExample.getAbsolutePath());
+    }
+
+    @Benchmark
+    public void extractCached() throws Exception {
+        newCachedExtraction().collectSpecData(mExample.getAbsolutePath());
+    }
+
+    private OdtTableExtraction newCachedExtraction() {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setCacheDirectory(new File(mExample.getParentFile(), "cache"));
+        return extraction;
+    }
+}
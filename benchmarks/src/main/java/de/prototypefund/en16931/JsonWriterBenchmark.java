@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the JSON serialization of a table by {@link JsonWriter}, of
+ * only the semantic data and of the complete binding, both written to a
+ * discarding writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonWriterBenchmark {
+
+    @Param({"1000"})
+    public int mSemanticCount;
+
+    private TableContext mTable;
+
+    @Setup
+    public void setUp() {
+        mTable = SyntheticModel.newTable(mSemanticCount);
+    }
+
+    @Benchmark
+    public void semanticJson() throws IOException {
+        write(Boolean.TRUE);
+    }
+
+    @Benchmark
+    public void bindingJson() throws IOException {
+        write(Boolean.FALSE);
+    }
+
+    private void write(boolean onlySemantic) throws IOException {
+        JsonWriter json = new JsonWriter(Writer.nullWriter());
+        json.startObject(Boolean.FALSE);
+        json.member("table", mTable.getTitle());
+        json.name("semantics");
+        json.startArray(Boolean.TRUE);
+        for (NodeSemantic s : mTable.getSemanticNodes().values()) {
+            s.writeJson(json, onlySemantic);
+        }
+        json.endArray();
+        json.endObject();
+    }
+}
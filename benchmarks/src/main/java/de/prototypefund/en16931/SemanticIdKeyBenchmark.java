@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.type.NumberAwareStringComparator;
+import de.prototypefund.en16931.type.SemanticIdKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Fills and queries the sorted map of semantic nodes of a table, either with
+ * the former regular expression based comparator on strings, the current
+ * {@link NumberAwareStringComparator} or with the parsed
+ * {@link SemanticIdKey}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SemanticIdKeyBenchmark {
+
+    private List<String> mIds;
+
+    @Setup
+    public void setUp() {
+        // the semantic IDs of EN16931-1: BG-1 to BG-32, BT-1 to BT-165 and some extensions
+        mIds = new ArrayList<>();
+        for (int i = 1; i <= 32; i++) {
+            mIds.add("BG-" + i);
+        }
+        for (int i = 1; i <= 165; i++) {
+            mIds.add("BT-" + i);
+            if (i % 10 == 0) {
+                mIds.add("BT-" + i + "-1");
+            }
+        }
+        Collections.shuffle(mIds, new Random(16931));
+    }
+
+    @Benchmark
+    public void regexComparator(Blackhole bh) {
+        TreeMap<String, String> map = new TreeMap<>(new RegexComparator());
+        for (String id : mIds) {
+            if (!map.containsKey(id)) {
+                map.put(id, id);
+            }
+        }
+        for (String id : mIds) {
+            bh.consume(map.get(id));
+        }
+    }
+
+    @Benchmark
+    public void semanticIdKey(Blackhole bh) {
+        TreeMap<SemanticIdKey, String> map = new TreeMap<>();
+        for (String id : mIds) {
+            map.putIfAbsent(new SemanticIdKey(id), id);
+        }
+        for (String id : mIds) {
+            bh.consume(map.get(new SemanticIdKey(id)));
+        }
+    }
+
+    @Benchmark
+    public void numberAwareStringComparator(Blackhole bh) {
+        TreeMap<String, String> map = new TreeMap<>(new NumberAwareStringComparator());
+        for (String id : mIds) {
+            map.putIfAbsent(id, id);
+        }
+        for (String id : mIds) {
+            bh.consume(map.get(id));
+        }
+    }
+
+    /**
+     * The former NumberAwareStringComparator
+     */
+    private static class RegexComparator implements Comparator<String> {
+
+        @Override
+        public int compare(String s1, String s2) {
+            String[] s1Parts = s1.split("(?<=\\D)(?=\\d)|(?<=\\d)(?=\\D)");
+            String[] s2Parts = s2.split("(?<=\\D)(?=\\d)|(?<=\\d)(?=\\D)");
+            int i = 0;
+            while (i < s1Parts.length && i < s2Parts.length) {
+                if (s1Parts[i].compareTo(s2Parts[i]) == 0) {
+                    ++i;
+                } else {
+                    try {
+                        int diff = Integer.parseInt(s1Parts[i]) - Integer.parseInt(s2Parts[i]);
+                        if (diff == 0) {
+                            ++i;
+                        } else {
+                            return diff;
+                        }
+                    } catch (Exception ex) {
+                        return s1.compareTo(s2);
+                    }
+                }
+            }
+            return Integer.compare(s1.length(), s2.length());
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.odftoolkit.odfdom.doc.OdfTextDocument;
+
+/**
+ * Generates specification documents with syntax binding tables of any size,
+ * e.g. to measure the extraction of country CIUS extensions with thousands of
+ * rows.
+ *
+ * The package of the document (mimetype, manifest, styles and meta data) is
+ * taken from a new ODFDOM text document, only its content.xml is written by
+ * a streaming XML writer directly into the ZIP, so documents up to a
+ * gigabyte can be generated without holding their DOM in memory.
+ *
+ * Each table has one of the layouts recognised by the extraction and a
+ * number of content rows. A share of the rows (the defect rate) contains one
+ * of the defects, the extraction has to report: IDs with an en dash instead
+ * of a hyphen, unknown mismatch codes and IDs already used in the table.
+ * All content is derived from a seeded random, so the same configuration
+ * generates the same document.
+ *
+ * Usage: <code>java -cp benchmarks.jar
+ * de.prototypefund.en16931.SpecificationGenerator FILE [ROWS [TABLES
+ * [DEFECT_RATE]]]</code>
+ */
+public final class SpecificationGenerator {
+
+    /**
+     * The table layouts of the specifications, by their column count.
+     */
+    enum Layout {
+        /**
+         * semantic columns followed by path, type, card., match and rules
+         */
+        NORMATIVE_XML(11, "normative"),
+        /**
+         * path and card. followed by the semantic columns
+         */
+        INFORMATIVE_XML(8, "informative"),
+        /**
+         * semantic columns followed by path, card., match and rules
+         */
+        NORMATIVE_EDIFACT(10, "normative"),
+        /**
+         * path, card. and name followed by the semantic columns
+         */
+        INFORMATIVE_EDIFACT(9, "informative");
+
+        private final int mColumnCount;
+        private final String mKind;
+
+        Layout(int columnCount, String kind) {
+            mColumnCount = columnCount;
+            mKind = kind;
+        }
+
+        int getColumnCount() {
+            return mColumnCount;
+        }
+
+        boolean isNormative() {
+            return mKind.equals("normative");
+        }
+
+        boolean isXml() {
+            return this == NORMATIVE_XML || this == INFORMATIVE_XML;
+        }
+    }
+
+    /**
+     * The defects being placed into rows.
+     */
+    enum Defect {
+        /**
+         * a sub ID separated by an en dash, e.g. "BT-18\u20131"
+         */
+        BAD_HYPHEN,
+        /**
+         * a mismatch code not defined by EN16931, e.g. "CAR-9"
+         */
+        UNKNOWN_MISMATCH,
+        /**
+         * an ID already used before within the table
+         */
+        DUPLICATE_ID
+    }
+
+    private static final String NS_OFFICE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+    private static final String NS_TEXT = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+    private static final String NS_TABLE = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+    private static final String CONTENT_XML = "content.xml";
+    private static final String MIMETYPE = "mimetype";
+    private static final String[] SEMANTIC_HEADER = {"ID", "Level", "Card.", "BT", "Desc.", "DT"};
+    private static final String[] CARDINALITIES = {"0..1", "1..1", "0..n", "1..n"};
+    private static final String[] SEMANTIC_DATA_TYPES = {"A", "B", "C", "D", "I", "M", "O", "P", "Q", "S", "T", "U"};
+    private static final String[] SYNTAX_TYPES = {"E", "A", "G"};
+    private static final String[] UBL_DATA_TYPES = {"A", "B", "C", "D", "I", "N", "Nb", "P", "Q", "T"};
+    private static final String[] MISMATCHES = {"CAR-1", "CAR-2", "CAR-3", "SEM-1", "STR-1", "SYN-1"};
+    private static final String DESCRIPTION = "A textual note that gives unstructured information that is relevant to the Invoice as a whole.";
+
+    private int mTableCount = 4;
+    private int mRowCount = 1000;
+    private List<Layout> mLayouts = new ArrayList<>(EnumSet.allOf(Layout.class));
+    private Set<Defect> mDefects = EnumSet.allOf(Defect.class);
+    private double mDefectRate = 0.0;
+    private boolean mIsUbl = Boolean.FALSE;
+    private long mSeed = 16931;
+
+    /**
+     * @param tableCount the number of tables of the document, by default 4
+     */
+    public void setTableCount(int tableCount) {
+        mTableCount = tableCount;
+    }
+
+    /**
+     * @param rowCount the number of content rows of each table, by default
+     * 1,000
+     */
+    public void setRowCount(int rowCount) {
+        mRowCount = rowCount;
+    }
+
+    /**
+     * @param layouts the layouts of the tables, used in turns, by default all
+     * four layouts
+     */
+    void setLayouts(Layout... layouts) {
+        mLayouts = new ArrayList<>(List.of(layouts));
+    }
+
+    /**
+     * @param defects the defects placed into defect rows, by default all
+     * defects
+     */
+    void setDefects(Set<Defect> defects) {
+        mDefects = defects.isEmpty() ? EnumSet.noneOf(Defect.class) : EnumSet.copyOf(defects);
+    }
+
+    /**
+     * @param defectRate the share of content rows with a defect between 0 and
+     * 1, by default 0
+     */
+    public void setDefectRate(double defectRate) {
+        mDefectRate = defectRate;
+    }
+
+    /**
+     * @param isUbl if true the titles of XML tables name UBL instead of
+     * UN/CEFACT, so UBL data types are used
+     */
+    public void setUbl(boolean isUbl) {
+        mIsUbl = isUbl;
+    }
+
+    public void setSeed(long seed) {
+        mSeed = seed;
+    }
+
+    /**
+     * Writes the specification document.
+     *
+     * @param odtFile the document to be written
+     */
+    public void write(File odtFile) throws Exception {
+        OdfTextDocument template = OdfTextDocument.newTextDocument();
+        String version = template.getContentDom().getDocumentElement().getAttributeNS(NS_OFFICE, "version");
+        ByteArrayOutputStream templateBytes = new ByteArrayOutputStream();
+        template.save(templateBytes);
+        template.close();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(templateBytes.toByteArray()));
+                ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(odtFile), 64 * 1024))) {
+            // the mimetype has to be the first entry and uncompressed
+            writeMimetype(out, template.getMediaTypeString());
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                if (entry.getName().equals(MIMETYPE)) {
+                    continue;
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                if (entry.getName().equals(CONTENT_XML)) {
+                    writeContent(out, version);
+                } else {
+                    in.transferTo(out);
+                }
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void writeMimetype(ZipOutputStream out, String mediaType) throws IOException {
+        byte[] bytes = mediaType.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ZipEntry entry = new ZipEntry(MIMETYPE);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        entry.setCompressedSize(bytes.length);
+        entry.setCrc(crc.getValue());
+        out.putNextEntry(entry);
+        out.write(bytes);
+        out.closeEntry();
+    }
+
+    private void writeContent(OutputStream zip, String version) throws XMLStreamException, IOException {
+        // the deflater of the ZIP is slow on the many small writes of the XML writer
+        BufferedOutputStream out = new BufferedOutputStream(zip, 64 * 1024);
+        XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("office", "document-content", NS_OFFICE);
+        xml.writeNamespace("office", NS_OFFICE);
+        xml.writeNamespace("text", NS_TEXT);
+        xml.writeNamespace("table", NS_TABLE);
+        xml.writeAttribute("office", NS_OFFICE, "version", version);
+        xml.writeStartElement("office", "body", NS_OFFICE);
+        xml.writeStartElement("office", "text", NS_OFFICE);
+        Random random = new Random(mSeed);
+        for (int t = 0; t < mTableCount; t++) {
+            Layout layout = mLayouts.get(t % mLayouts.size());
+            xml.writeStartElement("text", "h", NS_TEXT);
+            xml.writeAttribute("text", NS_TEXT, "outline-level", "1");
+            xml.writeCharacters(getTitle(t + 1, layout));
+            xml.writeEndElement();
+            writeTable(xml, layout, random);
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        // the ZIP entry is closed by the caller
+        xml.flush();
+        out.flush();
+    }
+
+    private String getTitle(int number, Layout layout) {
+        String syntax = layout.isXml() ? (mIsUbl ? "UBL" : "UN/CEFACT") : "EDIFACT";
+        if (layout.isNormative()) {
+            return "Table " + number + " \u2014 Semantic model to " + syntax + " syntax elements mapping (" + layout.mKind + ")";
+        }
+        return "Table " + number + " \u2014 " + syntax + " syntax elements to semantic model mapping (" + layout.mKind + ")";
+    }
+
+    private void writeTable(XMLStreamWriter xml, Layout layout, Random random) throws XMLStreamException {
+        xml.writeStartElement("table", "table", NS_TABLE);
+        xml.writeEmptyElement("table", "table-column", NS_TABLE);
+        xml.writeAttribute("table", NS_TABLE, "number-columns-repeated", Integer.toString(layout.getColumnCount()));
+        xml.writeStartElement("table", "table-header-rows", NS_TABLE);
+        writeRow(xml, getHeader(layout));
+        xml.writeEndElement();
+        for (int r = 1; r <= mRowCount; r++) {
+            Defect defect = null;
+            if (!mDefects.isEmpty() && random.nextDouble() < mDefectRate) {
+                List<Defect> defects = new ArrayList<>(mDefects);
+                defect = defects.get(random.nextInt(defects.size()));
+            }
+            String id;
+            if (defect == Defect.DUPLICATE_ID && r > 1) {
+                // the ID of any preceding row, unless that row had a defect
+                id = getId(1 + random.nextInt(r - 1), null);
+            } else {
+                id = getId(r, defect);
+            }
+            writeRow(xml, getRow(layout, id, r, defect, random));
+        }
+        xml.writeEndElement();
+    }
+
+    /**
+     * @return the ID of the given row, every fifth ID has a sub ID
+     */
+    private static String getId(int row, Defect defect) {
+        String prefix = row % 25 == 0 ? "BG-" : "BT-";
+        if (row % 5 == 0 || defect == Defect.BAD_HYPHEN) {
+            return prefix + row + (defect == Defect.BAD_HYPHEN ? "\u2013" : "-") + (1 + row % 3);
+        }
+        return prefix + row;
+    }
+
+    private static String[] getHeader(Layout layout) {
+        switch (layout) {
+            case NORMATIVE_XML:
+                return concat(SEMANTIC_HEADER, "Path", "Type", "Card.", "Match", "Rules");
+            case NORMATIVE_EDIFACT:
+                return concat(SEMANTIC_HEADER, "Path", "Card.", "Match", "Rules");
+            case INFORMATIVE_XML:
+                return concat(new String[]{"Path", "Card."}, SEMANTIC_HEADER);
+            default:
+                return concat(new String[]{"Path", "Card.", "Name"}, SEMANTIC_HEADER);
+        }
+    }
+
+    private String[] getRow(Layout layout, String id, int row, Defect defect, Random random) {
+        String[] semantic = {id, Integer.toString(1 + row % 4), pick(CARDINALITIES, random),
+            "Business term " + row, DESCRIPTION, pick(SEMANTIC_DATA_TYPES, random)};
+        String path = (layout.isXml() ? "/Invoice/cac:InvoiceLine/cbc:Note" : "SG25/FTX/C108/4440:") + row;
+        String cardinality = pick(CARDINALITIES, random);
+        String match = defect == Defect.UNKNOWN_MISMATCH ? "CAR-9" : (random.nextInt(10) == 0 ? pick(MISMATCHES, random) : "");
+        String rules = random.nextInt(4) == 0 ? "Only value \"" + row + "\"" : "";
+        switch (layout) {
+            case NORMATIVE_XML:
+                return concat(semantic, path, pick(mIsUbl ? UBL_DATA_TYPES : SYNTAX_TYPES, random), cardinality, match, rules);
+            case NORMATIVE_EDIFACT:
+                return concat(semantic, path, cardinality, match, rules);
+            case INFORMATIVE_XML:
+                return concat(new String[]{path, cardinality}, semantic);
+            default:
+                return concat(new String[]{path, cardinality, "Free text"}, semantic);
+        }
+    }
+
+    private static void writeRow(XMLStreamWriter xml, String[] cells) throws XMLStreamException {
+        xml.writeStartElement("table", "table-row", NS_TABLE);
+        for (String cell : cells) {
+            xml.writeStartElement("table", "table-cell", NS_TABLE);
+            xml.writeStartElement("text", "p", NS_TEXT);
+            xml.writeCharacters(cell);
+            xml.writeEndElement();
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String[] concat(String[] first, String... second) {
+        String[] all = new String[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    /**
+     * @param args the document to be written, optionally followed by the
+     * row count of each table, the table count and the defect rate
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Usage: SpecificationGenerator FILE [ROWS [TABLES [DEFECT_RATE]]]");
+            return;
+        }
+        SpecificationGenerator generator = new SpecificationGenerator();
+        if (args.length > 1) {
+            generator.setRowCount(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            generator.setTableCount(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            generator.setDefectRate(Double.parseDouble(args[3]));
+        }
+        File odtFile = new File(args[0]);
+        generator.write(odtFile);
+        System.out.println("Generated " + odtFile.getAbsolutePath() + " (" + odtFile.length() + " bytes)");
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Complete extraction of a document generated by the
+ * {@link SpecificationGenerator} with a table of each layout and 1% defect
+ * rows, by ODFDOM and by streaming its content.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, batchSize = 1)
+@Measurement(iterations = 5, batchSize = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=off")
+public class SyntheticExtractionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int mRowCount;
+
+    private File mDocument;
+    private PrintStream mSystemOut;
+
+    @Setup
+    public void setUp() throws Exception {
+        mDocument = new File(Files.createTempDirectory("en16931-benchmark").toFile(), "synthetic_" + mRowCount + ".odt");
+        SpecificationGenerator generator = new SpecificationGenerator();
+        generator.setRowCount(mRowCount);
+        generator.setDefectRate(0.01);
+        generator.write(mDocument);
+        mSystemOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(mSystemOut);
+    }
+
+    @Benchmark
+    public void extractDom() throws Exception {
+        new OdtTableExtraction().collectSpecData(mDocument.getAbsolutePath());
+    }
+
+    @Benchmark
+    public void extractStreaming() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setStreaming(true);
+        extraction.collectSpecData(mDocument.getAbsolutePath());
+    }
+}
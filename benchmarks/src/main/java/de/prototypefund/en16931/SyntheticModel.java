@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+/**
+ * Creates the data model of a synthetic normative table, without reading any
+ * document.
+ */
+final class SyntheticModel {
+
+    private SyntheticModel() {
+    }
+
+    /**
+     * @param semanticCount the number of semantic nodes, each with two XML
+     * syntax nodes
+     * @return the table with its data model
+     */
+    static TableContext newTable(int semanticCount) {
+        return newTable(semanticCount, System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * @param semanticCount the number of semantic nodes, each with two XML
+     * syntax nodes
+     * @param outputPath the directory the output files of the table are
+     * written to
+     * @return the table with its data model
+     */
+    static TableContext newTable(int semanticCount, String outputPath) {
+        TableContext table = new TableContext(new DocumentContext("synthetic.odt", outputPath), "Table 2 — Semantic model to UBL syntax elements mapping (normative)");
+        table.setColumnCount(11);
+        table.setSyntax(Boolean.TRUE, Boolean.TRUE);
+        for (int i = 1; i <= semanticCount; i++) {
+            NodeSemantic s = new NodeSemantic("BT-" + i, table);
+            s.setLevel(1 + i % 4);
+            s.setCardinality("1..1");
+            s.setBusinessTerm("Invoice note " + i);
+            s.setDescription("A textual note that gives unstructured information that is relevant to the Invoice as a whole.");
+            s.setDataType("T");
+            NodeXml element = new NodeXml("/Invoice/cac:InvoiceLine/cbc:Note" + i, s);
+            element.setType("E");
+            element.setCardinalityXml("0..1");
+            element.setRules("Only value \"4711\"");
+            NodeXml attribute = new NodeXml("/Invoice/cac:InvoiceLine/cbc:Note" + i + "/@languageID", s);
+            attribute.setType("A");
+            attribute.setCardinalityXml("0..1");
+        }
+        return table;
+    }
+}
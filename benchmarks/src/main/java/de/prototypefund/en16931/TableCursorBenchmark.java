@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.util.concurrent.TimeUnit;
+import org.odftoolkit.odfdom.doc.OdfTextDocument;
+import org.odftoolkit.odfdom.doc.table.OdfTable;
+import org.odftoolkit.odfdom.doc.table.OdfTableRow;
+import org.odftoolkit.odfdom.dom.element.table.TableTableCellElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableRowElement;
+import org.odftoolkit.odfdom.dom.element.text.TextPElement;
+import org.odftoolkit.odfdom.pkg.OdfFileDom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reads every cell of a synthetic normative table (11 columns) either by the
+ * forward-only {@link TableCursor} or by the index based access of
+ * {@link OdfTable}. The time of the cursor grows linear with the row count up
+ * to 5,000 rows, while the index based access grows that fast that it is only
+ * measured for a few hundred rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableCursorBenchmark {
+
+    private static final int COLUMN_COUNT = 11;
+
+    @State(Scope.Benchmark)
+    public static class CursorTable {
+
+        @Param({"625", "1250", "2500", "5000"})
+        public int mRowCount;
+
+        TableTableElement mTable;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            mTable = newTable(OdfTextDocument.newTextDocument(), mRowCount, COLUMN_COUNT);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IndexTable {
+
+        @Param({"50", "100", "200"})
+        public int mIndexRowCount;
+
+        TableTableElement mTable;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            mTable = newTable(OdfTextDocument.newTextDocument(), mIndexRowCount, COLUMN_COUNT);
+        }
+    }
+
+    @Benchmark
+    public void cursor(CursorTable state, Blackhole bh) {
+        TableCursor cursor = new TableCursor(state.mTable);
+        while (cursor.nextRow()) {
+            while (cursor.nextCell()) {
+                bh.consume(cursor.getCell().getTextContent());
+            }
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 1, batchSize = 1)
+    @Measurement(iterations = 3, batchSize = 1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void index(IndexTable state, Blackhole bh) {
+        OdfTable table = OdfTable.getInstance(state.mTable);
+        int rowCount = table.getRowCount();
+        for (int r = 0; r < rowCount; r++) {
+            OdfTableRow tr = table.getRowByIndex(r);
+            int cellCount = tr.getCellCount();
+            for (int c = 0; c < cellCount; c++) {
+                bh.consume(tr.getCellByIndex(c).getOdfElement().getTextContent());
+            }
+        }
+    }
+
+    /**
+     * Creates a table with a single header row followed by the given number
+     * of content rows, each cell with a single paragraph.
+     */
+    static TableTableElement newTable(OdfTextDocument doc, int rowCount, int columnCount) throws Exception {
+        OdfFileDom dom = doc.getContentDom();
+        TableTableElement table = doc.getContentRoot().newTableTableElement();
+        table.newTableTableColumnElement().setTableNumberColumnsRepeatedAttribute(columnCount);
+        TableTableRowElement header = table.newTableTableHeaderRowsElement().newTableTableRowElement();
+        newCells(dom, header, "ID", columnCount);
+        for (int r = 1; r <= rowCount; r++) {
+            newCells(dom, table.newTableTableRowElement(), "BT-" + r, columnCount);
+        }
+        return table;
+    }
+
+    private static void newCells(OdfFileDom dom, TableTableRowElement row, String content, int columnCount) {
+        for (int c = 0; c < columnCount; c++) {
+            TableTableCellElement cell = dom.newOdfElement(TableTableCellElement.class);
+            TextPElement p = dom.newOdfElement(TextPElement.class);
+            p.setTextContent(c == 0 ? content : content + " cell " + c);
+            cell.appendChild(p);
+            row.appendChild(cell);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes each output file of a synthetic table by the {@link TableSerializer}
+ * into a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=error")
+public class TableSerializerBenchmark {
+
+    @Param({"1000"})
+    public int mSemanticCount;
+
+    // the name of a TableSerializer.Output
+    @Param({"XML", "SUBSET_XML", "SEMANTIC_XML", "SEMANTIC_JSON", "JSON"})
+    public String mOutput;
+
+    private TableSerializer mSerializer;
+    private EnumSet<TableSerializer.Output> mOutputs;
+
+    @Setup
+    public void setUp() throws Exception {
+        String outputPath = Files.createTempDirectory("en16931-benchmark").toString();
+        mSerializer = new TableSerializer(SyntheticModel.newTable(mSemanticCount, outputPath));
+        mOutputs = EnumSet.of(TableSerializer.Output.valueOf(mOutput));
+    }
+
+    @Benchmark
+    public void write() {
+        mSerializer.write(Boolean.TRUE, mOutputs);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.type.CardinalityEdifact;
+import de.prototypefund.en16931.type.CardinalitySemantic;
+import de.prototypefund.en16931.type.CardinalityXml;
+import de.prototypefund.en16931.type.MisMatch;
+import de.prototypefund.en16931.type.MisMatchCardinality;
+import de.prototypefund.en16931.type.MisMatchDatatype;
+import de.prototypefund.en16931.type.MisMatchSemantic;
+import de.prototypefund.en16931.type.MisMatchStructural;
+import de.prototypefund.en16931.type.SemanticDataType;
+import de.prototypefund.en16931.type.SyntaxType;
+import de.prototypefund.en16931.type.TypeStatistic;
+import de.prototypefund.en16931.type.UblDataType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looks up all values of an enum type by <code>getByValue</code>, counting
+ * each value in a type statistic as done during the extraction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeLookupBenchmark {
+
+    private static final String SEMANTIC_ID = "BT-1";
+    private final TypeStatistic mStatistic = new TypeStatistic();
+    private String[] mCardinalitySemantic;
+    private String[] mCardinalityXml;
+    private String[] mCardinalityEdifact;
+    private String[] mSemanticDataType;
+    private String[] mSyntaxType;
+    private String[] mUblDataType;
+    private String[] mMisMatch;
+
+    @Setup
+    public void setUp() {
+        List<String> values = new ArrayList<>();
+        for (CardinalitySemantic c : CardinalitySemantic.values()) {
+            values.add(c.getValue());
+        }
+        mCardinalitySemantic = toArray(values);
+        for (CardinalityXml c : CardinalityXml.values()) {
+            values.add(c.getValue());
+        }
+        mCardinalityXml = toArray(values);
+        for (CardinalityEdifact c : CardinalityEdifact.values()) {
+            values.add(c.getValue());
+        }
+        mCardinalityEdifact = toArray(values);
+        for (SemanticDataType t : SemanticDataType.values()) {
+            values.add(t.getValue());
+        }
+        mSemanticDataType = toArray(values);
+        for (SyntaxType t : SyntaxType.values()) {
+            values.add(t.getValue());
+        }
+        mSyntaxType = toArray(values);
+        for (UblDataType t : UblDataType.values()) {
+            values.add(t.getValue());
+        }
+        mUblDataType = toArray(values);
+        for (MisMatch[] misMatches : new MisMatch[][]{MisMatchCardinality.values(), MisMatchDatatype.values(), MisMatchSemantic.values(), MisMatchStructural.values()}) {
+            for (MisMatch m : misMatches) {
+                values.add(m.getValue());
+            }
+        }
+        mMisMatch = toArray(values);
+    }
+
+    @Benchmark
+    public void cardinalitySemantic(Blackhole bh) {
+        for (String value : mCardinalitySemantic) {
+            bh.consume(CardinalitySemantic.getByValue(value, SEMANTIC_ID, mStatistic));
+        }
+    }
+
+    @Benchmark
+    public void cardinalityXml(Blackhole bh) {
+        for (String value : mCardinalityXml) {
+            bh.consume(CardinalityXml.getByValue(value, SEMANTIC_ID, mStatistic));
+        }
+    }
+
+    @Benchmark
+    public void cardinalityEdifact(Blackhole bh) {
+        for (String value : mCardinalityEdifact) {
+            bh.consume(CardinalityEdifact.getByValue(value, SEMANTIC_ID, mStatistic));
+        }
+    }
+
+    @Benchmark
+    public void semanticDataType(Blackhole bh) {
+        for (String value : mSemanticDataType) {
+            bh.consume(SemanticDataType.getByValue(value, SEMANTIC_ID, mStatistic));
+        }
+    }
+
+    @Benchmark
+    public void syntaxType(Blackhole bh) {
+        for (String value : mSyntaxType) {
+            bh.consume(SyntaxType.getByValue(value, SEMANTIC_ID, mStatistic));
+        }
+    }
+
+    @Benchmark
+    public void ublDataType(Blackhole bh) {
+        for (String value : mUblDataType) {
+            bh.consume(UblDataType.getByValue(value, SEMANTIC_ID, mStatistic));
+        }
+    }
+
+    @Benchmark
+    public void misMatch(Blackhole bh) {
+        for (String value : mMisMatch) {
+            bh.consume(MisMatch.createMisMatch(value, SEMANTIC_ID, mStatistic));
+        }
+    }
+
+    /**
+     * @return the values as array, the list is cleared afterwards
+     */
+    private static String[] toArray(List<String> values) {
+        String[] array = values.toArray(new String[values.size()]);
+        values.clear();
+        return array;
+    }
+}
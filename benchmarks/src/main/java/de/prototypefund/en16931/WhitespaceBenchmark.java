@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the whitespace normalisation of {@link Whitespace} with the
+ * regular expressions formerly used for every cell. The samples are typical
+ * cell contents, most of them without any whitespace problem.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WhitespaceBenchmark {
+
+    private static final String LEADING_TRAILING_WHITESPACES = "(^\\h*)|(\\h*$)";
+    private static final Pattern LEADING_TRAILING_PATTERN = Pattern.compile(LEADING_TRAILING_WHITESPACES);
+    private static final Pattern WHITESPACES_PATTERN = Pattern.compile("\\s+");
+
+    private final String[] mSamples = {"BT-1", "Invoice number", "0..1", "/Invoice/cbc:ID",
+        "A unique identification of the Invoice.", " Seller name", "Invoice  note\n", "String", "SEM"};
+
+    @Benchmark
+    public void trimRegex(Blackhole bh) {
+        for (String s : mSamples) {
+            bh.consume(s.replaceAll(LEADING_TRAILING_WHITESPACES, ""));
+        }
+    }
+
+    @Benchmark
+    public void trimPrecompiledRegex(Blackhole bh) {
+        for (String s : mSamples) {
+            bh.consume(LEADING_TRAILING_PATTERN.matcher(s).replaceAll(""));
+        }
+    }
+
+    @Benchmark
+    public void trimScanner(Blackhole bh) {
+        for (String s : mSamples) {
+            bh.consume(Whitespace.trim(s));
+        }
+    }
+
+    @Benchmark
+    public void normalizeRegex(Blackhole bh) {
+        for (String s : mSamples) {
+            bh.consume(s.replaceAll("\\s+", " ").replaceAll(LEADING_TRAILING_WHITESPACES, ""));
+        }
+    }
+
+    @Benchmark
+    public void normalizePrecompiledRegex(Blackhole bh) {
+        for (String s : mSamples) {
+            bh.consume(LEADING_TRAILING_PATTERN.matcher(WHITESPACES_PATTERN.matcher(s).replaceAll(" ")).replaceAll(""));
+        }
+    }
+
+    @Benchmark
+    public void normalizeScanner(Blackhole bh) {
+        for (String s : mSamples) {
+            bh.consume(Whitespace.normalize(s));
+        }
+    }
+
+    @Benchmark
+    public void hasWhitespaceProblemsScanner(Blackhole bh) {
+        for (String s : mSamples) {
+            bh.consume(Whitespace.hasWhitespaceProblems(s));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the XML serialization of a table: streaming by
+ * {@link XmlWriter} with escaping compared to the former string
+ * concatenation without escaping, both written to a discarding writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlWriterBenchmark {
+
+    @Param({"1000"})
+    public int mSemanticCount;
+
+    private TableContext mTable;
+
+    @Setup
+    public void setUp() {
+        mTable = SyntheticModel.newTable(mSemanticCount);
+    }
+
+    @Benchmark
+    public void xmlWriter() throws IOException {
+        XmlWriter xml = new XmlWriter(Writer.nullWriter());
+        xml.startDocument();
+        xml.startElement("semantics");
+        xml.attribute("table", mTable.getTitle());
+        xml.whitespace("\n");
+        for (NodeSemantic s : mTable.getSemanticNodes().values()) {
+            s.writeXml(xml);
+            xml.whitespace("\n");
+        }
+        xml.endElement();
+    }
+
+    @Benchmark
+    public void concatenation() throws IOException {
+        Writer w = Writer.nullWriter();
+        w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<semantics table=\"" + mTable.getTitle() + "\">\n");
+        for (NodeSemantic s : mTable.getSemanticNodes().values()) {
+            w.write(concatenate(s));
+            w.write("\n");
+        }
+        w.write("</semantics>");
+    }
+
+    /**
+     * The former NodeSemantic.toString() and NodeSyntax.toString()
+     */
+    private static String concatenate(NodeSemantic s) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("\t<semantic id=\"" + s.getId() + "\"");
+        xml.append(" level=\"" + s.getLevel() + "\"");
+        xml.append(" card=\"" + s.getCardinality().getValue() + "\"");
+        xml.append(" bt=\"" + s.getBusinessTerm() + "\"");
+        xml.append(" desc=\"" + s.getDescription() + "\"");
+        xml.append(" datatype=\"" + s.getDataType() + "\"");
+        xml.append(">\n");
+        for (NodeSyntax xnode : s.syntaxRepresentations) {
+            StringBuilder syntax = new StringBuilder();
+            syntax.append("\t\t<xml path=\"" + xnode.getPath() + "\"");
+            syntax.append(" type=\"" + ((NodeXml) xnode).getType() + "\"");
+            syntax.append(" card=\"" + xnode.getCardinality() + "\"");
+            if (xnode.getRules() != null) {
+                syntax.append(">");
+                syntax.append(xnode.getRules());
+                syntax.append("</xml>");
+            } else {
+                syntax.append("/>");
+            }
+            xml.append(syntax.toString());
+            xml.append("\n");
+        }
+        xml.append("\t</semantic>");
+        return xml.toString();
+    }
+}
@@ -0,0 +1,238 @@
+/************************************************************************
+ *
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ ************************************************************************/
+package de.prototypefund;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the JVM with a warmed up extractor running and extracts the jobs
+ * submitted by clients, saving the JVM startup and the class loading of
+ * ODFDOM and Xerces for every extraction.
+ *
+ * The daemon listens only on the loopback interface and processes one job
+ * after another. As any local process can connect, a job is only accepted
+ * with the secret token the daemon writes into a token file readable only by
+ * its user. A job consists of the token and the arguments of the command
+ * line, each as a line followed by an empty line. All paths have to be
+ * absolute, as the working directory of the daemon differs from the client.
+ * The daemon answers with the validation findings of the job and a final line
+ * of {@link #EXIT_PREFIX} and the exit code, 0 for success. A client not
+ * sending its job in time is disconnected, so it cannot block later jobs.
+ */
+final class ExtractionDaemon implements Closeable {
+
+    static final int DEFAULT_PORT = 16931;
+    // the job to stop the daemon
+    static final String STOP = "--stop";
+    static final String EXIT_PREFIX = "EXIT ";
+    private static final String WATCH = "--watch";
+    // the time a client has to send each line of its job
+    private static final int JOB_TIMEOUT_MILLIS = 10000;
+    private static final int TOKEN_BYTES = 32;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final ServerSocket mServerSocket;
+    private final String mToken;
+    private final File mTokenFile;
+
+    /**
+     * @param port the port on the loopback interface or 0 for any free port
+     * @param tokenDirectory the directory of the token file, created readable
+     * only by the user if missing
+     */
+    ExtractionDaemon(int port, File tokenDirectory) throws IOException {
+        mServerSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        byte[] token = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(token);
+        StringBuilder hex = new StringBuilder(TOKEN_BYTES * 2);
+        for (byte b : token) {
+            hex.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+        mToken = hex.toString();
+        mTokenFile = getTokenFile(tokenDirectory, getPort());
+        try {
+            writeTokenFile(mTokenFile, mToken);
+        } catch (IOException | RuntimeException ex) {
+            mServerSocket.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return the file of the token of the daemon listening on the port
+     */
+    static File getTokenFile(File tokenDirectory, int port) {
+        return new File(tokenDirectory, "daemon-" + port + ".token");
+    }
+
+    /**
+     * Creates the token file (and its directory) with permissions only for the
+     * user, a former file is replaced.
+     */
+    private static void writeTokenFile(File tokenFile, String token) throws IOException {
+        Path directory = tokenFile.getAbsoluteFile().getParentFile().toPath();
+        Path path = tokenFile.toPath();
+        boolean isPosix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (!Files.isDirectory(directory)) {
+            if (isPosix) {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(directory);
+            }
+        }
+        // a new file never inherits the permissions or the target of a former file or link
+        Files.deleteIfExists(path);
+        try {
+            if (isPosix) {
+                Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } else {
+                Files.createFile(path);
+                File f = path.toFile();
+                f.setReadable(false, false);
+                f.setWritable(false, false);
+                f.setReadable(true, true);
+                f.setWritable(true, true);
+            }
+        } catch (FileAlreadyExistsException ex) {
+            throw new IOException("Token file was created concurrently: " + path, ex);
+        }
+        Files.write(path, token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    int getPort() {
+        return mServerSocket.getLocalPort();
+    }
+
+    /**
+     * Processes the jobs until a client submits {@link #STOP} or the daemon
+     * is closed.
+     */
+    void run() {
+        Logger.getLogger(ExtractionDaemon.class.getName()).log(Level.INFO, "Waiting for extraction jobs on port {0}", getPort());
+        while (!mServerSocket.isClosed()) {
+            try (Socket socket = mServerSocket.accept()) {
+                socket.setSoTimeout(JOB_TIMEOUT_MILLIS);
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                String token = in.readLine();
+                if (token == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.US_ASCII), mToken.getBytes(StandardCharsets.US_ASCII))) {
+                    Logger.getLogger(ExtractionDaemon.class.getName()).log(Level.WARNING, "Rejected job without valid token");
+                    out.write("Invalid token of the extraction daemon!\n" + EXIT_PREFIX + "1\n");
+                    out.flush();
+                    continue;
+                }
+                List<String> args = readJob(in);
+                if (args.size() == 1 && args.get(0).equals(STOP)) {
+                    out.write(EXIT_PREFIX + "0\n");
+                    out.flush();
+                    close();
+                } else if (args.contains(WATCH)) {
+                    // a watching job would never end and block the daemon
+                    out.write("The option " + WATCH + " is not supported by the daemon!\n" + EXIT_PREFIX + "1\n");
+                    out.flush();
+                } else {
+                    boolean isSuccess = JarFunctionality.extract(args, out);
+                    out.write(EXIT_PREFIX + (isSuccess ? "0" : "1") + "\n");
+                    out.flush();
+                }
+            } catch (SocketTimeoutException ex) {
+                Logger.getLogger(ExtractionDaemon.class.getName()).log(Level.WARNING, "Client did not send its job in time");
+            } catch (SocketException ex) {
+                // the server socket was closed
+                if (!mServerSocket.isClosed()) {
+                    Logger.getLogger(ExtractionDaemon.class.getName()).log(Level.WARNING, null, ex);
+                }
+            } catch (IOException | RuntimeException ex) {
+                Logger.getLogger(ExtractionDaemon.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mServerSocket.close();
+        Files.deleteIfExists(mTokenFile.toPath());
+    }
+
+    /**
+     * Submits a job to a running daemon and copies its answer.
+     *
+     * @param port the port of the daemon
+     * @param tokenDirectory the directory of the token file of the daemon
+     * @param args the options and paths of the extraction, relative paths are
+     * made absolute
+     * @param out the writer of the validation findings
+     * @return true if the daemon extracted the job successfully
+     */
+    static boolean submit(int port, File tokenDirectory, List<String> args, Writer out) {
+        File tokenFile = getTokenFile(tokenDirectory, port);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            String token = new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.US_ASCII);
+            Writer job = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            job.write(token + "\n");
+            for (String arg : args) {
+                job.write(JarFunctionality.toAbsolutePath(arg) + "\n");
+            }
+            job.write("\n");
+            job.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (line.startsWith(EXIT_PREFIX)) {
+                    out.flush();
+                    return line.equals(EXIT_PREFIX + "0");
+                }
+                out.write(line);
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException ex) {
+            Logger.getLogger(ExtractionDaemon.class.getName()).log(Level.SEVERE, "No extraction daemon on port " + port, ex);
+        }
+        return false;
+    }
+
+    private static List<String> readJob(BufferedReader in) throws IOException {
+        List<String> args = new ArrayList<>();
+        for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+            args.add(line);
+        }
+        return args;
+    }
+}
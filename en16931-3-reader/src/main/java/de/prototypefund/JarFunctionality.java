@@ -17,11 +17,19 @@
  ************************************************************************/
 package de.prototypefund;
 
+import de.prototypefund.en16931.ExtractionWatcher;
 import de.prototypefund.en16931.OdtTableExtraction;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 import java.util.logging.Level;
@@ -36,11 +44,73 @@ import java.util.logging.Logger;
  * "java -jar en16931-data-extractor-<VERSION_INFO>-jar-with-dependencies.jar".
  * Triggering the data extraction by:
  * "java -jar en16931-data-extractor-<VERSION_INFO>-jar-with-dependencies.jar <DIRECTORY> | <SPECIFICATIONFILE>".
+ * Options have to precede the paths they are used for:
+ * "--stream" streams the content of the specification instead of loading
+ * the complete document into memory.
+ * "--parallel" or "--parallel=THREADS" extracts the specifications of a
+ * directory in parallel, by default using a thread for each processor.
+ * "--json" saves all semantic and syntax data of each table as JSON as well.
+ * "--cache" or "--cache=DIRECTORY" caches the extracted data of each
+ * specification, by default within the temporary directory, so an unchanged
+ * specification is not being parsed again.
+ * "--report=FILE" saves the validation findings of all tables after all
+ * paths were extracted, as JSON for a ".json" suffix, as JUnit XML for a
+ * ".xml" suffix, otherwise as text.
+ * "--metrics=FILE" saves the metrics of the extraction (times, rows, cells,
+ * bytes written, allocations and validation errors of each document and
+ * table), as JSON for a ".json" suffix, otherwise in the Prometheus text format.
+ * "--output=DIRECTORY" saves the output files into the directory instead of
+ * next to each specification.
+ * "--diff" compares each informative table with the subset of its normative
+ * table and adds their differences to the validation findings.
+ * "--cross-check" compares the semantic data of the normative UBL and CII
+ * tables of all given specifications, e.g. EN 16931-3-2 and EN 16931-3-3, and
+ * adds their differences to the validation findings.
+ * "--watch" keeps running after the extraction and extracts a specification
+ * within the directories of the given paths again after it was changed, so
+ * only its output files are rewritten. Its findings and metrics replace the
+ * former ones, the report and metrics files are saved again.
+ * "--daemon" or "--daemon=PORT" keeps the JVM running and extracts the jobs
+ * submitted by clients over a socket of the loopback interface, so class
+ * loading and JIT compilation is done only once. Only clients of the same
+ * user are accepted, which can read the secret token the daemon saves in
+ * "~/.en16931-data-extractor".
+ * "--client" or "--client=PORT" as first argument submits the following
+ * options and paths as job to a running daemon and prints its validation
+ * findings, "--client --stop" stops the daemon.
  */
 public class JarFunctionality {
 
     private static final String CURRENT_CLASS_RESOURCE_PATH = "de/prototypefund/JarFunctionality.class";
     private static final String INNER_JAR_MANIFEST_PATH = "META-INF/MANIFEST.MF";
+    // streams the content.xml of the specifications instead of loading the ODFDOM
+    private static final String OPTION_STREAM = "--stream";
+    // extracts the specifications of a directory in parallel, optionally followed by "=" and the number of threads
+    private static final String OPTION_PARALLEL = "--parallel";
+    // saves the complete binding of each table as JSON as well
+    private static final String OPTION_JSON = "--json";
+    // caches the extracted data, optionally followed by "=" and the cache directory
+    private static final String OPTION_CACHE = "--cache";
+    private static final String DEFAULT_CACHE_DIRECTORY = "en16931-data-extractor-cache";
+    // saves the validation findings, followed by "=" and the report file
+    private static final String OPTION_REPORT = "--report=";
+    // saves the metrics of the extraction, followed by "=" and the metrics file
+    private static final String OPTION_METRICS = "--metrics=";
+    // saves the output files into a directory instead of next to each specification, followed by "=" and the directory
+    private static final String OPTION_OUTPUT = "--output=";
+    // compares each informative table with the subset of its normative table
+    private static final String OPTION_DIFF = "--diff";
+    // after the extraction compares the normative UBL tables with the normative CII tables
+    private static final String OPTION_CROSS_CHECK = "--cross-check";
+    // after the extraction watches the given paths and extracts changed specifications again
+    private static final String OPTION_WATCH = "--watch";
+    // keeps running and extracts the jobs of clients, optionally followed by "=" and the port
+    private static final String OPTION_DAEMON = "--daemon";
+    // submits the following arguments as job to a daemon, optionally followed by "=" and the port
+    private static final String OPTION_CLIENT = "--client";
+    private static final String INVALID_OPTION = "Invalid option: ";
+    // the directory of the token files of the daemons, only accessible by the user
+    private static final File DAEMON_TOKEN_DIRECTORY = new File(System.getProperty("user.home"), ".en16931-data-extractor");
     private static String PROJECT_NAME;
     private static String PROJECT_VERSION;
     private static String PROJECT_WEBSITE;
@@ -98,23 +168,216 @@ public class JarFunctionality {
     public static void main(String[] args) {
         if(args == null || args.length == 0){
             System.out.println(getProjectTitle() + " (build " + getProjectBuildDate() + ')' + "\nfrom " + getProjectWebsite());
-        }else if(args.length == 1){
-            try {
-                new OdtTableExtraction().collectSpecData(args[0]);
-            } catch (Exception ex) {
+        }else if(args[0].equals(OPTION_DAEMON) || args[0].startsWith(OPTION_DAEMON + "=")){
+            int port = getPort(args[0], OPTION_DAEMON);
+            if(port < 0){
+                exitWithUsageError(args[0]);
+            }
+            try (ExtractionDaemon daemon = new ExtractionDaemon(port, DAEMON_TOKEN_DIRECTORY)) {
+                daemon.run();
+            } catch (IOException ex) {
                 Logger.getLogger(JarFunctionality.class.getName()).log(Level.SEVERE, null, ex);
+                System.exit(1);
             }
+        }else if(args[0].equals(OPTION_CLIENT) || args[0].startsWith(OPTION_CLIENT + "=")){
+            int port = getPort(args[0], OPTION_CLIENT);
+            if(port < 0){
+                exitWithUsageError(args[0]);
+            }
+            Writer out = new OutputStreamWriter(System.out, Charset.defaultCharset());
+            boolean isSuccess = ExtractionDaemon.submit(port, DAEMON_TOKEN_DIRECTORY, Arrays.asList(args).subList(1, args.length), out);
+            System.exit(isSuccess ? 0 : 1);
         }else {
-            for(String path : args){
+            String invalidOption = getInvalidOption(Arrays.asList(args));
+            if(invalidOption != null){
+                exitWithUsageError(invalidOption);
+            }
+            extract(Arrays.asList(args), null);
+        }
+    }
+
+    private static void exitWithUsageError(String invalidOption) {
+        System.err.println(INVALID_OPTION + invalidOption);
+        System.exit(1);
+    }
+
+    /**
+     * @return the port given by the option, its default port if none is given
+     * or -1 if the port is invalid
+     */
+    private static int getPort(String arg, String option) {
+        return arg.length() > option.length() ? parseNumber(arg.substring(option.length() + 1), 0, 65535) : ExtractionDaemon.DEFAULT_PORT;
+    }
+
+    /**
+     * @return the number or -1 if the value is no number within the range
+     */
+    private static int parseNumber(String value, int min, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            return number < min || number > max ? -1 : number;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param args the options and paths of an extraction
+     * @return the first option with an invalid value, null if all are valid
+     */
+    static String getInvalidOption(List<String> args) {
+        for(String arg : args){
+            if(arg.startsWith(OPTION_PARALLEL + "=") && parseNumber(arg.substring(OPTION_PARALLEL.length() + 1), 1, Integer.MAX_VALUE) < 0){
+                return arg;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the specifications by the given options and paths.
+     *
+     * @param args the options, each preceding the paths they are used for
+     * @param validationOutput the writer of the validation findings of all
+     * tables, if null the findings of each table are printed to the console
+     * @return false if any path or file could not be processed
+     */
+    static boolean extract(List<String> args, Writer validationOutput) {
+        String invalidOption = getInvalidOption(args);
+        if(invalidOption != null){
+            if(validationOutput == null){
+                System.err.println(INVALID_OPTION + invalidOption);
+            }else{
                 try {
-                    new OdtTableExtraction().collectSpecData(path);
+                    validationOutput.write(INVALID_OPTION + invalidOption + "\n");
+                } catch (IOException ex) {
+                    Logger.getLogger(JarFunctionality.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+            return false;
+        }
+        boolean isSuccess = true;
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        // the command line keeps printing the findings of each table, unless they are written to the given output
+        extraction.setPrintingValidation(validationOutput == null);
+        File reportFile = null;
+        File metricsFile = null;
+        boolean isWatching = false;
+        boolean isCrossChecking = false;
+        List<File> paths = new ArrayList<>();
+        // the documents of all paths are kept for the check, even if given before the option
+        extraction.setIndexing(args.contains(OPTION_CROSS_CHECK));
+        for(String arg : args){
+            if(arg.equals(OPTION_STREAM)){
+                extraction.setStreaming(true);
+            }else if(arg.equals(OPTION_PARALLEL)){
+                extraction.setParallelism(Runtime.getRuntime().availableProcessors());
+            }else if(arg.equals(OPTION_JSON)){
+                extraction.setBindingJson(true);
+            }else if(arg.equals(OPTION_CACHE)){
+                extraction.setCacheDirectory(new File(System.getProperty("java.io.tmpdir"), DEFAULT_CACHE_DIRECTORY));
+            }else if(arg.startsWith(OPTION_CACHE + "=")){
+                extraction.setCacheDirectory(new File(arg.substring(OPTION_CACHE.length() + 1)));
+            }else if(arg.startsWith(OPTION_PARALLEL + "=")){
+                extraction.setParallelism(Integer.parseInt(arg.substring(OPTION_PARALLEL.length() + 1)));
+            }else if(arg.equals(OPTION_DIFF)){
+                extraction.setComparingTables(true);
+            }else if(arg.equals(OPTION_CROSS_CHECK)){
+                isCrossChecking = true;
+            }else if(arg.equals(OPTION_WATCH)){
+                isWatching = true;
+            }else if(arg.startsWith(OPTION_OUTPUT)){
+                extraction.setOutputDirectory(new File(arg.substring(OPTION_OUTPUT.length())));
+            }else if(arg.startsWith(OPTION_REPORT)){
+                reportFile = new File(arg.substring(OPTION_REPORT.length()));
+            }else if(arg.startsWith(OPTION_METRICS)){
+                metricsFile = new File(arg.substring(OPTION_METRICS.length()));
+            }else{
+                paths.add(new File(arg));
+                try {
+                    extraction.collectSpecData(arg);
                 } catch (Exception ex) {
                     Logger.getLogger(JarFunctionality.class.getName()).log(Level.SEVERE, null, ex);
+                    isSuccess = false;
                 }
             }
         }
+        if(isCrossChecking){
+            extraction.checkSyntaxConsistency();
+        }
+        if(validationOutput != null){
+            try {
+                extraction.getValidationReport().writeText(validationOutput);
+            } catch (IOException ex) {
+                Logger.getLogger(JarFunctionality.class.getName()).log(Level.SEVERE, null, ex);
+                isSuccess = false;
+            }
+        }
+        isSuccess &= save(extraction, reportFile, metricsFile);
+        if(isWatching){
+            try (ExtractionWatcher watcher = new ExtractionWatcher(extraction)) {
+                File watchReportFile = reportFile;
+                File watchMetricsFile = metricsFile;
+                boolean isWatchCrossChecking = isCrossChecking;
+                // the findings and metrics of a changed document replace its former ones
+                watcher.setListener(odtFile -> {
+                    if(isWatchCrossChecking){
+                        extraction.checkSyntaxConsistency();
+                    }
+                    save(extraction, watchReportFile, watchMetricsFile);
+                });
+                for(File path : paths){
+                    watcher.watch(path);
+                }
+                watcher.run();
+            } catch (IOException ex) {
+                Logger.getLogger(JarFunctionality.class.getName()).log(Level.SEVERE, null, ex);
+                isSuccess = false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return isSuccess;
     }
 
+    /**
+     * Saves the validation report and the metrics of the extraction.
+     *
+     * @param reportFile the file of the validation report, might be null
+     * @param metricsFile the file of the metrics, might be null
+     * @return false if a file could not be saved
+     */
+    private static boolean save(OdtTableExtraction extraction, File reportFile, File metricsFile) {
+        try {
+            if(reportFile != null){
+                extraction.getValidationReport().save(reportFile);
+            }
+            if(metricsFile != null){
+                extraction.getMetrics().save(metricsFile);
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(JarFunctionality.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param arg an argument of the extraction
+     * @return the argument with an absolute path, if it is a path or an option
+     * with a file or directory as value
+     */
+    static String toAbsolutePath(String arg) {
+        if(!arg.startsWith("--")){
+            return new File(arg).getAbsolutePath();
+        }
+        for(String option : new String[]{OPTION_CACHE + "=", OPTION_OUTPUT, OPTION_REPORT, OPTION_METRICS}){
+            if(arg.startsWith(option)){
+                return option + new File(arg.substring(option.length())).getAbsolutePath();
+            }
+        }
+        return arg;
+    }
 
     /**
      * Return the project name
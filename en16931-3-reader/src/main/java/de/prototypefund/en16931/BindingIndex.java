@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.type.SemanticIdKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the semantic and syntax nodes of all tables extracted so far,
+ * mapping semantic IDs (BT/BG) to syntax paths and back.
+ *
+ * Semantic IDs and exact paths are looked up by hash, the latter by their
+ * interned {@link SyntaxPath}, paths by prefix via the descendants of the
+ * interned prefix path. A
+ * document extracted again replaces its former tables. All methods are
+ * synchronized, as documents might be extracted in parallel, the returned
+ * lists are copies.
+ */
+public final class BindingIndex {
+
+    /**
+     * The syntax of a table.
+     */
+    public static enum Syntax {
+        UBL, CII, EDIFACT;
+
+        static Syntax of(TableContext table) {
+            if (!table.isXML()) {
+                return EDIFACT;
+            }
+            return table.isUBL() ? UBL : CII;
+        }
+    }
+
+    private final Map<SemanticIdKey, List<NodeSemantic>> mSemantics = new HashMap<>();
+    private final Map<Syntax, Map<SyntaxPath, List<NodeSyntax>>> mPaths = new EnumMap<>(Syntax.class);
+    private final int[] mSyntaxCounts = new int[Syntax.values().length];
+    // the indexed documents by their output path and file name
+    private final Map<String, DocumentContext> mDocuments = new HashMap<>();
+
+    public BindingIndex() {
+        for (Syntax syntax : Syntax.values()) {
+            mPaths.put(syntax, new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds all tables of the document, replacing the tables of a former
+     * extraction of the same document.
+     */
+    public synchronized void addDocument(DocumentContext document) {
+        DocumentContext former = mDocuments.put(document.getOutputPath() + document.getFileName(), document);
+        if (former != null) {
+            for (TableContext table : former.getTables()) {
+                removeTable(table);
+            }
+        }
+        for (TableContext table : document.getTables()) {
+            addTable(table);
+        }
+    }
+
+    private void addTable(TableContext table) {
+        Syntax syntax = Syntax.of(table);
+        Map<SyntaxPath, List<NodeSyntax>> paths = mPaths.get(syntax);
+        for (Map.Entry<SemanticIdKey, NodeSemantic> entry : table.getSemanticNodes().entrySet()) {
+            NodeSemantic semantic = entry.getValue();
+            mSemantics.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(2)).add(semantic);
+            if (semantic.syntaxRepresentations != null) {
+                for (NodeSyntax node : semantic.syntaxRepresentations) {
+                    paths.computeIfAbsent(node.getSyntaxPath(), k -> new ArrayList<>(1)).add(node);
+                }
+                mSyntaxCounts[syntax.ordinal()] += semantic.syntaxRepresentations.size();
+            }
+        }
+    }
+
+    private void removeTable(TableContext table) {
+        Syntax syntax = Syntax.of(table);
+        Map<SyntaxPath, List<NodeSyntax>> paths = mPaths.get(syntax);
+        for (Map.Entry<SemanticIdKey, NodeSemantic> entry : table.getSemanticNodes().entrySet()) {
+            NodeSemantic semantic = entry.getValue();
+            removeInstance(mSemantics, entry.getKey(), semantic);
+            if (semantic.syntaxRepresentations != null) {
+                for (NodeSyntax node : semantic.syntaxRepresentations) {
+                    removeInstance(paths, node.getSyntaxPath(), node);
+                }
+                mSyntaxCounts[syntax.ordinal()] -= semantic.syntaxRepresentations.size();
+            }
+        }
+    }
+
+    private static <K, V> void removeInstance(Map<K, List<V>> map, K key, V value) {
+        List<V> values = map.get(key);
+        if (values != null) {
+            values.removeIf(v -> v == value);
+            if (values.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return the indexed documents, their tables keep the complete model
+     */
+    public synchronized List<DocumentContext> getDocuments() {
+        return new ArrayList<>(mDocuments.values());
+    }
+
+    /**
+     * @param semanticId the ID of a business term or group, e.g. "BT-1", all
+     * hyphen variants are equal
+     * @return the semantic nodes of all tables with the ID
+     */
+    public synchronized List<NodeSemantic> getSemantics(String semanticId) {
+        List<NodeSemantic> semantics = mSemantics.get(new SemanticIdKey(semanticId));
+        return semantics == null ? Collections.emptyList() : new ArrayList<>(semantics);
+    }
+
+    /**
+     * @param semanticId the ID of a business term or group, e.g. "BT-1"
+     * @param syntax the syntax of the tables
+     * @return the syntax nodes representing the semantic within the tables of
+     * the syntax
+     */
+    public synchronized List<NodeSyntax> getSyntaxNodes(String semanticId, Syntax syntax) {
+        List<NodeSemantic> semantics = mSemantics.get(new SemanticIdKey(semanticId));
+        if (semantics == null) {
+            return Collections.emptyList();
+        }
+        List<NodeSyntax> nodes = new ArrayList<>();
+        for (NodeSemantic semantic : semantics) {
+            if (semantic.syntaxRepresentations != null && Syntax.of(semantic.getTable()) == syntax) {
+                nodes.addAll(semantic.syntaxRepresentations);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * @param syntax the syntax of the tables
+     * @param path the complete syntax path, e.g. an XPath
+     * @return the syntax nodes of the path, their semantic nodes are given by
+     * {@link NodeSyntax#getSemanticNode()}
+     */
+    public synchronized List<NodeSyntax> getSyntaxNodesByPath(Syntax syntax, String path) {
+        // paths never being used are not created by the lookup
+        SyntaxPath syntaxPath = SyntaxPath.find(path);
+        List<NodeSyntax> nodes = syntaxPath == null ? null : mPaths.get(syntax).get(syntaxPath);
+        return nodes == null ? Collections.emptyList() : new ArrayList<>(nodes);
+    }
+
+    /**
+     * @param syntax the syntax of the tables
+     * @param pathPrefix the leading steps of the paths, e.g.
+     * "/Invoice/cac:AccountingSupplierParty" also matches its descendants, but
+     * not "/Invoice/cac:AccountingSupplierPartyX"
+     * @return the syntax nodes of all paths starting with the prefix
+     */
+    public synchronized List<NodeSyntax> getSyntaxNodesByPrefix(Syntax syntax, String pathPrefix) {
+        SyntaxPath prefix = SyntaxPath.find(pathPrefix);
+        if (prefix == null) {
+            return Collections.emptyList();
+        }
+        Map<SyntaxPath, List<NodeSyntax>> paths = mPaths.get(syntax);
+        List<NodeSyntax> nodes = new ArrayList<>();
+        for (SyntaxPath path : prefix.getSubtree()) {
+            List<NodeSyntax> pathNodes = paths.get(path);
+            if (pathNodes != null) {
+                nodes.addAll(pathNodes);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * @return the number of indexed syntax nodes of the syntax
+     */
+    public synchronized int getSyntaxCount(Syntax syntax) {
+        return mSyntaxCounts[syntax.ordinal()];
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.type.TypeStatistic;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The state of the extraction of a single specification document. As every
+ * document has its own context, several documents can be extracted in
+ * parallel.
+ */
+public class DocumentContext {
+
+    private final String mFileName;
+    private final String mOutputPath;
+    // used for dynamic directory naming of output syntax-binding dirs
+    private int mSyntaxBindingCounter = 0;
+    // the syntax binding tables of the document in document order
+    private final List<TableContext> mTables = new ArrayList<>();
+    private final ExtractionMetrics mMetrics;
+    // the type statistic of all parsed tables of the document
+    private final TypeStatistic mStatistic = new TypeStatistic();
+    // the findings of all tables of the document
+    private final ValidationReport mValidationReport = new ValidationReport();
+
+    /**
+     * @param fileName the file name of the specification document
+     * @param outputPath the directory of the specification document, where the
+     * output files are being written to
+     */
+    DocumentContext(String fileName, String outputPath) {
+        this(fileName, outputPath, null);
+    }
+
+    /**
+     * @param fileName the file name of the specification document
+     * @param outputPath the directory of the specification document, where the
+     * output files are being written to
+     * @param path the absolute path of the specification document, labeling
+     * its metrics, null if unknown
+     */
+    DocumentContext(String fileName, String outputPath, String path) {
+        mFileName = fileName;
+        mOutputPath = outputPath;
+        mMetrics = new ExtractionMetrics(fileName, path, null);
+    }
+
+    /**
+     * @return the metrics of the extraction of the document, started by the
+     * creation of the context
+     */
+    public ExtractionMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * @return the type statistic of all tables of the document, the tables
+     * restored from the extraction cache are not counted
+     */
+    TypeStatistic getStatistic() {
+        return mStatistic;
+    }
+
+    /**
+     * @return the validation findings of all tables of the document
+     */
+    ValidationReport getValidationReport() {
+        return mValidationReport;
+    }
+
+    /**
+     * @return the file name of the specification document
+     */
+    public String getFileName() {
+        return mFileName;
+    }
+
+    /**
+     * @return the directory, where the output files are being written to
+     */
+    public String getOutputPath() {
+        return mOutputPath;
+    }
+
+    /**
+     * @return the count of syntax binding directories requested by the tables
+     * of this document, including this request
+     */
+    int nextSyntaxBindingCount() {
+        return ++mSyntaxBindingCounter;
+    }
+
+    /**
+     * @return the syntax binding tables extracted from the document so far, in
+     * document order
+     */
+    List<TableContext> getTables() {
+        return mTables;
+    }
+
+    void addTable(TableContext table) {
+        mTables.add(table);
+    }
+}
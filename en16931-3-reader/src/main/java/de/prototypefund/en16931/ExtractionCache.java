@@ -0,0 +1,230 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.type.SemanticIdKey;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of the data model extracted from specification documents.
+ *
+ * An entry is keyed by the SHA-256 hash of the bytes of the document and the
+ * version of the cache format, so a changed document or data model never hits
+ * an outdated entry. The entry holds the semantic and syntax nodes of all
+ * syntax binding tables of the document in a compact binary form, with the
+ * anomalies found during parse. On a hit the document does not have to be
+ * parsed, the restored tables are only validated and the output files
+ * written.
+ */
+final class ExtractionCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExtractionCache.class);
+    // to be increased with every change of the format or of the extracted data model
+    private static final int FORMAT_VERSION = 2;
+    private static final String ENTRY_SUFFIX = ".bin";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final File mDirectory;
+
+    /**
+     * @param directory the directory of the cache entries, created if missing
+     */
+    ExtractionCache(File directory) {
+        mDirectory = directory;
+    }
+
+    File getDirectory() {
+        return mDirectory;
+    }
+
+    /**
+     * @param odtFile the specification document
+     * @return the key of the document: the hex encoded SHA-256 hash of its
+     * bytes and the version of the cache format
+     */
+    String getKey(File odtFile) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        digest.update((FORMAT_VERSION + "\n").getBytes(StandardCharsets.UTF_8));
+        try (InputStream in = new FileInputStream(odtFile)) {
+            byte[] buffer = new byte[64 * 1024];
+            for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        byte[] hash = digest.digest();
+        StringBuilder key = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            key.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Restores the tables of a document from the cache.
+     *
+     * @param key the key of the document
+     * @param document the context of the document, the tables are added to
+     * @return false if there is no (readable) entry for the key, the document
+     * has to be parsed
+     */
+    boolean load(String key, DocumentContext document) {
+        File entry = new File(mDirectory, key + ENTRY_SUFFIX);
+        if (!entry.isFile()) {
+            return Boolean.FALSE;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return Boolean.FALSE;
+            }
+            int tableCount = in.readInt();
+            for (int t = 0; t < tableCount; t++) {
+                TableContext table = new TableContext(document, readString(in));
+                table.setColumnCount(in.readInt());
+                table.setSyntax(in.readBoolean(), in.readBoolean());
+                table.mMultiHyphenDiff = readStrings(in);
+                table.mMultiHyphenSame = readStrings(in);
+                int semanticCount = in.readInt();
+                for (int s = 0; s < semanticCount; s++) {
+                    NodeSemantic.readCache(in, new SemanticIdKey(readString(in)), table);
+                }
+                document.addTable(table);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("WARNING: Ignoring unreadable cache entry '" + entry.getAbsolutePath() + "': " + e);
+            document.getTables().clear();
+            return Boolean.FALSE;
+        }
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Saves the tables of a document into the cache. The entry is written into
+     * a temporary file first, so a concurrent or aborted extraction never
+     * leaves an incomplete entry.
+     *
+     * @param key the key of the document
+     * @param document the context of the completely extracted document
+     */
+    void save(String key, DocumentContext document) {
+        File entry = new File(mDirectory, key + ENTRY_SUFFIX);
+        File tempFile = null;
+        try {
+            mDirectory.mkdirs();
+            tempFile = File.createTempFile(key, ".tmp", mDirectory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(document.getTables().size());
+                for (TableContext table : document.getTables()) {
+                    writeString(out, table.getTitle());
+                    out.writeInt(table.getColumnCount());
+                    out.writeBoolean(table.isXML());
+                    out.writeBoolean(table.isUBL());
+                    writeStrings(out, table.mMultiHyphenDiff);
+                    writeStrings(out, table.mMultiHyphenSame);
+                    out.writeInt(table.getSemanticNodes().size());
+                    for (Map.Entry<SemanticIdKey, NodeSemantic> semantic : table.getSemanticNodes().entrySet()) {
+                        writeString(out, semantic.getKey().getId());
+                        semantic.getValue().writeCache(out);
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOG.debug("Saved extracted data model into cache entry: {}\n", entry.getAbsoluteFile());
+        } catch (IOException e) {
+            LOG.warn("WARNING: Could not save cache entry '" + entry.getAbsolutePath() + "': " + e);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Writes a string of any length, which might be null.
+     */
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a list of strings, which might be null.
+     */
+    static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                writeString(out, s);
+            }
+        }
+    }
+
+    /**
+     * Reads a list written by {@link #writeStrings(DataOutputStream, List)}.
+     */
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+}
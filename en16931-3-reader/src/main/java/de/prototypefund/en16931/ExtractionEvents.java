@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JDK Flight Recorder events of the extraction, so a recording attributes
+ * time and allocations to specification documents and tables.
+ *
+ * Events are only committed when being enabled by a recording, otherwise an
+ * event is not more than a short-lived object. The events of single rows are
+ * disabled by default, as they are emitted for every row of every table.
+ */
+final class ExtractionEvents {
+
+    private static final String CATEGORY = "EN16931";
+
+    private ExtractionEvents() {
+    }
+
+    @Name("de.prototypefund.en16931.DocumentLoad")
+    @Label("Document Load")
+    @Description("Loading and extracting a specification document or restoring it from the cache")
+    @Category({CATEGORY, "Extraction"})
+    @StackTrace(false)
+    static final class DocumentLoad extends Event {
+
+        @Label("Document")
+        String document;
+
+        @Label("Streaming")
+        boolean streaming;
+
+        @Label("Cached")
+        @Description("If the data model was restored from the cache")
+        boolean cached;
+
+        @Label("Tables")
+        int tables;
+    }
+
+    @Name("de.prototypefund.en16931.Table")
+    @Label("Table")
+    @Description("Extracting a syntax binding table from its start until its files were written")
+    @Category({CATEGORY, "Extraction"})
+    @StackTrace(false)
+    static final class Table extends Event {
+
+        @Label("Document")
+        String document;
+
+        @Label("Table")
+        String table;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Semantics")
+        int semantics;
+    }
+
+    @Name("de.prototypefund.en16931.Row")
+    @Label("Row Parse")
+    @Description("Mapping the cells of a single table row into the data model")
+    @Category({CATEGORY, "Extraction"})
+    @StackTrace(false)
+    @Enabled(false)
+    static final class Row extends Event {
+
+        @Label("Table")
+        String table;
+
+        @Label("Cells")
+        int cells;
+    }
+
+    @Name("de.prototypefund.en16931.Validation")
+    @Label("Validation")
+    @Description("Validating the data model of a table")
+    @Category({CATEGORY, "Validation"})
+    @StackTrace(false)
+    static final class Validation extends Event {
+
+        @Label("Table")
+        String table;
+
+        @Label("Semantics")
+        int semantics;
+
+        @Label("Errors")
+        int errors;
+
+        @Label("Warnings")
+        int warnings;
+    }
+
+    @Name("de.prototypefund.en16931.FileWrite")
+    @Label("File Write")
+    @Description("Writing the output files of a table")
+    @Category({CATEGORY, "Output"})
+    @StackTrace(false)
+    static final class FileWrite extends Event {
+
+        @Label("Table")
+        String table;
+
+        @Label("Outputs")
+        @Description("The number of output formats being written")
+        int outputs;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics of an extraction run, of one of its documents or of one of the
+ * tables of a document.
+ *
+ * The metrics of a table are added to its document and the metrics of a
+ * document to its run, summing up the counts and partial times of the child.
+ * The metrics of a run can be saved as JSON or in the text format of
+ * Prometheus, to track the throughput of the extraction across specification
+ * versions.
+ */
+public final class ExtractionMetrics {
+
+    /**
+     * The metrics being measured, times are measured in nanoseconds and
+     * exported in seconds.
+     */
+    public static enum Metric {
+
+        /**
+         * the elapsed time of the run, document or table (from its start until
+         * its files were written)
+         */
+        WALL_TIME("wallTimeSeconds", "wall_time_seconds", Boolean.TRUE, Boolean.FALSE),
+        /**
+         * the time of reading the rows of the tables
+         */
+        PARSE_TIME("parseTimeSeconds", "parse_time_seconds", Boolean.TRUE, Boolean.TRUE),
+        /**
+         * the time of validating the data model of the tables
+         */
+        VALIDATION_TIME("validationTimeSeconds", "validation_time_seconds", Boolean.TRUE, Boolean.TRUE),
+        /**
+         * the time of writing the output files of the tables
+         */
+        WRITE_TIME("writeTimeSeconds", "write_time_seconds", Boolean.TRUE, Boolean.TRUE),
+        /**
+         * the bytes allocated by the extracting thread, if supported by the
+         * JVM, a document includes the allocations of loading the document
+         */
+        ALLOCATED_BYTES("allocatedBytes", "allocated_bytes", Boolean.FALSE, Boolean.FALSE),
+        DOCUMENTS("documentCount", "documents", Boolean.FALSE, Boolean.TRUE),
+        /**
+         * the documents restored from the cache instead of being parsed
+         */
+        CACHED_DOCUMENTS("cachedDocumentCount", "cached_documents", Boolean.FALSE, Boolean.TRUE),
+        TABLES("tableCount", "tables", Boolean.FALSE, Boolean.TRUE),
+        ROWS("rowCount", "rows", Boolean.FALSE, Boolean.TRUE),
+        CELLS("cellCount", "cells", Boolean.FALSE, Boolean.TRUE),
+        BYTES_WRITTEN("bytesWritten", "bytes_written", Boolean.FALSE, Boolean.TRUE),
+        /**
+         * the validation findings of severity error
+         */
+        ERRORS("errorCount", "errors", Boolean.FALSE, Boolean.TRUE),
+        /**
+         * the validation findings of severity warning
+         */
+        WARNINGS("warningCount", "warnings", Boolean.FALSE, Boolean.TRUE);
+
+        private final String mJsonName;
+        private final String mPrometheusName;
+        private final boolean mIsTime;
+        private final boolean mIsSummed;
+
+        Metric(String jsonName, String prometheusName, boolean isTime, boolean isSummed) {
+            mJsonName = jsonName;
+            mPrometheusName = prometheusName;
+            mIsTime = isTime;
+            mIsSummed = isSummed;
+        }
+    }
+
+    private static final String PROMETHEUS_PREFIX = "en16931_";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean IS_ALLOCATION_MEASURED = THREADS instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()
+            && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+    private final String mDocument;
+    private final String mPath;
+    private final String mTable;
+    private final AtomicLongArray mValues = new AtomicLongArray(Metric.values().length);
+    private final List<ExtractionMetrics> mChildren = new ArrayList<>();
+    private final long mStartTime = System.nanoTime();
+    private final long mStartAllocatedBytes = getAllocatedBytes();
+
+    /**
+     * @param document the file name of the document, null for a run
+     * @param path the absolute path of the document, null for a run or if
+     * unknown
+     * @param table the title of the table, null for a run or document
+     */
+    ExtractionMetrics(String document, String path, String table) {
+        mDocument = document;
+        mPath = path;
+        mTable = table;
+    }
+
+    /**
+     * @return the file name of the document, null for a run
+     */
+    public String getDocument() {
+        return mDocument;
+    }
+
+    /**
+     * @return the absolute path of the document, null for a run or if unknown
+     */
+    public String getPath() {
+        return mPath;
+    }
+
+    /**
+     * @return the title of the table, null for a run or document
+     */
+    public String getTable() {
+        return mTable;
+    }
+
+    /**
+     * @return the value of System.nanoTime() when this metrics was created
+     */
+    long getStartTime() {
+        return mStartTime;
+    }
+
+    public long get(Metric metric) {
+        return mValues.get(metric.ordinal());
+    }
+
+    void add(Metric metric, long value) {
+        mValues.addAndGet(metric.ordinal(), value);
+    }
+
+    /**
+     * Adds the wall time and the allocated bytes of the current thread since
+     * the creation of this metrics.
+     */
+    void stop() {
+        add(Metric.WALL_TIME, System.nanoTime() - mStartTime);
+        if (IS_ALLOCATION_MEASURED) {
+            add(Metric.ALLOCATED_BYTES, getAllocatedBytes() - mStartAllocatedBytes);
+        }
+    }
+
+    /**
+     * Adds the metrics of a table to its document or of a document to its
+     * run, the summed metrics of the child are added to this metrics.
+     */
+    void addChild(ExtractionMetrics child) {
+        for (Metric metric : Metric.values()) {
+            if (metric.mIsSummed) {
+                add(metric, child.get(metric));
+            }
+        }
+        synchronized (mChildren) {
+            mChildren.add(child);
+        }
+    }
+
+    /**
+     * Replaces the metrics of a document extracted again by its new metrics,
+     * the summed metrics of the former child are subtracted.
+     *
+     * @param former the metrics of the former extraction, null to add the
+     * child only
+     */
+    void replaceChild(ExtractionMetrics former, ExtractionMetrics child) {
+        if (former != null) {
+            for (Metric metric : Metric.values()) {
+                if (metric.mIsSummed) {
+                    add(metric, -former.get(metric));
+                }
+            }
+            synchronized (mChildren) {
+                mChildren.removeIf(c -> c == former);
+            }
+        }
+        addChild(child);
+    }
+
+    /**
+     * @return the metrics of the documents of a run or of the tables of a
+     * document
+     */
+    public List<ExtractionMetrics> getChildren() {
+        synchronized (mChildren) {
+            return new ArrayList<>(mChildren);
+        }
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, 0 if not
+     * supported by the JVM
+     */
+    private static long getAllocatedBytes() {
+        return IS_ALLOCATION_MEASURED ? ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    /**
+     * Saves the metrics in the format given by the suffix of the file: ".json"
+     * for JSON, otherwise the text format of Prometheus.
+     */
+    public void save(File file) throws IOException {
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            if (file.getName().endsWith(".json")) {
+                writeJson(w);
+            } else {
+                writePrometheus(w);
+            }
+        }
+    }
+
+    /**
+     * Writes the metrics with the metrics of all descendants as JSON.
+     */
+    public void writeJson(Writer w) throws IOException {
+        JsonWriter json = new JsonWriter(w);
+        writeJson(json);
+        json.flush();
+    }
+
+    private void writeJson(JsonWriter json) throws IOException {
+        json.startObject(Boolean.FALSE);
+        json.member("document", mDocument);
+        json.member("path", mPath);
+        json.member("table", mTable);
+        for (Metric metric : Metric.values()) {
+            json.number(metric.mJsonName, getExported(metric));
+        }
+        if (mTable == null) {
+            json.name(mDocument == null ? "documents" : "tables");
+            json.startArray(Boolean.TRUE);
+            for (ExtractionMetrics child : getChildren()) {
+                child.writeJson(json);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    /**
+     * Writes the metrics in the text exposition format of Prometheus, a gauge
+     * for each metric of the run, the documents and the tables, the latter
+     * labeled by document name and path and by table. Metrics with equal
+     * labels, e.g. of tables with the same title within a document, are
+     * summed up, as Prometheus rejects duplicated series.
+     */
+    public void writePrometheus(Writer w) throws IOException {
+        List<ExtractionMetrics> documents = getChildren();
+        List<ExtractionMetrics> tables = new ArrayList<>();
+        for (ExtractionMetrics document : documents) {
+            tables.addAll(document.getChildren());
+        }
+        for (Metric metric : Metric.values()) {
+            writePrometheus(w, "run_", metric, List.of(this));
+            writePrometheus(w, "document_", metric, documents);
+            writePrometheus(w, "table_", metric, tables);
+        }
+        w.flush();
+    }
+
+    private static void writePrometheus(Writer w, String level, Metric metric, List<ExtractionMetrics> metrics) throws IOException {
+        String name = PROMETHEUS_PREFIX + level + metric.mPrometheusName;
+        w.write("# TYPE " + name + " gauge\n");
+        Map<String, Long> series = new LinkedHashMap<>();
+        for (ExtractionMetrics m : metrics) {
+            series.merge(m.getLabels(), m.get(metric), Long::sum);
+        }
+        for (Map.Entry<String, Long> s : series.entrySet()) {
+            w.write(name);
+            w.write(s.getKey());
+            w.write(' ');
+            w.write(getExported(metric, s.getValue()).toString());
+            w.write('\n');
+        }
+    }
+
+    /**
+     * @return the labels of the metrics, e.g. {document="a.odt",path="/b/a.odt"}
+     * or an empty string for a run
+     */
+    private String getLabels() throws IOException {
+        if (mDocument == null) {
+            return "";
+        }
+        StringWriter labels = new StringWriter();
+        labels.write("{document=\"");
+        writeLabelValue(labels, mDocument);
+        if (mPath != null) {
+            labels.write("\",path=\"");
+            writeLabelValue(labels, mPath);
+        }
+        if (mTable != null) {
+            labels.write("\",table=\"");
+            writeLabelValue(labels, mTable);
+        }
+        labels.write("\"}");
+        return labels.toString();
+    }
+
+    /**
+     * Escapes backslash, double-quote and line feed as required for label
+     * values.
+     */
+    private static void writeLabelValue(Writer w, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                w.write('\\');
+                w.write(c);
+            } else if (c == '\n') {
+                w.write("\\n");
+            } else {
+                w.write(c);
+            }
+        }
+    }
+
+    private Number getExported(Metric metric) {
+        return getExported(metric, get(metric));
+    }
+
+    private static Number getExported(Metric metric, long value) {
+        return metric.mIsTime ? (Number) (value / NANOS_PER_SECOND) : (Number) value;
+    }
+}
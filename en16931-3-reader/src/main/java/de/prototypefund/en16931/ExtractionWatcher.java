@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches directories for changed specification documents and extracts only
+ * the changed documents again, so only their output files are rewritten.
+ *
+ * Editors like LibreOffice save a document by several writes and renames,
+ * therefore a document is extracted after it was not changed for the
+ * debounce time.
+ */
+public final class ExtractionWatcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExtractionWatcher.class);
+    // LibreOffice creates a lock file named ".~lock.<document>#" next to an opened document
+    private static final String LOCK_FILE_PREFIX = ".~lock.";
+    private final OdtTableExtraction mExtraction;
+    private final WatchService mWatchService;
+    // the changed documents and the time of their last change
+    private final Map<Path, Long> mChangedDocuments = new LinkedHashMap<>();
+    private long mDebounceMillis = 500;
+    // called with each document after it was extracted again, might be null
+    private Consumer<File> mListener = null;
+
+    /**
+     * @param extraction the extraction used for all changed documents
+     */
+    public ExtractionWatcher(OdtTableExtraction extraction) throws IOException {
+        mExtraction = extraction;
+        mWatchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * @param debounceMillis the time a document has to be unchanged before it
+     * is extracted, by default 500 milliseconds
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        mDebounceMillis = debounceMillis;
+    }
+
+    public long getDebounceMillis() {
+        return mDebounceMillis;
+    }
+
+    /**
+     * @param listener called by the watching thread with each changed document
+     * after it was extracted, e.g. to save the validation report and metrics
+     * of the extraction again
+     */
+    public void setListener(Consumer<File> listener) {
+        mListener = listener;
+    }
+
+    /**
+     * @param directory the directory to be watched with all its
+     * subdirectories, for a file its directory is watched
+     */
+    public void watch(File directory) throws IOException {
+        if (!directory.isDirectory()) {
+            directory = directory.getAbsoluteFile().getParentFile();
+        }
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            Iterator<Path> it = paths.filter(Files::isDirectory).iterator();
+            while (it.hasNext()) {
+                register(it.next());
+            }
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        LOG.debug("Watching directory: {}\n", directory);
+        directory.register(mWatchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Extracts the changed documents until the watcher is closed.
+     */
+    public void run() throws InterruptedException {
+        try {
+            while (true) {
+                WatchKey key = mChangedDocuments.isEmpty() ? mWatchService.take() : mWatchService.poll(mDebounceMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    addChanges(key);
+                }
+                extractChangedDocuments();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // the watcher was closed
+        }
+    }
+
+    private void addChanges(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        long now = System.nanoTime();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                LOG.warn("WARNING: Lost changes within directory '" + directory + "'!");
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            String fileName = path.getFileName().toString();
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        watch(path.toFile());
+                    } catch (IOException e) {
+                        LOG.warn("WARNING: Could not watch directory '" + path + "': " + e);
+                    }
+                }
+            } else if (fileName.endsWith(OdtTableExtraction.ODT_SUFFIX) && !fileName.startsWith(LOCK_FILE_PREFIX)) {
+                // a later change restarts the debounce time
+                mChangedDocuments.remove(path);
+                mChangedDocuments.put(path, now);
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Extracts the documents being unchanged for the debounce time.
+     */
+    private void extractChangedDocuments() {
+        long debounceStart = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(mDebounceMillis);
+        Iterator<Map.Entry<Path, Long>> it = mChangedDocuments.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Long> changed = it.next();
+            if (changed.getValue() - debounceStart > 0) {
+                // the remaining documents were changed even later
+                break;
+            }
+            it.remove();
+            File odtFile = changed.getKey().toFile();
+            if (odtFile.isFile()) {
+                LOG.info("Extracting changed document: {}\n", odtFile);
+                try {
+                    mExtraction.extractDocument(odtFile);
+                    if (mListener != null) {
+                        mListener.accept(odtFile);
+                    }
+                } catch (Exception e) {
+                    LOG.error("ERROR: Extraction of '" + odtFile + "' failed!", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        mWatchService.close();
+    }
+}
@@ -337,19 +337,19 @@ final class FileHelper {
 
     /**
      * Escape a string for use inside as XML single-quoted attributes. This
-     * escapes less-than, single-quote, ampersand, and (not strictly necessary)
-     * newlines.
+     * escapes less-than, single-quote, double-quote, ampersand, and (not
+     * strictly necessary) newlines.
      */
     public static String xmlSingleQuotedEscape(String s) {
       StringBuilder sb = new StringBuilder();
       for (int i = 0; i < s.length(); i++) {
         char c = s.charAt(i);
         switch (c) {
-          case '\'': sb.append("&quot;"); break;
+          case '\'': sb.append("&apos;"); break;
           case '&': sb.append("&amp;"); break;
           case '<': sb.append("&lt;"); break;
           case '\n': sb.append("&#xA;"); break;
-          case '"': sb.append("&#xA;"); break;
+          case '"': sb.append("&quot;"); break;
 
           case '\000': case '\001': case '\002': case '\003': case '\004':
           case '\005': case '\006': case '\007': case '\010': case '\013':
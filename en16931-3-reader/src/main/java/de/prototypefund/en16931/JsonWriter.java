@@ -0,0 +1,221 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.BitSet;
+
+/**
+ * Minimal streaming JSON generator for the output files.
+ *
+ * Separators are written by the generator, strings are escaped while being
+ * written to the underlying writer. A container is either written in a single
+ * line or wrapped, with each of its members on a line of its own indented by
+ * a tab for each enclosing wrapped container.
+ */
+final class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private final Writer mWriter;
+    // for each open container (by depth) if it is wrapped and if it has members
+    private final BitSet mIsWrapped = new BitSet();
+    private final BitSet mHasMembers = new BitSet();
+    private int mDepth = 0;
+    // the number of open wrapped containers
+    private int mIndent = 0;
+    private boolean mIsAfterName = Boolean.FALSE;
+
+    JsonWriter(Writer writer) {
+        mWriter = writer;
+    }
+
+    /**
+     * @param isWrapped if true each member is written on a line of its own
+     */
+    void startObject(boolean isWrapped) throws IOException {
+        startContainer('{', isWrapped);
+    }
+
+    void endObject() throws IOException {
+        endContainer('}');
+    }
+
+    /**
+     * @param isWrapped if true each element is written on a line of its own
+     */
+    void startArray(boolean isWrapped) throws IOException {
+        startContainer('[', isWrapped);
+    }
+
+    void endArray() throws IOException {
+        endContainer(']');
+    }
+
+    /**
+     * Writes the name of the next object member.
+     */
+    void name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        mWriter.write(':');
+        mIsAfterName = Boolean.TRUE;
+    }
+
+    /**
+     * Writes a string value, JSON null if the value is null.
+     */
+    void value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            mWriter.write("null");
+        } else {
+            writeString(value);
+        }
+    }
+
+    /**
+     * Writes a member with a string value, nothing if the value is null.
+     */
+    void member(String name, Object value) throws IOException {
+        if (value != null) {
+            name(name);
+            value(value.toString());
+        }
+    }
+
+    /**
+     * Writes a member with a number value, nothing if the value is null.
+     */
+    void number(String name, Number value) throws IOException {
+        if (value != null) {
+            name(name);
+            beforeValue();
+            mWriter.write(value.toString());
+        }
+    }
+
+    void flush() throws IOException {
+        mWriter.flush();
+    }
+
+    private void startContainer(char c, boolean isWrapped) throws IOException {
+        beforeValue();
+        mWriter.write(c);
+        mDepth++;
+        mIsWrapped.set(mDepth, isWrapped);
+        mHasMembers.clear(mDepth);
+        if (isWrapped) {
+            mIndent++;
+        }
+    }
+
+    private void endContainer(char c) throws IOException {
+        if (mIsWrapped.get(mDepth)) {
+            mIndent--;
+            if (mHasMembers.get(mDepth)) {
+                newLine();
+            }
+        }
+        mDepth--;
+        mWriter.write(c);
+    }
+
+    private void beforeValue() throws IOException {
+        if (mIsAfterName) {
+            mIsAfterName = Boolean.FALSE;
+        } else if (mDepth > 0) {
+            if (mHasMembers.get(mDepth)) {
+                mWriter.write(',');
+                if (!mIsWrapped.get(mDepth)) {
+                    mWriter.write(' ');
+                }
+            }
+            if (mIsWrapped.get(mDepth)) {
+                newLine();
+            }
+            mHasMembers.set(mDepth);
+        }
+    }
+
+    private void newLine() throws IOException {
+        mWriter.write('\n');
+        for (int i = 0; i < mIndent; i++) {
+            mWriter.write('\t');
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        mWriter.write('"');
+        escape(mWriter, s);
+        mWriter.write('"');
+    }
+
+    /**
+     * Escapes a JSON string value: quotation mark, reverse solidus and control
+     * characters, as well as the line and paragraph separator, which are not
+     * allowed in JavaScript strings.
+     *
+     * @param w the writer to write into
+     * @param s the string to be escaped
+     */
+    static void escape(Writer w, String s) throws IOException {
+        int length = s.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && c != '\u2028' && c != '\u2029') {
+                continue;
+            }
+            if (i > start) {
+                w.write(s, start, i - start);
+            }
+            switch (c) {
+                case '"':
+                    w.write("\\\"");
+                    break;
+                case '\\':
+                    w.write("\\\\");
+                    break;
+                case '\n':
+                    w.write("\\n");
+                    break;
+                case '\r':
+                    w.write("\\r");
+                    break;
+                case '\t':
+                    w.write("\\t");
+                    break;
+                case '\b':
+                    w.write("\\b");
+                    break;
+                case '\f':
+                    w.write("\\f");
+                    break;
+                default:
+                    w.write("\\u");
+                    w.write(HEX[(c >> 12) & 0xF]);
+                    w.write(HEX[(c >> 8) & 0xF]);
+                    w.write(HEX[(c >> 4) & 0xF]);
+                    w.write(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        if (start < length) {
+            w.write(s, start, length - start);
+        }
+    }
+}
@@ -16,8 +16,12 @@
  */
 package de.prototypefund.en16931;
 
-import static de.prototypefund.en16931.NodeSemantic.LEADING_TRAILING_WHITESPACES;
 import de.prototypefund.en16931.type.CardinalityEdifact;
+import de.prototypefund.en16931.type.CardinalitySemantic;
+import de.prototypefund.en16931.type.MisMatchCardinality;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,18 +54,40 @@ public class NodeEdifact extends NodeSyntax {
         return c;
     }
 
+    int getExpectedCardinalityMisMatches(CardinalitySemantic semantic) {
+        int mask = 0;
+        if (mCardinality != null) {
+            mask = MisMatchCardinality.getExpectedMask(semantic, mCardinality);
+        }
+        return mask;
+    }
+
     public CardinalityEdifact getCardinalityEdifact() {
         return mCardinality;
     }
 
     public void setCardinalityEdifact(String cardinality) {
-        mCardinality = CardinalityEdifact.getByValue(cardinality.replaceAll(LEADING_TRAILING_WHITESPACES, ""), this.getSemanticNode().getId());
+        mCardinality = CardinalityEdifact.getByValue(Whitespace.trim(cardinality), this.getSemanticNode().getId(), getStatistic());
+    }
+
+    protected void writeSpecificAttributes(XmlWriter xml) throws IOException {
+        xml.attribute("name", getName());
+    }
+
+    protected void writeSpecificMembers(JsonWriter json) throws IOException {
+        json.member("name", getName());
+    }
+
+    protected void writeSpecificCache(DataOutputStream out) throws IOException {
+        ExtractionCache.writeString(out, mName);
+        ExtractionCache.writeString(out, getCardinality());
     }
 
-    protected StringBuilder addSpecificString(StringBuilder syntax) {
-        if (getName() != null) {
-            syntax.append(" name=\"" + getName() + "\"");
+    protected void readSpecificCache(DataInputStream in) throws IOException {
+        mName = ExtractionCache.readString(in);
+        String cardinality = ExtractionCache.readString(in);
+        if (cardinality != null) {
+            mCardinality = CardinalityEdifact.getByValue(cardinality, this.getSemanticNode().getId(), null);
         }
-        return syntax;
     }
 }
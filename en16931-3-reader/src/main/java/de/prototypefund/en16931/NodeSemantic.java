@@ -15,24 +15,23 @@
  */
 package de.prototypefund.en16931;
 
-import static de.prototypefund.en16931.OdtTableExtraction.mMultiHyphenDiff;
-import static de.prototypefund.en16931.OdtTableExtraction.mMultiHyphenSame;
-import static de.prototypefund.en16931.OdtTableExtraction.mSyntaxBindingCounter;
-import static de.prototypefund.en16931.OdtTableExtraction.mSyntaxBindingLastFileName;
+import de.prototypefund.en16931.ValidationFinding.Rule;
 import de.prototypefund.en16931.type.CardinalitySemantic;
 import de.prototypefund.en16931.type.MisMatch;
-import de.prototypefund.en16931.type.NumberAwareStringComparator;
+import de.prototypefund.en16931.type.MisMatchCardinality;
 import de.prototypefund.en16931.type.SemanticDataType;
+import de.prototypefund.en16931.type.SemanticIdKey;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.StringWriter;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,11 +44,7 @@ public class NodeSemantic {
     private static final Logger LOG = LoggerFactory.getLogger(NodeSemantic.class);
     private static final String BUSINESS_GROUP_PREFIX = "BG-";
     private static final String BUSINESS_TERM_PREFIX = "BT-";
-    private static final String ODT_SUFFIX = ".odt";
-    static final String LEADING_TRAILING_WHITESPACES = "(^\\h*)|(\\h*$)";
-    static final private String INVALID_FILE_CHARACTERS = "[\\\\/:*?\"<>|]";
     private Boolean isBusinessGroup = null;
-    static TreeMap<String, NodeSemantic> allSemanticNodes = null;
     List<NodeSyntax> syntaxRepresentations = null;
     private String mID = null;
     private String mBusinessTerm = null;
@@ -57,27 +52,19 @@ public class NodeSemantic {
     private Integer mLevel = null;
     private SemanticDataType mDataType = null;
     private String mDescription = null;
-    private String mTableId = null;
+    private final TableContext mTable;
     private static final String mERROR_ID = "ID ALREADY TAKEN";
+    // the cardinalities of tables with more semantics are validated in parallel chunks
+    private static final int PARALLEL_VALIDATION_THRESHOLD = 4096;
+    private static final int VALIDATION_CHUNK_SIZE = 1024;
     Boolean mWARNING_FixAlreadyTaken = Boolean.FALSE;
     Boolean mWARNING_FixUnavailable = Boolean.FALSE;
-    // Following properites are for naming the new output directories for the various output files
-    private static String FILE_SUFFIX__SUBSET = "_SUBSET";
-    private static String FILE_SUFFIX__SEMANTIC = "_SEMANTIC";
-    private static String SAME_SEMANTIC_DIR_NAME = "_SAME_SEMANTIC";
-    private static String SAME_BINDING_PREFIX = "_SAME_BINDING";
-    private static String BINDING_TYPE_INVOICE = "_INV__";
-    private static String BINDING_TYPE_CREDIT_NOTE = "_CN__";
-    private static final Integer CAR_1 = 1;
-    private static final Integer CAR_2 = 2;
-    private static final Integer CAR_3 = 3;
-    private static final Integer CAR_4 = 4;
-
-    public NodeSemantic(String id, String tableId) {
+
+    public NodeSemantic(String id, TableContext table) {
+        mTable = table;
         try {
-            mTableId = tableId;
             // check if ID is empty
-            if (!id.replaceAll(LEADING_TRAILING_WHITESPACES, "").isEmpty()) {
+            if (!Whitespace.trim(id).isEmpty()) {
                 if (id.startsWith(BUSINESS_TERM_PREFIX)) {
                     isBusinessGroup = Boolean.FALSE;
                     testID(id);
@@ -88,36 +75,27 @@ public class NodeSemantic {
                     LOG.error("ERROR: ID of Semantic object have to start, either with 'BT-' or 'BG-'! The ID was '" + id + "'!");
                 }
                 if (id.contains("–")) {
-                    if (mMultiHyphenDiff == null) {
-                        mMultiHyphenDiff = new ArrayList<>();
-                    }
-                    mMultiHyphenDiff.add(id);
+                    mTable.addMultiHyphenDiff(id);
                     id = id.replace("–", "-"); // fixing hyphen problem so all ID have similar structure
                 } else if (!id.contains("–") && id.contains("-")) {
                     int count = countChar(id, '-');
                     if (count > 1) {
-                        if (mMultiHyphenSame == null) {
-                            mMultiHyphenSame = new ArrayList();
-                        }
-                        mMultiHyphenSame.add(id);
-
+                        mTable.addMultiHyphenSame(id);
                     }
                 }
             } else {
                 LOG.error("ERROR: ID of semantic object shall not be empty!");
             }
-            if (allSemanticNodes == null) {
-                allSemanticNodes = new TreeMap<>(new NumberAwareStringComparator());
-            }
+            Map<SemanticIdKey, NodeSemantic> allSemanticNodes = mTable.getSemanticNodes();
+            SemanticIdKey key = new SemanticIdKey(id);
+            NodeSemantic s = allSemanticNodes.putIfAbsent(key, this);
             // new semantic ID
-            if (!allSemanticNodes.containsKey(id)) {
-                allSemanticNodes.put(id, this);
+            if (s == null) {
                 mID = id;
             } else { // duplicate sematic ID
-                NodeSemantic s = allSemanticNodes.get(id);
                 mWARNING_FixUnavailable = Boolean.TRUE;
                 LOG.error("ERROR: Duplicated SemanticNode ID: " + s.getId() + "\n");
-                LOG.info("\t\twithin table: '" + mTableId + "'\n");
+                LOG.info("\t\twithin table: '" + mTable.getTitle() + "'\n");
                 LOG.info("\t\twith business Term: '" + s.getBusinessTerm() + "'\n");
                 if (s.mDescription != null) {
                     LOG.info("\t\twith description: '" + s.mDescription + "'\n");
@@ -129,7 +107,7 @@ public class NodeSemantic {
                     }
                 }
                 LOG.info("\n");
-                allSemanticNodes.put(id, this);
+                allSemanticNodes.put(key, this);
             }
         } catch (Throwable t) {
             try {
@@ -146,6 +124,24 @@ public class NodeSemantic {
         }
     }
 
+    /**
+     * Restores a semantic node of the extraction cache, without testing its ID
+     * again.
+     *
+     * @param key the key of the node within the table
+     * @param id the ID of the node, null if the ID was already taken
+     */
+    private NodeSemantic(SemanticIdKey key, String id, TableContext table) {
+        mTable = table;
+        mID = id;
+        if (key.getId().startsWith(BUSINESS_TERM_PREFIX)) {
+            isBusinessGroup = Boolean.FALSE;
+        } else if (key.getId().startsWith(BUSINESS_GROUP_PREFIX)) {
+            isBusinessGroup = Boolean.TRUE;
+        }
+        table.getSemanticNodes().put(key, this);
+    }
+
     private void testID(String id) {
         String numberCandidate = id.substring(BUSINESS_TERM_PREFIX.length(), id.length());
         numberCandidate = numberCandidate.replace("-", "1").replace("–", "2"); // 16931-3-4 uses two different hyphen in its ID "BT-18–1"
@@ -174,13 +170,15 @@ public class NodeSemantic {
         return mID;
     }
 
+    /**
+     * Whitespace problems are collected by the table and logged by
+     * {@link #logWhitespaceProblems(TableContext)}.
+     */
     public void setBusinessTerm(String bt) {
-        String testString = bt.replaceAll("\\s+", " ").replaceAll(LEADING_TRAILING_WHITESPACES, "");
-        if (!testString.equals(bt)) {
-            LOG.warn("WARNING: " + getId() + " 'BT description' has whitespace problems:"
-                    + "\n\tWith visible whitespace (space = . and Java abbreviations \\t,\\r,\\f,\\n):\n\t\t"
-                    + "\"" + bt.replaceAll(" ", ".").replaceAll("\n", "\\\\n").replaceAll("\t", "\\\\t").replaceAll("\r", "\\\\r").replaceAll("\f", "\\\\f") + "\"\n");
-            LOG.warn("\tinstead of:\n\t\t\"" + testString + "\"\n\n");
+        String testString = Whitespace.normalize(bt);
+        // the same instance is returned, if there was nothing to normalise
+        if (testString != bt) {
+            mTable.getWhitespaceDiagnostics().add(getId(), "BT description", bt, testString);
         }
         mBusinessTerm = testString;
     }
@@ -190,7 +188,7 @@ public class NodeSemantic {
     }
 
     public void setCardinality(String c) {
-        mCardinality = CardinalitySemantic.getByValue(c, this.mID);
+        mCardinality = CardinalitySemantic.getByValue(c, this.mID, mTable.getStatistic());
     }
 
     public CardinalitySemantic getCardinality() {
@@ -198,7 +196,7 @@ public class NodeSemantic {
     }
 
     public void setDataType(String dt) {
-        mDataType = SemanticDataType.getByValue(dt, this.mID);
+        mDataType = SemanticDataType.getByValue(dt, this.mID, mTable.getStatistic());
     }
 
     public SemanticDataType getDataType() {
@@ -206,12 +204,10 @@ public class NodeSemantic {
     }
 
     public void setDescription(String d) {
-        String testString = d.replaceAll("\\s+", " ").replaceAll(LEADING_TRAILING_WHITESPACES, "");
-        if (!testString.equals(d)) {
-            LOG.warn("WARNING: " + getId() + " 'description' has whitespace problems:"
-                    + "\n\tWith visible whitespace (space = . and Java abbreviations \\t,\\r,\\f,\\n):\n\t\t"
-                    + "\"" + d.replaceAll(" ", ".").replaceAll("\n", "\\\\n").replaceAll("\t", "\\\\t").replaceAll("\r", "\\\\r").replaceAll("\f", "\\\\f") + "\"\n");
-            LOG.warn("\tinstead of:\n\t\t\"" + testString + "\"\n\n");
+        String testString = Whitespace.normalize(d);
+        // the same instance is returned, if there was nothing to normalise
+        if (testString != d) {
+            mTable.getWhitespaceDiagnostics().add(getId(), "description", d, testString);
         }
         mDescription = testString;
     }
@@ -232,39 +228,21 @@ public class NodeSemantic {
      * @return the ID of the current table, to access existing bugfixes
      */
     String getTableId() {
-        return mTableId;
+        return mTable.getTitle();
+    }
+
+    /**
+     * @return the context of the table this semantic node was defined in
+     */
+    TableContext getTable() {
+        return mTable;
     }
 
     @Override
     public String toString() {
-        StringBuilder xml = new StringBuilder();
+        StringWriter xml = new StringWriter();
         try {
-            xml.append("\t<semantic id=\"" + mID + "\"");
-            if (mLevel != null) {
-                xml.append(" level=\"" + mLevel + "\"");
-            }
-            if (mCardinality != null) {
-                xml.append(" card=\"" + mCardinality.getValue() + "\"");
-            }
-            if (mBusinessTerm != null) {
-                xml.append(" bt=\"" + mBusinessTerm + "\"");
-            }
-            if (mDescription != null) {
-                xml.append(" desc=\"" + mDescription + "\"");
-            }
-            if (mDataType != null) {
-                xml.append(" datatype=\"" + mDataType + "\"");
-            }
-            if (syntaxRepresentations != null && !syntaxRepresentations.isEmpty()) {
-                xml.append(">\n");
-                for (NodeSyntax xnode : syntaxRepresentations) {
-                    xml.append(xnode.toString());
-                    xml.append("\n");
-                }
-                xml.append("\t</semantic>");
-            } else { // empty element due as no XML children
-                xml.append("/>");
-            }
+            writeXml(new XmlWriter(xml));
         } catch (Throwable t) {
             t.toString();
         }
@@ -272,455 +250,281 @@ public class NodeSemantic {
     }
 
     public String toSubString(boolean onlySemantic) {
-        StringBuilder xml = new StringBuilder();
+        StringWriter xml = new StringWriter();
         try {
-            xml.append("\t<semantic id=\"" + mID + "\"");
-            if (mLevel != null) {
-                xml.append(" level=\"" + mLevel + "\"");
-            }
-            if (mCardinality != null) {
-                xml.append(" card=\"" + mCardinality.getValue() + "\"");
-            }
-            if (mBusinessTerm != null) {
-                xml.append(" bt=\"" + mBusinessTerm + "\"");
-            }
-            if (mDescription != null) {
-                xml.append(" desc=\"" + mDescription + "\"");
-            }
-            if (mDataType != null) {
-                xml.append(" datatype=\"" + mDataType + "\"");
-            }
-            if (!onlySemantic && syntaxRepresentations != null && !syntaxRepresentations.isEmpty()) {
-                xml.append(">\n");
-                for (NodeSyntax xnode : syntaxRepresentations) {
-                    xml.append(xnode.toSubString());
-                    xml.append("\n");
-                }
-                xml.append("\t</semantic>");
-            } else { // empty element due as no XML children
-                xml.append("/>");
-            }
+            writeSubXml(new XmlWriter(xml), onlySemantic);
         } catch (Throwable t) {
             t.toString();
         }
         return xml.toString();
     }
 
-    private String toJSONSubString(boolean onlySemantic) {
-        StringBuilder xml = new StringBuilder();
-        try {
-            xml.append("\t{ \"id\":\"" + mID + "\",");
-            if (mLevel != null) {
-                xml.append(" \"level\":\"" + mLevel + "\",");
-            }
-            if (mCardinality != null) {
-                xml.append(" \"card\":\"" + mCardinality.getValue() + "\",");
-            }
-            if (mBusinessTerm != null) {
-                xml.append(" \"bt\":\"" + mBusinessTerm + "\",");
-            }
-            if (mDescription != null) {
-                xml.append(" \"desc\":\"" + mDescription + "\",");
-            }
-            if (mDataType != null) {
-                xml.append(" \"datatype\":\"" + mDataType + "\"");
+    /**
+     * Writes the semantic node with all data of its syntax nodes.
+     */
+    void writeXml(XmlWriter xml) throws IOException {
+        writeSemanticStart(xml);
+        if (syntaxRepresentations != null && !syntaxRepresentations.isEmpty()) {
+            xml.whitespace("\n");
+            for (NodeSyntax xnode : syntaxRepresentations) {
+                xnode.writeXml(xml);
+                xml.whitespace("\n");
             }
-            xml = deleteFinalChar(xml, ',');
-            xml.append("}");
-        } catch (Throwable t) {
-            t.toString();
-        }
-        return xml.toString();
+            xml.whitespace("\t");
+        } // otherwise empty element due as no XML children
+        xml.endElement();
     }
 
-    private StringBuilder deleteFinalChar(StringBuilder xml, char finalChar){
-        int length = xml.length();
-        if(xml.charAt(length - 1) == finalChar){
-            xml.deleteCharAt(length - 1);
+    /**
+     * Writes the semantic node with the syntax data shared by normative and
+     * informative tables.
+     *
+     * @param onlySemantic if true the syntax nodes are not written
+     */
+    void writeSubXml(XmlWriter xml, boolean onlySemantic) throws IOException {
+        writeSemanticStart(xml);
+        if (!onlySemantic && syntaxRepresentations != null && !syntaxRepresentations.isEmpty()) {
+            xml.whitespace("\n");
+            for (NodeSyntax xnode : syntaxRepresentations) {
+                xnode.writeSubXml(xml);
+                xml.whitespace("\n");
+            }
+            xml.whitespace("\t");
+        } // otherwise empty element due as no XML children
+        xml.endElement();
+    }
+
+    private void writeSemanticStart(XmlWriter xml) throws IOException {
+        xml.whitespace("\t");
+        xml.startElement("semantic");
+        // the ID is written even if missing, as before
+        xml.attribute("id", String.valueOf(mID));
+        xml.attribute("level", mLevel);
+        if (mCardinality != null) {
+            xml.attribute("card", mCardinality.getValue());
         }
-        return xml;
+        xml.attribute("bt", mBusinessTerm);
+        xml.attribute("desc", mDescription);
+        xml.attribute("datatype", mDataType);
     }
 
-    public void createSemanticXMLFile(String fileName, String outputPath, String title, Boolean isNormative) {
-        createXMLFileVariants(fileName, outputPath, title, Boolean.FALSE, Boolean.TRUE, isNormative);
-    }
-
-    public void createSemanticJSONFile(String fileName, String outputPath, String title, Boolean isNormative) {
-        createJSONFileVariants(fileName, outputPath, title, Boolean.FALSE, Boolean.TRUE, isNormative);
-    }
-
-    public void createSubXMLFile(String fileName, String outputPath, String title, Boolean isNormative) {
-        createXMLFileVariants(fileName, outputPath, title, Boolean.TRUE, Boolean.FALSE, isNormative);
-    }
-
-    public void createXMLFile(String fileName, String outputPath, String title, Boolean isNormative) {
-        createXMLFileVariants(fileName, outputPath, title, Boolean.FALSE, Boolean.FALSE, isNormative);
+    /**
+     * Writes the semantic node as JSON object.
+     *
+     * @param onlySemantic if true the syntax nodes are not written
+     */
+    void writeJson(JsonWriter json, boolean onlySemantic) throws IOException {
+        json.startObject(Boolean.FALSE);
+        // the ID is written even if missing, as in XML
+        json.member("id", String.valueOf(mID));
+        json.member("level", mLevel);
+        if (mCardinality != null) {
+            json.member("card", mCardinality.getValue());
+        }
+        json.member("bt", mBusinessTerm);
+        json.member("desc", mDescription);
+        json.member("datatype", mDataType);
+        if (!onlySemantic && syntaxRepresentations != null && !syntaxRepresentations.isEmpty()) {
+            json.name("syntaxRepresentations");
+            json.startArray(Boolean.TRUE);
+            for (NodeSyntax xnode : syntaxRepresentations) {
+                xnode.writeJson(json);
+            }
+            json.endArray();
+        }
+        json.endObject();
     }
 
-    private void createXMLFileVariants(String fileName, String outputPath, String title, Boolean isSubFile, Boolean onlySemantic, Boolean isNormative) {
-        try {
-            if (fileName.endsWith(ODT_SUFFIX)) {
-                fileName = fileName.substring(0, fileName.length() - ODT_SUFFIX.length());
-            }
-            StringBuilder xml_Suffix = new StringBuilder();
-            Collection<NodeSemantic> semanticNodes = this.allSemanticNodes.values();
-            int xmlCount = 0;
-            for (NodeSemantic s : semanticNodes) {
-                if (s != null) {
-                    if (isSubFile || onlySemantic) {
-                        xml_Suffix.append(s.toSubString(onlySemantic)).append("\n");
-                    } else {
-                        xml_Suffix.append(s.toString()).append("\n");
-                    }
-                } else {
-                    LOG.error("ERROR: DATA MODEL IS EMPTY!!");
-                }
-                if (s.syntaxRepresentations != null) {
-                    xmlCount += s.syntaxRepresentations.size();
-                }
+    /**
+     * Writes the semantic node with its syntax nodes into an entry of the
+     * extraction cache.
+     */
+    void writeCache(DataOutputStream out) throws IOException {
+        ExtractionCache.writeString(out, mID);
+        out.writeInt(mLevel == null ? -1 : mLevel);
+        ExtractionCache.writeString(out, mCardinality == null ? null : mCardinality.getValue());
+        ExtractionCache.writeString(out, mBusinessTerm);
+        ExtractionCache.writeString(out, mDescription);
+        ExtractionCache.writeString(out, mDataType == null ? null : mDataType.getValue());
+        if (syntaxRepresentations == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(syntaxRepresentations.size());
+            for (NodeSyntax xnode : syntaxRepresentations) {
+                xnode.writeCache(out);
             }
-            xml_Suffix.append("</semantics>");
-            StringBuilder xml_Prefix = new StringBuilder();
-            int semanticCount = semanticNodes.size();
-            xml_Prefix.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<semantics semantics=\"" + semanticCount + "\" xml=\"" + xmlCount + "\" file=\"" + fileName + "\" table=\"" + title + "\">\n");
-            // XML files are saved in at least different folder (same semantic data-set, same informative & normative-subset, full table dataset)
-            String outputFilePath = getOutputFilePath(fileName, outputPath, title, isSubFile, onlySemantic, isNormative);
-            FileHelper.saveStringToFile(new File(outputFilePath), xml_Prefix.append(xml_Suffix).toString());
-            LOG.info("\nSaving extracted syntax binding into file:\n\t" + outputFilePath + "\n");
-        } catch (Throwable e) {
-            LoggerFactory.getLogger(NodeSemantic.class.getName()).error("ERROR: " + e.getMessage(), e);
         }
     }
 
-    private void createJSONFileVariants(String fileName, String outputPath, String title, Boolean isSubFile, Boolean onlySemantic, Boolean isNormative) {
-        try {
-            if (fileName.endsWith(ODT_SUFFIX)) {
-                fileName = fileName.substring(0, fileName.length() - ODT_SUFFIX.length());
-            }
-            StringBuilder xml_Suffix = new StringBuilder();
-            Collection<NodeSemantic> semanticNodes = this.allSemanticNodes.values();
-            int xmlCount = 0;
-            for (NodeSemantic s : semanticNodes) {
-                if (s != null && (isSubFile || onlySemantic)) {
-                    xml_Suffix.append(s.toJSONSubString(onlySemantic)).append(",");
-                } else {
-                    LOG.error("ERROR: DATA MODEL IS EMPTY!!");
-                }
-                if (s.syntaxRepresentations != null) {
-                    xmlCount += s.syntaxRepresentations.size();
-                }
+    /**
+     * Reads a semantic node written by {@link #writeCache(DataOutputStream)}
+     * and adds it to the table. The values had been tested during the
+     * extraction, the type statistic is not counted again.
+     */
+    static NodeSemantic readCache(DataInputStream in, SemanticIdKey key, TableContext table) throws IOException {
+        NodeSemantic s = new NodeSemantic(key, ExtractionCache.readString(in), table);
+        int level = in.readInt();
+        s.mLevel = level == -1 ? null : level;
+        String cardinality = ExtractionCache.readString(in);
+        if (cardinality != null) {
+            s.mCardinality = CardinalitySemantic.getByValue(cardinality, s.mID, null);
+        }
+        s.mBusinessTerm = ExtractionCache.readString(in);
+        s.mDescription = ExtractionCache.readString(in);
+        String dataType = ExtractionCache.readString(in);
+        if (dataType != null) {
+            s.mDataType = SemanticDataType.getByValue(dataType, s.mID, null);
+        }
+        int syntaxCount = in.readInt();
+        if (syntaxCount >= 0) {
+            s.syntaxRepresentations = new ArrayList<>(syntaxCount);
+            for (int i = 0; i < syntaxCount; i++) {
+                NodeSyntax.readCache(in, s);
             }
-            xml_Suffix = deleteFinalChar(xml_Suffix, ',');
-            xml_Suffix.append("\n]}");
-            StringBuilder xml_Prefix = new StringBuilder();
-            int semanticCount = semanticNodes.size();
-            xml_Prefix.append("{ \"semanticCount\":\"" + semanticCount + "\", " + " \"file\":\"" + fileName + "\", \"table\":\"" + title + "\", " + "\"semantics\":[\n");
-            // XML files are saved in at least different folder (same semantic data-set, same informative & normative-subset, full table dataset)
-            String outputFilePath = getOutputFilePath(fileName, outputPath, title, isSubFile, onlySemantic, isNormative, ".json");
-            FileHelper.saveStringToFile(new File(outputFilePath), xml_Prefix.append(xml_Suffix).toString());
-            LOG.info("\nSaving extracted syntax binding into file:\n\t" + outputFilePath + "\n");
-        } catch (Throwable e) {
-            LoggerFactory.getLogger(NodeSemantic.class.getName()).error("ERROR: " + e.getMessage(), e);
         }
+        return s;
     }
 
     /**
-     * XML files are saved in at least three different folder (same semantic
-     * data-set, same informative & normative-subset, full table dataset) In the
-     * case of UBL there are even two same informative & normative-subsets.
+     * Compares the resulting mismatch from the given cardinalites of semantic &
+     * syntax, with the given mismatches! The findings are added to the
+     * validation report of the table. Large tables are validated in parallel.
      */
-    private String getOutputFilePath(String fileName, String outputPath, String title, Boolean isSubFile, Boolean onlySemantic, Boolean isNormative) {
-        return getOutputFilePath(fileName, outputPath, title, isSubFile, onlySemantic, isNormative, ".xml");
+    static public void validateCardinalityMismatches(TableContext table) {
+        validateCardinalityMismatches(table, table.getSemanticNodes().size() >= PARALLEL_VALIDATION_THRESHOLD);
     }
 
     /**
-     * XML files are saved in at least three different folder (same semantic
-     * data-set, same informative & normative-subset, full table dataset) In the
-     * case of UBL there are even two same informative & normative-subsets.
+     * @param isParallel if true the semantics are validated in chunks on the
+     * common fork/join pool. The findings of the chunks are merged in the order
+     * of the chunks, so the findings are in the order of the semantic IDs
+     * either way.
      */
-    private String getOutputFilePath(String fileName, String outputPath, String title, Boolean isSubFile, Boolean onlySemantic, Boolean isNormative, String outputFileSuffix) {
-        String outputFilePath = null;
-        if (isSubFile) {
-            if (isNormative) {
-                title += FILE_SUFFIX__SUBSET;
+    static void validateCardinalityMismatches(TableContext table, boolean isParallel) {
+        if (!isParallel) {
+            for (NodeSemantic s : table.getSemanticNodes().values()) {
+                validateCardinalityMismatches(s, table.getValidationReport());
             }
-            String bindingDirName = getBindingDirName(fileName);
-            File newDir = new File(outputPath + File.separator + bindingDirName);
-            newDir.mkdir();
-            outputFilePath = newDir.getAbsolutePath() + File.separator + title.replaceAll(INVALID_FILE_CHARACTERS, "_") + outputFileSuffix;
-        } else if (onlySemantic) {
-            title += FILE_SUFFIX__SEMANTIC;
-            File newDir = new File(outputPath + File.separator + SAME_SEMANTIC_DIR_NAME);
-            newDir.mkdir();
-            outputFilePath = newDir.getAbsolutePath() + File.separator + fileName + "_" + title.replaceAll(INVALID_FILE_CHARACTERS, "_") + outputFileSuffix;
-        } else {
-            // informative data needs to be saved twice (root and subdirectory for comparison)
-            File newDir = new File(outputPath + File.separator + fileName);
-            newDir.mkdir();
-            outputFilePath = newDir.getAbsolutePath() + File.separator + title.replaceAll(INVALID_FILE_CHARACTERS, "_") + outputFileSuffix;
-        }
-        return outputFilePath;
-    }
-
-    private String getBindingDirName(String fileName) {
-        String enType = BINDING_TYPE_INVOICE;
-        if (!fileName.equals(mSyntaxBindingLastFileName)) {
-            mSyntaxBindingLastFileName = fileName;
-            mSyntaxBindingCounter = 1;
         } else {
-            mSyntaxBindingCounter++;
-            if (mSyntaxBindingCounter > 2) {
-                enType = BINDING_TYPE_CREDIT_NOTE;
+            // immutable snapshot of the semantics sorted by their IDs
+            List<NodeSemantic> semantics = List.copyOf(table.getSemanticNodes().values());
+            int chunkCount = (semantics.size() + VALIDATION_CHUNK_SIZE - 1) / VALIDATION_CHUNK_SIZE;
+            List<ValidationReport> reports = IntStream.range(0, chunkCount).parallel().mapToObj(c -> {
+                ValidationReport report = new ValidationReport();
+                int end = Math.min(semantics.size(), (c + 1) * VALIDATION_CHUNK_SIZE);
+                for (int i = c * VALIDATION_CHUNK_SIZE; i < end; i++) {
+                    validateCardinalityMismatches(semantics.get(i), report);
+                }
+                return report;
+            }).collect(Collectors.toList());
+            for (ValidationReport report : reports) {
+                table.getValidationReport().addAll(report);
             }
         }
-        return SAME_BINDING_PREFIX + enType + fileName;
     }
 
     /**
-     * Compares the resulting mismatch from the given cardinalites of semantic &
-     * syntax, with the given mismatches!
+     * Adds the findings of the cardinalities of the given semantic and its
+     * syntax representations to the given report.
      */
-    static public void validateCardinalityMismatches() {
-
-        System.out.println("\n");
-        System.out.println("***************************");
-        System.out.println("* Cardinality Mismatches  *");
-        System.out.println("***************************");
-        StringBuilder sb = new StringBuilder();
-        // for loop as functional operations
-        for (NodeSemantic s : allSemanticNodes.values()) {
-            sb.append("\nSemantic ID: " + s.mID + "\n");
-            sb.append("Semantic Term: " + s.mBusinessTerm + "\n");
-            if (s.syntaxRepresentations != null) {
-                getCardinaltiyMismatches(sb, s);
-            } else {
-                sb.append("WARNING: Semantic without XML representation!!!\n");
-                System.out.print(sb.toString());
+    static void validateCardinalityMismatches(NodeSemantic s, ValidationReport report) {
+        if (s.syntaxRepresentations != null) {
+            for (NodeSyntax x : s.syntaxRepresentations) {
+                if (x != null) {
+                    validateCardinalityMismatches(s, x, report);
+                }
             }
-            sb = sb.delete(0, sb.length());
+        } else {
+            report.add(Rule.SYNTAX_MISSING, s.mTable, s.mID, null, null);
         }
-        System.out.println("\n\n");
-    }
-
-    static private void getCardinaltiyMismatches(StringBuilder sb, NodeSemantic s) {
-        Boolean hasError = Boolean.FALSE;
-        String cSem = s.getCardinality().getValue();
-
-        for (NodeSyntax x : s.syntaxRepresentations) {
-            if (x != null) {
-                String cSyn = x.getCardinality();
-                MisMatch[] mm = x.getMisMatches();
-                sb.append("XML path: " + x.mPath + "\n");
-                // evaluate the cardinality mismatch by comparing semantic & syntax cardinality
-                // 1) Give errors, if cardinality is missing!
-                if (cSem != null) {
-                    sb.append("Cardinality-Semantic: " + cSem + "\n");
-                } else {
-                    hasError = Boolean.TRUE;
-                    sb.append("ERROR: Semantic Cardinality have to be set!\n");
-                }
-                if (cSyn != null) {
-                    sb.append("Cardinality-Syntax:   " + cSyn + "\n");
-                } else {
-                    // there has to be a cardinality, unless it is an attribute (unique)
-                    if (!x.getPath().contains("@")) {
-                        hasError = Boolean.TRUE;
-                        sb.append("ERROR: XML Cardinality have to be set!\n");
-                    } else {
-                        sb.append("Using an XML attribute!\n");
+    }
+
+    static private void validateCardinalityMismatches(NodeSemantic s, NodeSyntax x, ValidationReport report) {
+        CardinalitySemantic cSem = s.mCardinality;
+        String cSyn = x.getCardinality();
+        // 1) Give errors, if cardinality is missing!
+        if (cSem == null) {
+            report.add(Rule.SEMANTIC_CARDINALITY_MISSING, s.mTable, s.mID, x.getPath(), null);
+        }
+        // there has to be a cardinality, unless it is an attribute (unique)
+        if (cSyn == null && !x.getPath().contains("@")) {
+            report.add(Rule.SYNTAX_CARDINALITY_MISSING, s.mTable, s.mID, x.getPath(), null);
+        }
+
+        // 2) Gather the given cardinality mismatches as bitmask
+        int given = 0;
+        MisMatch[] mm = x.getMisMatches();
+        if (mm != null) {
+            for (MisMatch m : mm) {
+                if (m == null) {
+                    report.add(Rule.MISMATCH_UNKNOWN, s.mTable, s.mID, x.getPath(), null);
+                } else if (m instanceof MisMatchCardinality) {
+                    MisMatchCardinality car = (MisMatchCardinality) m;
+                    if ((given & car.getMask()) != 0) {
+                        report.add(Rule.CARDINALITY_MISMATCH_REPEATED, s.mTable, s.mID, x.getPath(), Integer.toString(car.getLevel()));
                     }
+                    given |= car.getMask();
                 }
+            }
+        }
 
-                // 2) Gather existing cardinality
-                Set<Integer> cm = null;
-                if (mm != null) {
-                    for (MisMatch m : mm) {
-                        if (m != null) {
-                            //System.out.println("Mismatch m: " + m.getValue());
-                            if (m.getValue().startsWith("CAR-")) {
-                                if (cm == null) {
-                                    cm = new HashSet<Integer>();
-                                }
-                                Integer cmLevel = getCardinality(Integer.parseInt(m.getValue().substring(4)));
-                                if (cm.contains(cmLevel)) {
-                                    hasError = Boolean.TRUE;
-                                    sb.append("ERROR: Cardinality level " + cmLevel + " is multiple times present!\n");
-                                }
-                                cm.add(cmLevel);
-                                // Potential information loss during roundtrip from syntax to semantic and back (just info)
-//                                if (cmLevel.equals(CAR_2) || cmLevel.equals(CAR_4)) {
-//                                    hasError = Boolean.TRUE;
-//                                    sb.append("\nWARNING: Potential information loss due to limited XML: CAR-" + cmLevel + "!");
-//                                }
-//                                if (cmLevel.equals(CAR_1) || cmLevel.equals(CAR_3)) {
-//                                    hasError = Boolean.TRUE;
-//                                    sb.append("\nWARNING: Potential information loss due to limited EU semantic: CAR-" + cmLevel + "!");
-//                                }
-                            }
-                        } else {
-                            hasError = Boolean.TRUE;
-                            sb.append("ERROR: Mismatch should be set!\n");
-                        }
+        // 3) Test the given against the expected cardinality mismatches
+        if (given != 0 && cSem != null && cSyn != null && !cSyn.equals(cSem.getValue())) {
+            int expected = x.getExpectedCardinalityMisMatches(cSem);
+            int missing = expected & ~given;
+            int misplaced = given & ~expected;
+            if ((missing | misplaced) != 0) {
+                for (MisMatchCardinality car : MisMatchCardinality.values()) {
+                    if ((missing & car.getMask()) != 0) {
+                        report.add(Rule.CARDINALITY_MISMATCH_MISSING, s.mTable, s.mID, x.getPath(), car.getValue());
                     }
                 }
-
-                // 3) Test cardinality
-                if (cSem != null && cSyn != null) {
-                    if (!cSyn.equals(cSem)) {
-                        if (cSem.charAt(0) != cSyn.charAt(0)) {
-                            // CAR-1
-                            if (cSem.charAt(0) == '0' && cSyn.charAt(0) == '1') {
-                                if (cm != null) {
-                                    if (!cm.contains(CAR_1)) {
-                                        hasError = Boolean.TRUE;
-                                        sb.append("ERROR: CAR-1 is missing!\n");
-                                    } else {
-                                        cm.remove(CAR_1);
-                                    }
-                                }
-                            } // CAR-2
-                            else if (cSem.charAt(0) == '1' && cSyn.charAt(0) == '0') {
-                                if (cm != null) {
-                                    if (!cm.contains(CAR_2)) {
-                                        hasError = Boolean.TRUE;
-                                        sb.append("ERROR: CAR-2 is missing!\n");
-                                    } else {
-                                        cm.remove(CAR_2);
-                                    }
-                                }
-                            }
-                        }
-                        if (cSem.charAt(3) != cSyn.charAt(3)) {
-                            // CAR-3
-                            if (cSem.charAt(3) == '1' && cSyn.charAt(3) == 'n') {
-                                if (cm != null) {
-                                    if (!cm.contains(CAR_3)) {
-                                        hasError = Boolean.TRUE;
-                                        sb.append("ERROR: CAR-3 is missing!\n");
-                                    } else {
-                                        cm.remove(CAR_3);
-                                    }
-                                }
-                            } // CAR-4
-                            else if (cSem.charAt(3) == 'n' && cSyn.charAt(3) == '1') {
-                                if (cm != null) {
-                                    if (!cm.contains(CAR_4)) {
-                                        hasError = Boolean.TRUE;
-                                        sb.append("ERROR: CAR-4 is missing!\n");
-                                    } else {
-                                        cm.remove(CAR_4);
-                                    }
-                                }
-                            }
-                        }
-                        if (cm != null && cm.size() > 0) {
-                            for (Integer i : cm) {
-                                hasError = Boolean.TRUE;
-                                sb.append("ERROR: CAR-" + i + " is misplaced!\n");
-                            }
-                        }
+                for (MisMatchCardinality car : MisMatchCardinality.values()) {
+                    if ((misplaced & car.getMask()) != 0) {
+                        report.add(Rule.CARDINALITY_MISMATCH_MISPLACED, s.mTable, s.mID, x.getPath(), car.getValue());
                     }
                 }
-                cm = null;
-            } // if
-        } // for
-        if (hasError) {
-            System.out.print(sb.toString());
-            hasError = Boolean.FALSE;
-        }
-    }
-
-
-    static private Integer getCardinality(Integer i) {
-        Integer cardinality = null;
-        switch (i) {
-            case 1:
-                cardinality = CAR_1;
-                break;
-            case 2:
-                cardinality = CAR_2;
-                break;
-            case 3:
-                cardinality = CAR_3;
-                break;
-            case 4:
-                cardinality = CAR_4;
-                break;
+            }
         }
-        return cardinality;
     }
 
-    static public void showSemanticIDAnomalies() {
-        if (mMultiHyphenDiff != null) {
-            LOG.warn("WARNING: Semantic IDs are using different hyphen characters:\n");
-            LOG.warn("\t\tThe unicode character hyphen-minus is shown as '*', the control-character 'START OF GUARDED AREA' as '+':\n\t\t");
-            for (String id : mMultiHyphenDiff) {
-                LOG.info(id.replace("-", "*").replace("–", "+") + ", ");
-            }
-            if (mMultiHyphenSame != null) {
-                LOG.info("\n\t\tIn addition, the following semantic IDs were using two identical hyphen:\n");
-                for (String id : mMultiHyphenSame) {
-                    LOG.info(id + ", ");
+    /**
+     * Adds the anomalies of semantic IDs collected during parse to the
+     * validation report of the table. The anomalies are kept, as they are
+     * saved into the extraction cache with the table.
+     */
+    static public void showSemanticIDAnomalies(TableContext table) {
+        if (table.mMultiHyphenDiff != null) {
+            for (String id : table.mMultiHyphenDiff) {
+                table.getValidationReport().add(Rule.SEMANTIC_ID_HYPHEN_DIFFERENT, table, id, null, id.replace("-", "*").replace("–", "+"));
+            }
+            if (table.mMultiHyphenSame != null) {
+                for (String id : table.mMultiHyphenSame) {
+                    table.getValidationReport().add(Rule.SEMANTIC_ID_HYPHEN_SAME, table, id, null, null);
                 }
-                mMultiHyphenSame.clear();
-                mMultiHyphenSame = null;
-            } else {
-                LOG.info("\n\t\tNo Semantic ID was using two identical hyphen!\n\n");
             }
-            mMultiHyphenDiff.clear();
-            mMultiHyphenDiff = null;
-        } else {
-            LOG.info("INFO: Semantic IDs are using correct hyphens.\n\n");
         }
     }
 
-    private Set<List<NodeSemantic>> findDuplicates() {
-        Set<List<NodeSemantic>> duplicates = new HashSet<>();
-        // 1) XPath - collecting BG in List
-        for (List<NodeSyntax> l : NodeSyntax.duplicatePathList.values()) {
-            List<NodeSemantic> duplicateList = new ArrayList<NodeSemantic>();
-            for (NodeSyntax x : l) {
-                duplicateList.add(x.getSemanticNode());
-            }
-            // remove duplicate NodeSemantic lists by adding to Set
-            duplicates.add(duplicateList);
-        }
-        return duplicates;
+    /**
+     * Logs the whitespace problems of business terms and descriptions
+     * collected during parse.
+     */
+    static void logWhitespaceProblems(TableContext table) {
+        table.getWhitespaceDiagnostics().log(LOG);
     }
 
-    void logDuplicateXPathErors() {
-        Set<List<NodeSemantic>> duplicates = this.findDuplicates();
-        StringBuilder sb = new StringBuilder();
-        for (List<NodeSemantic> l : duplicates) {
-            sb.append("The following group of Semantic Entities have the same Syntax Nodes:\n");
-            for (NodeSemantic s : l) {
-                sb.append(s.toString() + "\n");
-            }
-            sb.append("\n\n");
+    /**
+     * Adds a finding for each syntax path of the table being used by several
+     * syntax nodes, listing the IDs of their semantics.
+     */
+    static void validateDuplicatePaths(TableContext table) {
+        for (List<NodeSyntax> nodes : table.getDuplicatePaths()) {
+            String ids = nodes.stream().map(x -> x.getSemanticNode().getId()).distinct().collect(Collectors.joining(", "));
+            NodeSyntax first = nodes.get(0);
+            table.getValidationReport().add(Rule.SYNTAX_PATH_DUPLICATE, table, first.getSemanticNode().getId(), first.getPath(), ids);
         }
-        LOG.error("\n\nERROR: There are " + duplicates.size() + " duplications of syntax within semantic nodes!\n" + sb.toString());
-    }
-// 2DO Later Svante - CURRENTLY NO WARNING IF XML WAS USED IN MULTIPLE SEMANTICS
-//    Set<List<SemanticNode>> findDuplicates() {
-//        Set<List<SemanticNode>> duplicates = new HashSet<>();
-//
-//        StringBuilder duplicateIdList = new StringBuilder();
-//        // 1) XPath - collecting BG in List
-//        for (List<SyntaxNode> l : NodeSyntax.duplicatePathList.values()) {
-//            Set<String> duplicateLists = new HashSet<String>();
-//            for (NodeSyntax x : l) {
-//                // 2) SG Liste UNIQUE als STRING im SET zu machen
-//
-//                duplicateIdList.append(x.getSemanticNode().getId()).append(" ");
-//            }
-//            duplicateLists.add(duplicateIdList.toString());
-//        }
-//
-//        Set<String> duplicateLists = new HashSet<String>();
-//
-//        // 3) Alle Keys ausgeben als Fehlermeldung
-//        return duplicates;
-//    }
+    }
 
     /**
      * This enum contains all table header row label of the semantic object
@@ -16,14 +16,15 @@
  */
 package de.prototypefund.en16931;
 
-import static de.prototypefund.en16931.NodeSemantic.LEADING_TRAILING_WHITESPACES;
+import de.prototypefund.en16931.type.CardinalitySemantic;
 import de.prototypefund.en16931.type.MisMatch;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import de.prototypefund.en16931.type.MisMatchCardinality;
+import de.prototypefund.en16931.type.TypeStatistic;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.StringTokenizer;
-import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,10 +35,12 @@ import org.slf4j.LoggerFactory;
 public abstract class NodeSyntax {
 
     private static final Logger LOG = LoggerFactory.getLogger(NodeSyntax.class);
+    // the kinds of syntax nodes within the extraction cache
+    private static final byte CACHE_XML = 0;
+    private static final byte CACHE_UBL_XML = 1;
+    private static final byte CACHE_EDIFACT = 2;
     protected NodeSemantic mSemanticParent;
-    static TreeMap<String, NodeSyntax> allSyntaxNodes = null;
-    static Map<String, List<NodeSyntax>> duplicatePathList = null;
-    protected String mPath; // usually the XPath
+    protected SyntaxPath mPath; // usually the XPath
     protected MisMatch[] mMisMatches;
     protected String mRules;
     protected Boolean mIsXml;
@@ -47,53 +50,13 @@ public abstract class NodeSyntax {
     public NodeSyntax(String path, NodeSemantic semanticParent, Boolean isXml) {
         try {
             assert semanticParent != null;
-            path = path.replaceAll(LEADING_TRAILING_WHITESPACES, "");
+            path = Whitespace.trim(path);
             if (path != null && !path.isEmpty()) {
                 mIsXml = isXml;
-                mPath = path;
+                mPath = SyntaxPath.of(path);
                 mSemanticParent = semanticParent;
                 mSemanticParent.addSyntaxRepresentation(this);
-                if (allSyntaxNodes == null) {
-                    allSyntaxNodes = new TreeMap<String, NodeSyntax>();
-                }
-// 2DO Later Svante - CURRENTLY NO WARNING IF XML WAS USED IN MULTIPLE SEMANTICS
-//            String duplicatePath = path + "_1";
-//                String duplicatePath = path;
-//                List<NodeSyntax> duplicates = null;
-//            if (!allSyntaxNodes.containsKey(duplicatePath)) {
-//                if (!allSyntaxNodes.containsKey(path)) {
-//                    allSyntaxNodes.put(path, this);
-//                    mPath = path;
-//                } else { // collison remove the previous path and add DUPLICATE_SUFFIX
-//                    NodeSyntax firstNode = allSyntaxNodes.remove(path);
-//                    firstNode.mPath = duplicatePath;
-//                    allSyntaxNodes.put(duplicatePath, firstNode);
-//                    allSyntaxNodes.put(path + "_2", this);
-//                    mPath = path + "_2";
-//                    // add all duplicates in a List for later error processing
-//                    duplicates = new ArrayList<NodeSyntax>(2);
-//                    duplicates.add(firstNode);
-//                    duplicates.add(this);
-//                    if (duplicatePathList == null) {
-//                        duplicatePathList = new HashMap<String, List<NodeSyntax>>();
-//                    }
-//                    duplicatePathList.put(path, duplicates);
-//                }
-//            } else { // if the xpath was already MORE THAN ONCE as ID before
-//                String pathDuplicateId = null;
-//                for (int i = 3; i < allSyntaxNodes.size(); i++) {
-//                    pathDuplicateId = path + "_" + i;
-//                    if (!allSyntaxNodes.containsKey(pathDuplicateId)) {
-//                        allSyntaxNodes.put(pathDuplicateId, this);
-//                        mPath = pathDuplicateId;
-//                        break;
-//                    }
-//                }
-//                // add all duplicates in a List for later error processing
-//                duplicates = duplicatePathList.get(path);
-//                duplicates.add(this);
-//                duplicatePathList.put(path, duplicates);
-//            }
+                mSemanticParent.getTable().addSyntaxPath(this);
             }
         } catch (Throwable t) {
             LOG.error("ERROR: Problem in SyntaxNode creation!", t);
@@ -102,10 +65,25 @@ public abstract class NodeSyntax {
 
     abstract public String getCardinality();
 
+    /**
+     * @param semantic the cardinality of the semantic parent
+     * @return the cardinality mismatches to be declared as bitmask of
+     * {@link MisMatchCardinality#getMask()}, 0 if the syntax cardinality is
+     * not set
+     */
+    abstract int getExpectedCardinalityMisMatches(CardinalitySemantic semantic);
+
     public NodeSemantic getSemanticNode() {
         return mSemanticParent;
     }
 
+    /**
+     * @return the type statistic of the table this syntax node was defined in
+     */
+    protected TypeStatistic getStatistic() {
+        return mSemanticParent.getTable().getStatistic();
+    }
+
     public MisMatch[] getMisMatches() {
         return mMisMatches;
     }
@@ -119,13 +97,13 @@ public abstract class NodeSyntax {
                     mMisMatches = new MisMatch[count];
                 }
                 for (int i = 0; st.hasMoreElements(); i++) {
-                    mMisMatches[i] = MisMatch.createMisMatch(st.nextToken().replaceAll(LEADING_TRAILING_WHITESPACES, ""), this.getSemanticNode().getId());
+                    mMisMatches[i] = MisMatch.createMisMatch(Whitespace.trim(st.nextToken()), this.getSemanticNode().getId(), getStatistic());
                 }
             } else {
                 if (mMisMatches == null) {
                     mMisMatches = new MisMatch[1];
                 }
-                mMisMatches[0] = MisMatch.createMisMatch(match.replaceAll(LEADING_TRAILING_WHITESPACES, ""), this.getSemanticNode().getId());
+                mMisMatches[0] = MisMatch.createMisMatch(Whitespace.trim(match), this.getSemanticNode().getId(), getStatistic());
             }
         } catch (Throwable e) {
             LoggerFactory.getLogger(NodeSyntax.class.getName()).error("ERROR: " + e.getMessage(), e);
@@ -141,10 +119,20 @@ public abstract class NodeSyntax {
     }
 
     public void setPath(String xpath) {
-        mPath = xpath;
+        mPath = xpath == null ? null : SyntaxPath.of(xpath);
     }
 
+    /**
+     * @return the path rendered from its compact form
+     */
     public String getPath() {
+        return mPath == null ? null : mPath.toString();
+    }
+
+    /**
+     * @return the interned path, equal paths are the same instance
+     */
+    public SyntaxPath getSyntaxPath() {
         return mPath;
     }
 
@@ -198,72 +186,178 @@ public abstract class NodeSyntax {
         }
     }
 
-    abstract protected StringBuilder addSpecificString(StringBuilder syntax);
+    /**
+     * Writes the attributes specific to the syntax, after the path.
+     */
+    abstract protected void writeSpecificAttributes(XmlWriter xml) throws IOException;
+
+    /**
+     * Writes the data specific to the syntax into an entry of the extraction
+     * cache.
+     */
+    abstract protected void writeSpecificCache(DataOutputStream out) throws IOException;
+
+    /**
+     * Reads the data written by
+     * {@link #writeSpecificCache(DataOutputStream)}.
+     */
+    abstract protected void readSpecificCache(DataInputStream in) throws IOException;
+
+    /**
+     * Writes the JSON members specific to the syntax, after the path.
+     */
+    abstract protected void writeSpecificMembers(JsonWriter json) throws IOException;
 
     @Override
     public String toString() {
-        StringBuilder syntax = new StringBuilder();
+        StringWriter syntax = new StringWriter();
         try {
-            if (mIsXml) {
-                syntax.append("\t\t<xml path=\"" + mPath + "\"");
-            } else {
-                syntax.append("\t\t<edifact path=\"" + mPath + "\"");
-            }
+            writeXml(new XmlWriter(syntax));
+        } catch (Throwable e) {
+            LoggerFactory.getLogger(NodeXml.class.getName()).error("ERROR: " + e.getMessage(), e);
+        }
+        return syntax.toString();
+    }
 
-            addSpecificString(syntax);
+    public String toSubString() {
+        StringWriter syntax = new StringWriter();
+        try {
+            writeSubXml(new XmlWriter(syntax));
+        } catch (Throwable e) {
+            LoggerFactory.getLogger(NodeXml.class.getName()).error("ERROR: " + e.getMessage(), e);
+        }
+        return syntax.toString();
+    }
 
-            if (getCardinality() != null) {
-                syntax.append(" card=\"" + getCardinality() + "\"");
-            }
-            if (mMisMatches != null && mMisMatches.length > 0) {
-                syntax.append(" mismatches=\"");
-                for (int i = 0; mMisMatches.length > i; i++) {
-                    if (mMisMatches[i] == null) {
-                        LOG.error("ERROR: INVALID CONTENT: See 'Match' column of Semantic ID '" + this.getSemanticNode().getId() + "'!\n");
-                        syntax.append("ERROR!\"");
-                        break;
-                    }
-                    syntax.append(mMisMatches[i].getValue());
-                    if (mMisMatches.length > i + 1) {
-                        syntax.append(" ");
-                    }
+    /**
+     * Writes the syntax node with all its data.
+     */
+    void writeXml(XmlWriter xml) throws IOException {
+        writeSyntaxStart(xml);
+        writeSpecificAttributes(xml);
+        xml.attribute("card", getCardinality());
+        if (mMisMatches != null && mMisMatches.length > 0) {
+            StringBuilder misMatches = new StringBuilder();
+            for (int i = 0; mMisMatches.length > i; i++) {
+                if (mMisMatches[i] == null) {
+                    LOG.error("ERROR: INVALID CONTENT: See 'Match' column of Semantic ID '" + this.getSemanticNode().getId() + "'!\n");
+                    misMatches.append("ERROR!");
+                    break;
+                }
+                misMatches.append(mMisMatches[i].getValue());
+                if (mMisMatches.length > i + 1) {
+                    misMatches.append(" ");
                 }
-                syntax.append("\"");
             }
-            if (mRules != null && !mRules.isEmpty()) {
-                syntax.append(">");
-                syntax.append(mRules);
-                if (mIsXml) {
-                    syntax.append("</xml>");
-                } else {
-                    syntax.append("</edifact>");
+            xml.attribute("mismatches", misMatches.toString());
+        }
+        if (mRules != null && !mRules.isEmpty()) {
+            xml.text(mRules);
+        }
+        xml.endElement();
+    }
+
+    /**
+     * Writes the syntax node with the data shared by normative and informative
+     * tables.
+     */
+    void writeSubXml(XmlWriter xml) throws IOException {
+        writeSyntaxStart(xml);
+        xml.attribute("card", getCardinality());
+        xml.endElement();
+    }
+
+    /**
+     * Writes the syntax node with all its data as JSON object, the mismatches
+     * as array of their codes.
+     */
+    void writeJson(JsonWriter json) throws IOException {
+        json.startObject(Boolean.FALSE);
+        json.member("syntax", mIsXml ? "xml" : "edifact");
+        // the path is written even if missing, as in XML
+        json.member("path", String.valueOf(mPath));
+        writeSpecificMembers(json);
+        json.member("card", getCardinality());
+        if (mMisMatches != null && mMisMatches.length > 0) {
+            json.name("mismatches");
+            json.startArray(Boolean.FALSE);
+            for (MisMatch misMatch : mMisMatches) {
+                if (misMatch == null) {
+                    LOG.error("ERROR: INVALID CONTENT: See 'Match' column of Semantic ID '" + this.getSemanticNode().getId() + "'!\n");
+                    json.value("ERROR!");
+                    break;
                 }
-            } else {
-                syntax.append("/>");
+                json.value(misMatch.getValue());
             }
-        } catch (Throwable e) {
-            LoggerFactory.getLogger(NodeXml.class.getName()).error("ERROR: " + e.getMessage(), e);
+            json.endArray();
         }
-        return syntax.toString();
+        if (mRules != null && !mRules.isEmpty()) {
+            json.member("rules", mRules);
+        }
+        json.endObject();
     }
 
-    public String toSubString() {
-        StringBuilder syntax = new StringBuilder();
-        try {
-            if (mIsXml) {
-                syntax.append("\t\t<xml path=\"" + mPath + "\"");
-            } else {
-                syntax.append("\t\t<edifact path=\"" + mPath + "\"");
+    /**
+     * Writes the syntax node into an entry of the extraction cache.
+     */
+    void writeCache(DataOutputStream out) throws IOException {
+        if (this instanceof NodeUblXml) {
+            out.writeByte(CACHE_UBL_XML);
+        } else if (mIsXml) {
+            out.writeByte(CACHE_XML);
+        } else {
+            out.writeByte(CACHE_EDIFACT);
+        }
+        ExtractionCache.writeString(out, getPath());
+        writeSpecificCache(out);
+        if (mMisMatches == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(mMisMatches.length);
+            for (MisMatch misMatch : mMisMatches) {
+                ExtractionCache.writeString(out, misMatch == null ? null : misMatch.getValue());
             }
+        }
+        ExtractionCache.writeString(out, mRules);
+    }
 
-            if (getCardinality() != null) {
-                syntax.append(" card=\"" + getCardinality() + "\"");
+    /**
+     * Reads a syntax node written by {@link #writeCache(DataOutputStream)} and
+     * adds it to its semantic node.
+     */
+    static NodeSyntax readCache(DataInputStream in, NodeSemantic semanticParent) throws IOException {
+        byte kind = in.readByte();
+        String path = ExtractionCache.readString(in);
+        NodeSyntax x;
+        if (kind == CACHE_UBL_XML) {
+            x = new NodeUblXml(path, semanticParent);
+        } else if (kind == CACHE_XML) {
+            x = new NodeXml(path, semanticParent);
+        } else if (kind == CACHE_EDIFACT) {
+            x = new NodeEdifact(path, semanticParent);
+        } else {
+            throw new IOException("Unknown syntax node kind " + kind);
+        }
+        x.readSpecificCache(in);
+        int misMatchCount = in.readInt();
+        if (misMatchCount >= 0) {
+            x.mMisMatches = new MisMatch[misMatchCount];
+            for (int i = 0; i < misMatchCount; i++) {
+                x.mMisMatches[i] = MisMatch.createMisMatch(ExtractionCache.readString(in), semanticParent.getId(), null);
             }
-            syntax.append("/>");
+        }
+        x.mRules = ExtractionCache.readString(in);
+        return x;
+    }
 
-        } catch (Throwable e) {
-            LoggerFactory.getLogger(NodeXml.class.getName()).error("ERROR: " + e.getMessage(), e);
+    private void writeSyntaxStart(XmlWriter xml) throws IOException {
+        xml.whitespace("\t\t");
+        if (mIsXml) {
+            xml.startElement("xml");
+        } else {
+            xml.startElement("edifact");
         }
-        return syntax.toString();
+        // the path is written even if missing, as before
+        xml.attribute("path", String.valueOf(mPath));
     }
 }
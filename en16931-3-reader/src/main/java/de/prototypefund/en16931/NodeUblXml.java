@@ -16,7 +16,6 @@
  */
 package de.prototypefund.en16931;
 
-import static de.prototypefund.en16931.NodeSemantic.LEADING_TRAILING_WHITESPACES;
 import de.prototypefund.en16931.type.Type;
 import de.prototypefund.en16931.type.UblDataType;
 
@@ -34,6 +33,10 @@ public class NodeUblXml extends NodeXml {
     }
 
     public void setType(String type) {
-        mType = UblDataType.getByValue(type.replaceAll(LEADING_TRAILING_WHITESPACES, ""), this.getSemanticNode().getId());
+        mType = UblDataType.getByValue(Whitespace.trim(type), this.getSemanticNode().getId(), getStatistic());
+    }
+
+    protected Type getTypeByValue(String type) {
+        return UblDataType.getByValue(type, this.getSemanticNode().getId(), null);
     }
 }
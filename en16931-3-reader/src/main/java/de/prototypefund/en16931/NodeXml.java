@@ -16,10 +16,14 @@
  */
 package de.prototypefund.en16931;
 
-import static de.prototypefund.en16931.NodeSemantic.LEADING_TRAILING_WHITESPACES;
+import de.prototypefund.en16931.type.CardinalitySemantic;
 import de.prototypefund.en16931.type.CardinalityXml;
+import de.prototypefund.en16931.type.MisMatchCardinality;
 import de.prototypefund.en16931.type.SyntaxType;
 import de.prototypefund.en16931.type.Type;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 /**
  * Represents an XML syntax node
@@ -38,7 +42,7 @@ public class NodeXml extends NodeSyntax {
     }
 
     public void setType(String type) {
-        mType = SyntaxType.getByValue(type.replaceAll(LEADING_TRAILING_WHITESPACES, ""), this.getSemanticNode().getId());
+        mType = SyntaxType.getByValue(Whitespace.trim(type), this.getSemanticNode().getId(), getStatistic());
     }
 
     public String getCardinality() {
@@ -49,18 +53,51 @@ public class NodeXml extends NodeSyntax {
         return c;
     }
 
+    int getExpectedCardinalityMisMatches(CardinalitySemantic semantic) {
+        int mask = 0;
+        if (mCardinality != null) {
+            mask = MisMatchCardinality.getExpectedMask(semantic, mCardinality);
+        }
+        return mask;
+    }
+
     public CardinalityXml getCardinalityXml() {
         return mCardinality;
     }
 
     public void setCardinalityXml(String cardinality) {
-        mCardinality = CardinalityXml.getByValue(cardinality.replaceAll(LEADING_TRAILING_WHITESPACES, ""), this.getSemanticNode().getId());
+        mCardinality = CardinalityXml.getByValue(Whitespace.trim(cardinality), this.getSemanticNode().getId(), getStatistic());
     }
 
-    protected StringBuilder addSpecificString(StringBuilder syntax) {
-        if (getType() != null) {
-            syntax.append(" type=\"" + getType() + "\"");
+    protected void writeSpecificAttributes(XmlWriter xml) throws IOException {
+        xml.attribute("type", getType());
+    }
+
+    protected void writeSpecificMembers(JsonWriter json) throws IOException {
+        json.member("type", getType());
+    }
+
+    protected void writeSpecificCache(DataOutputStream out) throws IOException {
+        ExtractionCache.writeString(out, mType == null ? null : mType.getValue());
+        ExtractionCache.writeString(out, getCardinality());
+    }
+
+    protected void readSpecificCache(DataInputStream in) throws IOException {
+        String type = ExtractionCache.readString(in);
+        if (type != null) {
+            mType = getTypeByValue(type);
         }
-        return syntax;
+        String cardinality = ExtractionCache.readString(in);
+        if (cardinality != null) {
+            mCardinality = CardinalityXml.getByValue(cardinality, this.getSemanticNode().getId(), null);
+        }
+    }
+
+    /**
+     * @return the type of the given value without counting it in the
+     * statistic
+     */
+    protected Type getTypeByValue(String type) {
+        return SyntaxType.getByValue(type, this.getSemanticNode().getId(), null);
     }
 }
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Alternative to loading the specification into ODFDOM: The content.xml is
+ * streamed directly from the ODT package via StAX and only the top level
+ * headings, paragraphs and tables are being read. The table rows are handed
+ * over one by one to the <code>OdtTableExtraction</code>, so the memory
+ * consumption no longer depends on the size of the specification document.
+ */
+final class OdtContentStreamReader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OdtContentStreamReader.class);
+    private static final String CONTENT_XML = "content.xml";
+    private static final String NS_OFFICE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+    private static final String NS_TEXT = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+    private static final String NS_TABLE = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+    private final OdtTableExtraction mExtraction;
+    private final DocumentContext mDocument;
+
+    /**
+     * @param extraction receives the table data
+     * @param document the context of the specification document
+     */
+    OdtContentStreamReader(OdtTableExtraction extraction, DocumentContext document) {
+        mExtraction = extraction;
+        mDocument = document;
+    }
+
+    /**
+     * @param odtFile <code>File</code> representing the EN16931 specification
+     */
+    void read(File odtFile) throws IOException, XMLStreamException {
+        try (ZipFile zip = new ZipFile(odtFile)) {
+            ZipEntry content = zip.getEntry(CONTENT_XML);
+            if (content == null) {
+                throw new FileNotFoundException("There is no '" + CONTENT_XML + "' within " + odtFile.getAbsolutePath());
+            }
+            try (InputStream in = new BufferedInputStream(zip.getInputStream(content))) {
+                XMLStreamReader reader = createInputFactory().createXMLStreamReader(in);
+                try {
+                    while (reader.hasNext()) {
+                        if (reader.next() == XMLStreamConstants.START_ELEMENT
+                                && isElement(reader, NS_OFFICE, "text")) {
+                            readTextBody(reader);
+                            break;
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * Traverses the top level children of the office:text element, similar to
+     * the ODFDOM traversal of <code>OdtTableExtraction</code>.
+     */
+    private void readTextBody(XMLStreamReader reader) throws XMLStreamException {
+        String tableTitle = null;
+        Boolean hasPrecedingHeading = Boolean.FALSE;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                // NOTE: Get all Table, where a heading is in front of the table is the title of the table!
+                if (isElement(reader, NS_TEXT, "h")) {
+                    tableTitle = readText(reader);
+                    hasPrecedingHeading = Boolean.TRUE;
+
+                    // German version uses paragraphs instead of headings for informal tables
+                } else if (isElement(reader, NS_TEXT, "p")) {
+                    tableTitle = readText(reader);
+
+                } else if (isElement(reader, NS_TABLE, "table")) {
+                    if (hasPrecedingHeading || tableTitle != null && tableTitle.contains("Mapping")) {
+                        readTable(reader, tableTitle);
+                    } else {
+                        skipElement(reader);
+                    }
+                    hasPrecedingHeading = Boolean.FALSE;
+                    tableTitle = null;
+
+                    // there shall be no other element between the preceding heading/paragraph (title) and the table
+                } else {
+                    skipElement(reader);
+                    hasPrecedingHeading = Boolean.FALSE;
+                    tableTitle = null;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                // end of office:text
+                break;
+            }
+        }
+    }
+
+    /**
+     * Reads the table row by row. The table columns precede the rows in ODF,
+     * therefore the column count is known, when the first row is being read.
+     * The reader is positioned at the start of the table:table and afterwards
+     * at its end.
+     */
+    private void readTable(XMLStreamReader reader, String title) throws XMLStreamException {
+        LOG.debug("Table Heading: '{}'\n", title);
+        TableContext table = new TableContext(mDocument, title);
+        int columnCount = 0;
+        int headerRowCount = 0;
+        boolean isWithinHeaderRows = false;
+        // the first row is the header row, which is not part of the data
+        List<String> headerRow = null;
+        // null as long it was not decided if the table is a data table
+        Boolean isDataTable = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (NS_TABLE.equals(reader.getNamespaceURI())) {
+                    String name = reader.getLocalName();
+                    if (name.equals("table-column")) {
+                        columnCount += getRepetition(reader, "number-columns-repeated");
+                        skipElement(reader);
+                    } else if (name.equals("table-header-rows")) {
+                        isWithinHeaderRows = true;
+                    } else if (name.equals("table-row")) {
+                        int repetition = getRepetition(reader, "number-rows-repeated");
+                        if (isWithinHeaderRows) {
+                            headerRowCount += repetition;
+                        } else if (isDataTable == null) {
+                            isDataTable = startTable(table, columnCount, headerRowCount, headerRow);
+                        }
+                        List<String> cellContents = readRow(reader);
+                        if (headerRow == null) {
+                            headerRow = cellContents;
+                            repetition--;
+                        }
+                        if (Boolean.TRUE.equals(isDataTable)) {
+                            for (int r = 0; r < repetition; r++) {
+                                mExtraction.addRow(table, cellContents);
+                            }
+                        }
+                    } else if (!(name.equals("table-columns") || name.equals("table-header-columns")
+                            || name.equals("table-column-group") || name.equals("table-rows")
+                            || name.equals("table-row-group"))) {
+                        // e.g. table:title or table:desc
+                        skipElement(reader);
+                    }
+                } else {
+                    skipElement(reader);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (isElement(reader, NS_TABLE, "table-header-rows")) {
+                    isWithinHeaderRows = false;
+                } else if (isElement(reader, NS_TABLE, "table")) {
+                    break;
+                }
+            }
+        }
+        if (isDataTable == null) {
+            isDataTable = startTable(table, columnCount, headerRowCount, headerRow);
+        }
+        if (isDataTable) {
+            mExtraction.endTable(table);
+        }
+    }
+
+    private Boolean startTable(TableContext table, int columnCount, int headerRowCount, List<String> headerRow) {
+        return mExtraction.isDataTable(table, columnCount, headerRowCount)
+                && headerRow != null && !headerRow.isEmpty()
+                && mExtraction.startTable(table, headerRow.get(0));
+    }
+
+    /**
+     * @return the content of all cells (including covered cells) of the row,
+     * the reader is afterwards positioned at the end of the table:table-row
+     */
+    private List<String> readRow(XMLStreamReader reader) throws XMLStreamException {
+        List<String> cellContents = new ArrayList<>();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (isElement(reader, NS_TABLE, "table-cell") || isElement(reader, NS_TABLE, "covered-table-cell")) {
+                    int repetition = getRepetition(reader, "number-columns-repeated");
+                    String cellContent = readCell(reader);
+                    for (int c = 0; c < repetition; c++) {
+                        cellContents.add(cellContent);
+                    }
+                } else {
+                    skipElement(reader);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        return cellContents;
+    }
+
+    /**
+     * @return the text of all paragraphs and headings being children of the
+     * cell without leading and trailing whitespace
+     */
+    private String readCell(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (isElement(reader, NS_TEXT, "p") || isElement(reader, NS_TEXT, "h")) {
+                    appendText(reader, sb);
+                } else {
+                    skipElement(reader);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+        return Whitespace.trim(sb.toString());
+    }
+
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder();
+        appendText(reader, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the text of a paragraph, heading or span similar to the ODFDOM
+     * <code>getTextContent()</code>: Text of spans and links are added,
+     * text:s, text:tab and text:line-break are being resolved, all other
+     * descendants are ignored. The reader is afterwards positioned at the end
+     * of the element.
+     */
+    private static void appendText(XMLStreamReader reader, StringBuilder sb) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+                sb.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                if (NS_TEXT.equals(reader.getNamespaceURI())) {
+                    String name = reader.getLocalName();
+                    if (name.equals("span") || name.equals("a")) {
+                        appendText(reader, sb);
+                    } else if (name.equals("s")) {
+                        int spaces = getRepetition(reader, NS_TEXT, "c");
+                        for (int i = 0; i < spaces; i++) {
+                            sb.append(' ');
+                        }
+                        skipElement(reader);
+                    } else if (name.equals("tab")) {
+                        sb.append('\t');
+                        skipElement(reader);
+                    } else if (name.equals("line-break")) {
+                        sb.append(LINE_SEPARATOR);
+                        skipElement(reader);
+                    } else {
+                        skipElement(reader);
+                    }
+                } else {
+                    skipElement(reader);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Skips the element, the reader is positioned at its start and afterwards
+     * at its end.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static int getRepetition(XMLStreamReader reader, String tableAttributeName) {
+        return getRepetition(reader, NS_TABLE, tableAttributeName);
+    }
+
+    private static int getRepetition(XMLStreamReader reader, String namespace, String attributeName) {
+        int repetition = 1;
+        String value = reader.getAttributeValue(namespace, attributeName);
+        if (value != null) {
+            try {
+                repetition = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOG.error("ERROR: Invalid repetition '" + value + "' of attribute '" + attributeName + "'!");
+            }
+        }
+        return repetition;
+    }
+
+    private static boolean isElement(XMLStreamReader reader, String namespace, String localName) {
+        return localName.equals(reader.getLocalName()) && namespace.equals(reader.getNamespaceURI());
+    }
+}
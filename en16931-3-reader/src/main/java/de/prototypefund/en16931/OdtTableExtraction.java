@@ -16,13 +16,13 @@
  *********************************************************************** */
 package de.prototypefund.en16931;
 
-import static de.prototypefund.en16931.NodeSemantic.LEADING_TRAILING_WHITESPACES;
 import de.prototypefund.en16931.NodeSemantic.SemanticHeading;
 import de.prototypefund.en16931.NodeSyntax.SyntaxHeading;
 import static de.prototypefund.en16931.NodeSyntax.SyntaxHeading.CARD;
 import static de.prototypefund.en16931.NodeSyntax.SyntaxHeading.MATCH;
 import static de.prototypefund.en16931.NodeSyntax.SyntaxHeading.NAME;
 import static de.prototypefund.en16931.NodeSyntax.SyntaxHeading.RULES;
+import de.prototypefund.en16931.type.SemanticIdKey;
 import de.prototypefund.en16931.type.TypeStatistic;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -31,13 +31,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import org.odftoolkit.odfdom.doc.OdfTextDocument;
-import org.odftoolkit.odfdom.doc.table.OdfTable;
-import org.odftoolkit.odfdom.doc.table.OdfTableCell;
-import org.odftoolkit.odfdom.doc.table.OdfTableRow;
 import org.odftoolkit.odfdom.dom.element.office.OfficeTextElement;
 import org.odftoolkit.odfdom.dom.element.table.TableTableCellElementBase;
 import org.odftoolkit.odfdom.dom.element.table.TableTableElement;
@@ -57,27 +63,189 @@ public class OdtTableExtraction {
     static {
         LOG = LoggerFactory.getLogger(OdtTableExtraction.class);
     }
-    OdfTextDocument odtDoc;
-    OdfTable odtTable;
     SemanticHeading[] SEMANTIC_TABLE_HEADINGS = NodeSemantic.SemanticHeading.values();
     SyntaxHeading[] SYNTAX_TABLE_HEADINGS = NodeSyntax.SyntaxHeading.values();
-    private String mTableId = null;
+    // if true the content.xml is being streamed via StAX instead of loading the ODFDOM
+    private boolean mIsStreaming = false;
+    // the number of documents being extracted at once
+    private int mParallelism = 1;
+    // if true the complete binding of each table is saved as JSON as well
+    private boolean mIsBindingJson = false;
+    // the data model of already extracted documents, null if disabled
+    private ExtractionCache mCache = null;
+    // the directory of the output files, null to save them next to each document
+    private File mOutputDirectory = null;
+    // if true each informative table is compared with its preceding normative table
+    private boolean mIsComparingTables = false;
+    // the findings of all validated tables
+    private final ValidationReport mValidationReport = new ValidationReport();
+    // the findings and metrics of the latest extraction of each document by its absolute path, replaced by a later extraction
+    private final Map<String, ValidationReport> mDocumentReports = new ConcurrentHashMap<>();
+    private final Map<String, ExtractionMetrics> mDocumentMetrics = new ConcurrentHashMap<>();
+    private final Map<String, TypeStatistic> mDocumentStatistics = new ConcurrentHashMap<>();
+    // the findings of the latest syntax consistency check
+    private ValidationReport mSyntaxConsistencyReport = null;
+    // if true the findings of each table are printed to the console, otherwise only collected for a sink asking for them
+    private boolean mIsPrintingValidation = false;
+    // if true the data model of each document is kept by the binding index after its outputs were written
+    private boolean mIsIndexing = false;
+    // the semantic and syntax nodes of all documents extracted by this instance, if indexing
+    private final BindingIndex mBindingIndex = new BindingIndex();
+    // the metrics of all documents extracted by this instance
+    private final ExtractionMetrics mMetrics = new ExtractionMetrics(null, null, null);
+    // the type statistic of all documents extracted by this instance
+    private final TypeStatistic mStatistic = new TypeStatistic();
     // XML tables
     private static final int NORMATIVE_TABLE_SIZE = 11;
     private static final int INFORMATIVE_TABLE_SIZE = 8;
     // EDIFACT tables
     private static final int NORMATIVE_EDIFACT_TABLE_SIZE = 10;
     private static final int INFORMATIVE_EDIFACT_TABLE_SIZE = 9;
-    private static final String ODT_SUFFIX = ".odt";
+    static final String ODT_SUFFIX = ".odt";
     private static final String WORKING_DIRECTORY = "user.dir";
-    private static Boolean mIsXML;
-    private static Boolean mIsUBL;
-    // used by NodeSemantics to collect info on Semantic ID problem using different hyphens
-    static List<String> mMultiHyphenDiff = null;
-    static List<String> mMultiHyphenSame = null;
-    // following variables used for dynamic directory naming of output syntax-binding dirs
-    static int mSyntaxBindingCounter = 0;
-    static String mSyntaxBindingLastFileName = "";
+
+    /**
+     * @param isStreaming if true the specification is not loaded into ODFDOM,
+     * instead its content.xml is being streamed from the ZIP via StAX, so the
+     * memory consumption does not depend on the size of the document.
+     */
+    public void setStreaming(boolean isStreaming) {
+        mIsStreaming = isStreaming;
+    }
+
+    public boolean isStreaming() {
+        return mIsStreaming;
+    }
+
+    /**
+     * @param parallelism the maximum number of documents being extracted at
+     * once, if a directory is given. All state of an extraction is kept within
+     * the context of its document and its tables, therefore the documents can
+     * be extracted in parallel. By default a single document is extracted at
+     * once.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            parallelism = 1;
+        }
+        mParallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return mParallelism;
+    }
+
+    /**
+     * @param isBindingJson if true all semantic and syntax data of each table
+     * is saved as JSON file next to its XML file, in addition to the JSON file
+     * of only the semantic data.
+     */
+    public void setBindingJson(boolean isBindingJson) {
+        mIsBindingJson = isBindingJson;
+    }
+
+    public boolean isBindingJson() {
+        return mIsBindingJson;
+    }
+
+    /**
+     * @param cacheDirectory the directory of a persistent cache of the
+     * extracted data model or null (the default) to disable the cache. The
+     * cache is keyed by the content of a document and the version of the
+     * extractor, if a document was extracted before only its output files are
+     * being written, without parsing the document again.
+     */
+    public void setCacheDirectory(File cacheDirectory) {
+        mCache = cacheDirectory == null ? null : new ExtractionCache(cacheDirectory);
+    }
+
+    public File getCacheDirectory() {
+        return mCache == null ? null : mCache.getDirectory();
+    }
+
+    /**
+     * @param outputDirectory the directory the output files of all documents
+     * are saved to or null (the default) to save them next to each document
+     */
+    public void setOutputDirectory(File outputDirectory) {
+        mOutputDirectory = outputDirectory;
+    }
+
+    public File getOutputDirectory() {
+        return mOutputDirectory;
+    }
+
+    /**
+     * @return the findings of the validation of all tables extracted by this
+     * instance so far. Tables restored from the cache are not validated again.
+     * A document being extracted again replaces its former findings.
+     */
+    public ValidationReport getValidationReport() {
+        return mValidationReport;
+    }
+
+    /**
+     * @param isComparingTables if true each informative table of a parsed
+     * document is compared with the subset of its preceding normative table,
+     * the differences are added as findings to the validation report
+     */
+    public void setComparingTables(boolean isComparingTables) {
+        mIsComparingTables = isComparingTables;
+    }
+
+    public boolean isComparingTables() {
+        return mIsComparingTables;
+    }
+
+    /**
+     * @param isPrintingValidation if true the findings of each table are
+     * printed as text to the console. By default they are only collected by
+     * {@link #getValidationReport()}.
+     */
+    public void setPrintingValidation(boolean isPrintingValidation) {
+        mIsPrintingValidation = isPrintingValidation;
+    }
+
+    public boolean isPrintingValidation() {
+        return mIsPrintingValidation;
+    }
+
+    /**
+     * @param isIndexing if true the data model of every extracted document is
+     * kept by the binding index, required by {@link #getBindingIndex()} and
+     * {@link #checkSyntaxConsistency()}. By default the model of a document is
+     * dropped after its output files were written.
+     */
+    public void setIndexing(boolean isIndexing) {
+        mIsIndexing = isIndexing;
+    }
+
+    public boolean isIndexing() {
+        return mIsIndexing;
+    }
+
+    /**
+     * @return the index of the semantic and syntax nodes of all documents
+     * extracted by this instance so far, empty unless indexing
+     */
+    public BindingIndex getBindingIndex() {
+        return mBindingIndex;
+    }
+
+    /**
+     * @return the metrics of all documents extracted by this instance so far
+     */
+    public ExtractionMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * @return the type statistic of all documents extracted by this instance
+     * so far
+     */
+    public TypeStatistic getStatistic() {
+        return mStatistic;
+    }
 
     /**
      * @param odtFileName the file name of the specification or a directory
@@ -85,6 +253,31 @@ public class OdtTableExtraction {
      * @throws java.lang.Exception
      */
     public void collectSpecData(String odtFileName) throws Exception {
+        long startTime = System.nanoTime();
+        try {
+            collectSpecDataFromPath(odtFileName);
+        } finally {
+            mMetrics.add(ExtractionMetrics.Metric.WALL_TIME, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Extracts a single specification document, e.g. after it was changed.
+     * Only the output files of the document are being written.
+     *
+     * @param odtFile the specification document
+     * @throws java.lang.Exception
+     */
+    public void extractDocument(File odtFile) throws Exception {
+        long startTime = System.nanoTime();
+        try {
+            extractData(odtFile.getAbsoluteFile());
+        } finally {
+            mMetrics.add(ExtractionMetrics.Metric.WALL_TIME, System.nanoTime() - startTime);
+        }
+    }
+
+    private void collectSpecDataFromPath(String odtFileName) throws Exception {
         String absPath = null;
         try {
             absPath = FileHelper.getAbsolutePath(odtFileName);
@@ -98,8 +291,14 @@ public class OdtTableExtraction {
             }
             absPath += odtFileName;
         }
-        collectSpecData(new File(absPath));
-        //TypeStatistic.allDocuments();
+        if (mParallelism > 1) {
+            List<File> odtFiles = new ArrayList<>();
+            collectSpecFiles(new File(absPath), odtFiles);
+            extractDataInParallel(odtFiles);
+        } else {
+            collectSpecData(new File(absPath));
+        }
+        //mStatistic.allDocuments();
     }
 
     /**
@@ -109,17 +308,72 @@ public class OdtTableExtraction {
     private void collectSpecData(File f) throws Exception {
         String absPath = f.getAbsolutePath();
         if (f.isDirectory()) {
-            LOG.debug("Extracting data from directory: " + absPath + "\n");
+            LOG.debug("Extracting data from directory: {}\n", absPath);
             for (String childPath : f.list()) {
                 collectSpecData(new File(absPath + File.separator + childPath));
             }
         } else {
             if (absPath.endsWith(ODT_SUFFIX)) {
-                LOG.debug("Extracting data from file: " + absPath + "\n");
+                LOG.debug("Extracting data from file: {}\n", absPath);
                 extractData(f);
             } else {
-                LOG.debug("As without file suffix '.odt' ignoring: " + absPath + "\n");
+                LOG.debug("As without file suffix '.odt' ignoring: {}\n", absPath);
+            }
+        }
+    }
+
+    /**
+     * If file is a directory searches within children and adds all found
+     * documents that have an '.odt' suffix to the given list.
+     */
+    private void collectSpecFiles(File f, List<File> odtFiles) {
+        String absPath = f.getAbsolutePath();
+        if (f.isDirectory()) {
+            for (String childPath : f.list()) {
+                collectSpecFiles(new File(absPath + File.separator + childPath), odtFiles);
+            }
+        } else if (absPath.endsWith(ODT_SUFFIX)) {
+            odtFiles.add(f);
+        } else {
+            LOG.debug("As without file suffix '.odt' ignoring: {}\n", absPath);
+        }
+    }
+
+    /**
+     * Extracts the given documents on a bounded thread pool and waits until
+     * all documents had been extracted. The first failure of any document is
+     * being thrown after all documents were processed.
+     */
+    private void extractDataInParallel(List<File> odtFiles) throws Exception {
+        if (odtFiles.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(mParallelism, odtFiles.size()));
+        try {
+            List<Future<File>> results = new ArrayList<>(odtFiles.size());
+            for (File odtFile : odtFiles) {
+                LOG.debug("Extracting data from file: {}\n", odtFile.getAbsoluteFile());
+                results.add(executor.submit(() -> {
+                    extractData(odtFile);
+                    return odtFile;
+                }));
+            }
+            Exception firstFailure = null;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    LOG.error("ERROR: Extraction of '" + odtFiles.get(i).getAbsolutePath() + "' failed!", e.getCause());
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
             }
+            if (firstFailure != null) {
+                throw firstFailure;
+            }
+        } finally {
+            executor.shutdownNow();
         }
     }
 
@@ -127,13 +381,98 @@ public class OdtTableExtraction {
      * @param odtFile <code>File</code> representing the EN16931 specification
      */
     private void extractData(File odtFile) throws Exception {
-        odtDoc = OdfTextDocument.loadDocument(odtFile);
         String absPath = odtFile.getAbsolutePath();
         String odtFileName = absPath.substring(absPath.lastIndexOf(File.separatorChar) + 1);
-        String odtFilePath = absPath.substring(0, absPath.lastIndexOf(File.separatorChar) + 1);
+        String outputPath = mOutputDirectory == null ? absPath.substring(0, absPath.lastIndexOf(File.separatorChar) + 1)
+                : mOutputDirectory.getAbsolutePath() + File.separatorChar;
         LOG.info("****************************************************************\n"
                 + "********* Specification document: '" + odtFileName + "'\n"
                 + "*********\n\n");
+        String documentKey = odtFile.toPath().toAbsolutePath().normalize().toString();
+        DocumentContext document = new DocumentContext(odtFileName, outputPath, documentKey);
+        ExtractionEvents.DocumentLoad event = new ExtractionEvents.DocumentLoad();
+        event.begin();
+        try {
+            event.cached = extractData(odtFile, document);
+            if (event.cached) {
+                document.getMetrics().add(ExtractionMetrics.Metric.CACHED_DOCUMENTS, 1);
+            }
+            if (mIsIndexing) {
+                mBindingIndex.addDocument(document);
+            }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.document = odtFileName;
+                event.streaming = mIsStreaming;
+                event.tables = document.getTables().size();
+                event.commit();
+            }
+            ExtractionMetrics metrics = document.getMetrics();
+            metrics.stop();
+            metrics.add(ExtractionMetrics.Metric.DOCUMENTS, 1);
+            // a document extracted again, e.g. by the watcher, replaces its former findings and metrics
+            ValidationReport formerReport = mDocumentReports.put(documentKey, document.getValidationReport());
+            if (formerReport != null) {
+                mValidationReport.removeAll(formerReport);
+            }
+            ExtractionMetrics formerMetrics = mDocumentMetrics.put(documentKey, metrics);
+            // documents might be extracted by different threads, the allocations of all documents are summed up
+            mMetrics.add(ExtractionMetrics.Metric.ALLOCATED_BYTES, metrics.get(ExtractionMetrics.Metric.ALLOCATED_BYTES)
+                    - (formerMetrics == null ? 0 : formerMetrics.get(ExtractionMetrics.Metric.ALLOCATED_BYTES)));
+            mMetrics.replaceChild(formerMetrics, metrics);
+            TypeStatistic formerStatistic = mDocumentStatistics.put(documentKey, document.getStatistic());
+            if (formerStatistic != null) {
+                mStatistic.remove(formerStatistic);
+            }
+            mStatistic.add(document.getStatistic());
+        }
+        LOG.info("\n*********"
+                + "********* Specification document: '" + odtFileName + "'\n"
+                + "****************************************************************\n\n");
+    }
+
+    /**
+     * Restores the tables of the document from the cache or parses them.
+     *
+     * @return true if the tables were restored from the cache
+     */
+    private boolean extractData(File odtFile, DocumentContext document) throws Exception {
+        String cacheKey = null;
+        if (mCache != null) {
+            cacheKey = mCache.getKey(odtFile);
+            if (mCache.load(cacheKey, document)) {
+                LOG.info("Found extracted data model in cache, only validating it and saving the output files!\n");
+                // the restored tables are validated like parsed ones, so a hit reports the same findings
+                for (TableContext table : document.getTables()) {
+                    validateTable(table);
+                    writeOutputs(table);
+                }
+                if (mIsComparingTables) {
+                    compareTables(document);
+                }
+                return Boolean.TRUE;
+            }
+        }
+        if (mIsStreaming) {
+            new OdtContentStreamReader(this, document).read(odtFile);
+        } else {
+            extractDataFromDom(odtFile, document);
+        }
+        if (mIsComparingTables) {
+            compareTables(document);
+        }
+        if (mCache != null) {
+            mCache.save(cacheKey, document);
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Loads the specification as ODFDOM and traverses its top level elements.
+     */
+    private void extractDataFromDom(File odtFile, DocumentContext document) throws Exception {
+        OdfTextDocument odtDoc = OdfTextDocument.loadDocument(odtFile);
         // traverse top level user objects
         OfficeTextElement root = odtDoc.getContentRoot();
         NodeList topChildren = root.getChildNodes();
@@ -160,7 +499,7 @@ public class OdtTableExtraction {
 
             } else if (child instanceof TableTableElement) {
                 if (hasPrecedingHeading || tableTitle != null && tableTitle.contains("Mapping")) {
-                    extractDataFromTable(((TableTableElement) child), odtFileName, odtFilePath, tableTitle);
+                    extractDataFromTable(((TableTableElement) child), new TableContext(document, tableTitle));
                 }
                 hasPrecedingHeading = Boolean.FALSE;
                 tableTitle = null;
@@ -171,15 +510,10 @@ public class OdtTableExtraction {
                 tableTitle = null;
             }
         }
-        LOG.info("\n*********"
-                + "********* Specification document: '" + odtFileName + "'\n"
-                + "****************************************************************\n\n");
     }
 
-    private void extractDataFromTable(TableTableElement tableElement, String fileName, String outputPath, String title) {
-        LOG.debug("Table Heading: '" + title + "'\n");
-        mTableId = title;
-        OdfTable table = OdfTable.getInstance(tableElement);
+    private void extractDataFromTable(TableTableElement tableElement, TableContext tableContext) {
+        LOG.debug("Table Heading: '{}'\n", tableContext.getTitle());
 
         //*********
         // HEADER ROW
@@ -190,190 +524,411 @@ public class OdtTableExtraction {
                     <text:p text:style-name="P328">BT-1</text:p>
                 </table:table-cell>
          */
-        int columnCount = table.getColumnCount();
-        LOG.debug("ColumnCount is '" + columnCount + "'!\n");
+        int columnCount = TableCursor.getColumnCount(tableElement);
+        if (isDataTable(tableContext, columnCount, TableCursor.getHeaderRowCount(tableElement))) {
+            // rows and cells are visited sequentially, as index based access of OdfTable is not linear to the table size
+            TableCursor cursor = new TableCursor(tableElement);
+            if (cursor.nextRow() && cursor.nextCell() && startTable(tableContext, getCellContent(cursor.getCell()))) {
+                //*********
+                // CONTENT ROWS
+                //*********
+                while (cursor.nextRow()) {
+                    List<String> cellContents = new ArrayList<>(columnCount);
+                    while (cursor.nextCell()) {
+                        cellContents.add(getCellContent(cursor.getCell()));
+                    }
+                    addRow(tableContext, cellContents);
+                }
+                endTable(tableContext);
+            }
+        }
+    }
 
-        if (table.getHeaderRowCount() != 1) {
-            LOG.debug("Ignoring '" + title + "' as no header row was found!\n");
+    /**
+     * First check of a table, before any row is being read: Only tables with a
+     * single header row and the column count of a syntax binding table are
+     * taken into account.
+     *
+     * @param table the context of the table
+     * @param columnCount the number of columns of the table
+     * @param headerRowCount the number of header rows of the table
+     * @return true if the table has the layout of a syntax binding table
+     */
+    boolean isDataTable(TableContext table, int columnCount, int headerRowCount) {
+        String title = table.getTitle();
+        table.setColumnCount(columnCount);
+        LOG.debug("ColumnCount is '{}'!\n", columnCount);
+        boolean isDataTable = Boolean.FALSE;
+        if (headerRowCount != 1) {
+            LOG.debug("Ignoring '{}' as no header row was found!\n", title);
 
         } else if (columnCount == NORMATIVE_TABLE_SIZE || columnCount == INFORMATIVE_TABLE_SIZE || columnCount == NORMATIVE_EDIFACT_TABLE_SIZE || columnCount == INFORMATIVE_EDIFACT_TABLE_SIZE) {
-            mIsXML = (columnCount == NORMATIVE_TABLE_SIZE || columnCount == INFORMATIVE_TABLE_SIZE);
-            if (mIsXML) {
+            Boolean isXML = (columnCount == NORMATIVE_TABLE_SIZE || columnCount == INFORMATIVE_TABLE_SIZE);
+            Boolean isUBL;
+            if (isXML) {
                 if (title.contains("UBL")) {
-                    mIsUBL = Boolean.TRUE;
+                    isUBL = Boolean.TRUE;
                 } else {
-                    mIsUBL = Boolean.FALSE;
+                    isUBL = Boolean.FALSE;
                 }
             } else {
-                mIsUBL = Boolean.FALSE;
+                isUBL = Boolean.FALSE;
             }
-            assert table.getHeaderColumnCount() == 0;
-            OdfTableRow tr = table.getRowByIndex(0);
-            OdfTableCell tc = tr.getCellByIndex(0);
-            // final test: first cell conent of header row have to be correct!
-            if (!(((columnCount == NORMATIVE_TABLE_SIZE || columnCount == NORMATIVE_EDIFACT_TABLE_SIZE) && getCellContent(tc).equals(SEMANTIC_TABLE_HEADINGS[0].getLabel()))
-                    || ((columnCount == INFORMATIVE_TABLE_SIZE || columnCount == INFORMATIVE_EDIFACT_TABLE_SIZE) && getCellContent(tc).equals(SYNTAX_TABLE_HEADINGS[0].getLabel())))) {
-                LOG.error("ERROR: WRONG TABLE: '" + mTableId + "' + IS NOT A TABLE FOR DATA EXTRACTION!");
-            } else {
-                LOG.info("\n--------------------------------------------------------------------------------------------------------\n");
-                LOG.info("Table Heading:\n\t" + title + "\n");
-                LOG.info("--------------------------------------------------------------------------------------------------------\n\n");
-                //*********
-                // CONTENT ROWS
-                //*********
-                int rowCount = table.getRowCount();
-                NodeSemantic semanticNode = null;
-                NodeSyntax syntaxNode = null;
-                // only required for the informative cell to remember the two Syntax contents, until Semantic was created
-                String informativeTable_CellContentOne = null;
-                String informativeTable_CellContentTwo = null;
-                String informativeTable_CellContentThree = null;
-                int syntax_header_length = 2; // the default, only EDIFACT has 3 columns
-                for (int r = 1; r < rowCount; r++) {
-                    tr = table.getRowByIndex(r);
-                    LOG.debug("\n**** NEW ROW ****");
-                    int cellCount = tr.getCellCount();
-                    boolean isNewSemantic = Boolean.FALSE;
-
-                    syntaxNode = null;
-                    for (int c = 0; c < cellCount; c++) {
-                        tc = tr.getCellByIndex(c);
-                        String cellContent = getCellContent(tc);
-                        String label = null;
-                        LOG.debug("**** NEW CELL ****");
-                        LOG.debug(label + ": " + cellContent);
-
-                        // First Part of Heading - Semantics
-                        if (columnCount == NORMATIVE_TABLE_SIZE || columnCount == NORMATIVE_EDIFACT_TABLE_SIZE) {
-                            if (c < SEMANTIC_TABLE_HEADINGS.length) {
-                                // For each Row:
-                                if (c == 0) {
-                                    if (cellContent.replaceAll(LEADING_TRAILING_WHITESPACES, "").isEmpty()) {
-                                        LOG.debug("IS EMPTY!!!");
-                                    } else {
-                                        semanticNode = new NodeSemantic(cellContent, mTableId);
-                                        isNewSemantic = Boolean.TRUE;
-                                    }
-                                }
-                                if (isNewSemantic) {
-                                    label = mapSemantic(cellContent, c, semanticNode);
-                                }
-
-                                // Second Part of Row - Syntax
+            table.setSyntax(isXML, isUBL);
+            isDataTable = Boolean.TRUE;
+        }
+        return isDataTable;
+    }
+
+    /**
+     * Final test of a table, where <code>isDataTable</code> was successful: The
+     * first cell content of the header row have to be correct!
+     *
+     * @param table the context of the table
+     * @param headerCellContent the content of the first cell of the header row
+     * @return true if the following rows shall be added via
+     * <code>addRow</code>
+     */
+    boolean startTable(TableContext table, String headerCellContent) {
+        boolean isStarted = Boolean.FALSE;
+        int columnCount = table.getColumnCount();
+        if (!(((columnCount == NORMATIVE_TABLE_SIZE || columnCount == NORMATIVE_EDIFACT_TABLE_SIZE) && headerCellContent.equals(SEMANTIC_TABLE_HEADINGS[0].getLabel()))
+                || ((columnCount == INFORMATIVE_TABLE_SIZE || columnCount == INFORMATIVE_EDIFACT_TABLE_SIZE) && headerCellContent.equals(SYNTAX_TABLE_HEADINGS[0].getLabel())))) {
+            LOG.error("ERROR: WRONG TABLE: '" + table.getTitle() + "' + IS NOT A TABLE FOR DATA EXTRACTION!");
+        } else {
+            LOG.info("\n--------------------------------------------------------------------------------------------------------\n");
+            LOG.info("Table Heading:\n\t{}\n", table.getTitle());
+            LOG.info("--------------------------------------------------------------------------------------------------------\n\n");
+            isStarted = Boolean.TRUE;
+        }
+        return isStarted;
+    }
+
+    /**
+     * Adds the cell contents of a single content row (all rows after the
+     * header row) of the table to the data model.
+     *
+     * @param table the context of the table
+     * @param cellContents the whitespace trimmed content of each cell of the
+     * row
+     */
+    void addRow(TableContext table, List<String> cellContents) {
+        int columnCount = table.getColumnCount();
+        LOG.debug("\n**** NEW ROW ****");
+        ExtractionEvents.Row event = new ExtractionEvents.Row();
+        event.begin();
+        int cellCount = cellContents.size();
+        table.getMetrics().add(ExtractionMetrics.Metric.ROWS, 1);
+        table.getMetrics().add(ExtractionMetrics.Metric.CELLS, cellCount);
+        boolean isNewSemantic = Boolean.FALSE;
+        NodeSyntax syntaxNode = null;
+        int syntax_header_length = 2; // the default, only EDIFACT has 3 columns
+        // once per row, so no message is created per cell if debug is disabled
+        boolean isDebug = LOG.isDebugEnabled();
+        for (int c = 0; c < cellCount; c++) {
+            String cellContent = cellContents.get(c);
+            String label = null;
+
+            // First Part of Heading - Semantics
+            if (columnCount == NORMATIVE_TABLE_SIZE || columnCount == NORMATIVE_EDIFACT_TABLE_SIZE) {
+                if (c < SEMANTIC_TABLE_HEADINGS.length) {
+                    // For each Row:
+                    if (c == 0) {
+                        if (Whitespace.trim(cellContent).isEmpty()) {
+                            LOG.debug("IS EMPTY!!!");
+                        } else {
+                            table.mSemanticNode = new NodeSemantic(cellContent, table);
+                            isNewSemantic = Boolean.TRUE;
+                        }
+                    }
+                    if (isNewSemantic) {
+                        label = mapSemantic(cellContent, c, table.mSemanticNode);
+                    }
+
+                    // Second Part of Row - Syntax
+                } else {
+                    SyntaxHeading columnType = null;
+                    int i = c - SEMANTIC_TABLE_HEADINGS.length;
+                    if (i == 0) {
+                        if (table.isXML()) {
+                            if (table.isUBL()) {
+                                syntaxNode = new NodeUblXml(cellContent, table.mSemanticNode);
                             } else {
-                                SyntaxHeading columnType = null;
-                                int i = c - SEMANTIC_TABLE_HEADINGS.length;
-                                if (i == 0) {
-                                    if (mIsXML) {
-                                        if (mIsUBL) {
-                                            syntaxNode = new NodeUblXml(cellContent, semanticNode);
-                                        } else {
-                                            syntaxNode = new NodeXml(cellContent, semanticNode);
-                                        }
-                                    } else {
-                                        syntaxNode = new NodeEdifact(cellContent, semanticNode);
-                                    }
-                                } else {
-                                    if (columnCount == NORMATIVE_EDIFACT_TABLE_SIZE) {
-                                        // we have to omit the syntax not available for EDIFACT, i.e. "Type"
-                                        if (i < 2) { // if it before "Name"
-                                            columnType = SYNTAX_TABLE_HEADINGS[i + 1]; // always skip "Type"
-                                        } else {
-                                            columnType = SYNTAX_TABLE_HEADINGS[i + 2]; // skip "Type" and "Name"
-                                        }
-                                    } else { // normative XML
-                                        // we have to omit the syntax not available for XML, i.e. "Name"
-                                        if (i < 3) {
-                                            columnType = SYNTAX_TABLE_HEADINGS[i];
-                                        } else {
-                                            columnType = SYNTAX_TABLE_HEADINGS[i + 1];
-                                        }
-                                    }
-                                    label = mapSyntax(cellContent, syntaxNode, columnType);
-                                }
+                                syntaxNode = new NodeXml(cellContent, table.mSemanticNode);
                             }
-                        } else { // informative table
-                            // in case of EDIFACT 3-4 there are 3 columns instead of 2
-                            if (columnCount == INFORMATIVE_EDIFACT_TABLE_SIZE) {
-                                syntax_header_length = 3;
+                        } else {
+                            syntaxNode = new NodeEdifact(cellContent, table.mSemanticNode);
+                        }
+                    } else {
+                        if (columnCount == NORMATIVE_EDIFACT_TABLE_SIZE) {
+                            // we have to omit the syntax not available for EDIFACT, i.e. "Type"
+                            if (i < 2) { // if it before "Name"
+                                columnType = SYNTAX_TABLE_HEADINGS[i + 1]; // always skip "Type"
+                            } else {
+                                columnType = SYNTAX_TABLE_HEADINGS[i + 2]; // skip "Type" and "Name"
                             }
-
-                            if (c < syntax_header_length) {
-                                // For each Row:
-
-                                // find the according type to this column from the header
-                                if (c == 0) {
-                                    // this time the syntax mapping has 3 columns less..
-                                    informativeTable_CellContentOne = cellContent;
-                                } else if (c == 1) {
-                                    informativeTable_CellContentTwo = cellContent;
-                                } else if (c == 3) { // in case of EDIFACT part 3-4
-                                    informativeTable_CellContentThree = cellContent;
-                                }
-                                // Second Part of Row - Semantic Model
+                        } else { // normative XML
+                            // we have to omit the syntax not available for XML, i.e. "Name"
+                            if (i < 3) {
+                                columnType = SYNTAX_TABLE_HEADINGS[i];
                             } else {
-                                if (c == syntax_header_length) { // semanticID
-                                    cellContent = cellContent.replaceAll(LEADING_TRAILING_WHITESPACES, "");
-                                    // same semantic node, if there is NO ID or the previous ID
-                                    if (cellContent.isEmpty()) { // semantic ID is empty
-                                        break; // just boilerplate
-                                    } else { // semantic ID exist (might be not as the one before)
-                                        // in the informative table the IDs are defined not adjacent
-                                        semanticNode = NodeSemantic.allSemanticNodes.get(cellContent);
-                                        if (semanticNode == null) {
-                                            semanticNode = new NodeSemantic(cellContent, mTableId);
-                                            isNewSemantic = Boolean.TRUE;
-                                        }
-                                    }
-                                } else {
-                                    if (isNewSemantic) {
-                                        label = mapSemantic(cellContent, c - syntax_header_length, semanticNode);
-                                    }
-                                }
-                                // Finally after all semantics have been added, add the syntax that was remembered from the start of the informative table
-                                if (c == cellCount - 1) {
-                                    if (mIsXML) {
-                                        syntaxNode = new NodeXml(informativeTable_CellContentOne, semanticNode);
-                                    } else {
-                                        syntaxNode = new NodeEdifact(informativeTable_CellContentOne, semanticNode);
-                                    }
-
-                                    label = mapSyntax(informativeTable_CellContentTwo, syntaxNode, SYNTAX_TABLE_HEADINGS[2]);
-                                    if (!mIsXML) {
-                                        label = mapSyntax(informativeTable_CellContentThree, syntaxNode, SYNTAX_TABLE_HEADINGS[3]);
-                                    }
-                                }
+                                columnType = SYNTAX_TABLE_HEADINGS[i + 1];
                             }
                         }
+                        label = mapSyntax(cellContent, syntaxNode, columnType, table);
+                    }
+                }
+            } else { // informative table
+                // in case of EDIFACT 3-4 there are 3 columns instead of 2
+                if (columnCount == INFORMATIVE_EDIFACT_TABLE_SIZE) {
+                    syntax_header_length = 3;
+                }
+
+                if (c < syntax_header_length) {
+                    // For each Row:
+
+                    // find the according type to this column from the header
+                    if (c == 0) {
+                        // this time the syntax mapping has 3 columns less..
+                        table.mInformativeTable_CellContentOne = cellContent;
+                    } else if (c == 1) {
+                        table.mInformativeTable_CellContentTwo = cellContent;
+                    } else if (c == 3) { // in case of EDIFACT part 3-4
+                        table.mInformativeTable_CellContentThree = cellContent;
+                    }
+                    // Second Part of Row - Semantic Model
+                } else {
+                    if (c == syntax_header_length) { // semanticID
+                        cellContent = Whitespace.trim(cellContent);
+                        // same semantic node, if there is NO ID or the previous ID
+                        if (cellContent.isEmpty()) { // semantic ID is empty
+                            break; // just boilerplate
+                        } else { // semantic ID exist (might be not as the one before)
+                            // in the informative table the IDs are defined not adjacent
+                            table.mSemanticNode = table.getSemanticNodes().get(new SemanticIdKey(cellContent));
+                            if (table.mSemanticNode == null) {
+                                table.mSemanticNode = new NodeSemantic(cellContent, table);
+                                isNewSemantic = Boolean.TRUE;
+                            }
+                        }
+                    } else {
+                        if (isNewSemantic) {
+                            label = mapSemantic(cellContent, c - syntax_header_length, table.mSemanticNode);
+                        }
+                    }
+                    // Finally after all semantics have been added, add the syntax that was remembered from the start of the informative table
+                    if (c == cellCount - 1) {
+                        if (table.isXML()) {
+                            syntaxNode = new NodeXml(table.mInformativeTable_CellContentOne, table.mSemanticNode);
+                        } else {
+                            syntaxNode = new NodeEdifact(table.mInformativeTable_CellContentOne, table.mSemanticNode);
+                        }
+
+                        label = mapSyntax(table.mInformativeTable_CellContentTwo, syntaxNode, SYNTAX_TABLE_HEADINGS[2], table);
+                        if (!table.isXML()) {
+                            label = mapSyntax(table.mInformativeTable_CellContentThree, syntaxNode, SYNTAX_TABLE_HEADINGS[3], table);
+                        }
                     }
                 }
-                //** HERE THE COMPLETE TABLE ARE LOADED - DOING SANITY TESTS **/
-
-                // Traverse all semantics if the cardinality is correct or if not the correct mismatch was placed!
-                semanticNode.validateCardinalityMismatches();
-
-                // All anomalies of each semantic ID had been collected during parse, to show once all..
-                semanticNode.showSemanticIDAnomalies();
-
-                //** HERE THE MODEL IS BEING SERIALIZED TO FILES **//
-                if (columnCount == NORMATIVE_TABLE_SIZE || columnCount == NORMATIVE_EDIFACT_TABLE_SIZE) {
-                    // dump the table model into an XML file
-                    semanticNode.createXMLFile(fileName, outputPath, title, Boolean.TRUE);
-                    semanticNode.createSubXMLFile(fileName, outputPath, title, Boolean.TRUE);
-                    semanticNode.createSemanticXMLFile(fileName.replace(".xml",".json"), outputPath, title, Boolean.TRUE);
-                    semanticNode.createSemanticJSONFile(fileName, outputPath, title, Boolean.TRUE);
-                } else { // informative table
-                    semanticNode.createXMLFile(fileName, outputPath, title, Boolean.FALSE);
-                    semanticNode.createSubXMLFile(fileName, outputPath, title, Boolean.FALSE); // created in subdirectory
-                    semanticNode.createSemanticXMLFile(fileName, outputPath, title, Boolean.FALSE);
-                    semanticNode.createSemanticJSONFile(fileName, outputPath, title, Boolean.TRUE);
+            }
+            if (isDebug) {
+                // logged after the mapping, which provides the label of the column
+                LOG.debug("**** NEW CELL ****");
+                LOG.debug("{}: {}", label, cellContent);
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.table = table.getTitle();
+            event.cells = cellCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * After all rows of a table were added, the data model is being tested and
+     * serialized to files.
+     *
+     * @param table the context of the table
+     */
+    void endTable(TableContext table) {
+        ExtractionMetrics metrics = table.getMetrics();
+        metrics.add(ExtractionMetrics.Metric.PARSE_TIME, System.nanoTime() - metrics.getStartTime());
+        validateTable(table);
+
+        //** HERE THE MODEL IS BEING SERIALIZED TO FILES **//
+        writeOutputs(table);
+        table.getDocument().addTable(table);
+        table.getStatistic().table(table.getTitle(), table.isXML(), table.isUBL());
+        table.getDocument().getStatistic().add(table.getStatistic());
+    }
+
+    /**
+     * Tests the data model of a completely parsed or restored table and adds
+     * the findings to the validation report.
+     *
+     * @param table the context of the table
+     */
+    private void validateTable(TableContext table) {
+        ExtractionMetrics metrics = table.getMetrics();
+        long validationStart = System.nanoTime();
+        ExtractionEvents.Validation validationEvent = new ExtractionEvents.Validation();
+        validationEvent.begin();
+        //** HERE THE COMPLETE TABLE ARE LOADED - DOING SANITY TESTS **/
+
+        // Traverse all semantics if the cardinality is correct or if not the correct mismatch was placed!
+        NodeSemantic.validateCardinalityMismatches(table);
+
+        // All anomalies of each semantic ID had been collected during parse, to show once all..
+        NodeSemantic.showSemanticIDAnomalies(table);
+        // Syntax paths being used by several syntax nodes, usually of different semantics
+        NodeSemantic.validateDuplicatePaths(table);
+        NodeSemantic.logWhitespaceProblems(table);
+        ValidationReport report = table.getValidationReport();
+        validationEvent.end();
+        metrics.add(ExtractionMetrics.Metric.VALIDATION_TIME, System.nanoTime() - validationStart);
+        addFindingCounts(metrics, report, 1);
+        if (validationEvent.shouldCommit()) {
+            validationEvent.table = table.getTitle();
+            validationEvent.semantics = table.getSemanticNodes().size();
+            validationEvent.errors = report.getCount(ValidationFinding.Severity.ERROR);
+            validationEvent.warnings = report.getCount(ValidationFinding.Severity.WARNING);
+            validationEvent.commit();
+        }
+        addValidationReport(table.getDocument(), report);
+    }
+
+    /**
+     * Compares each informative table of the document with its preceding
+     * normative table.
+     */
+    private void compareTables(DocumentContext document) {
+        ValidationReport report = new ValidationReport();
+        TableContext normative = null;
+        for (TableContext table : document.getTables()) {
+            if (isNormative(table)) {
+                normative = table;
+            } else if (normative != null) {
+                TableDiff.compare(normative, table, report);
+                normative = null;
+            }
+        }
+        // the findings of the tables were counted by their metrics, the differences are counted by the document
+        addFindingCounts(document.getMetrics(), report, 1);
+        addValidationReport(document, report);
+    }
+
+    /**
+     * Compares the semantic data of the normative UBL tables with the one of
+     * the normative CII tables of all documents extracted so far, e.g. of
+     * EN 16931-3-2 and EN 16931-3-3. The differences are added as findings to
+     * the validation report, replacing the findings of a former check. To be
+     * called after all documents were extracted with indexing enabled.
+     *
+     * @return the findings of this check only
+     * @throws IllegalStateException if indexing is disabled
+     */
+    public ValidationReport checkSyntaxConsistency() {
+        if (!mIsIndexing) {
+            throw new IllegalStateException("The syntax consistency check requires indexing!");
+        }
+        List<DocumentContext> documents = mBindingIndex.getDocuments();
+        documents.sort(Comparator.comparing(DocumentContext::getFileName));
+        List<TableContext> ublTables = new ArrayList<>();
+        List<TableContext> ciiTables = new ArrayList<>();
+        for (DocumentContext document : documents) {
+            for (TableContext table : document.getTables()) {
+                if (table.isXML() && isNormative(table)) {
+                    (table.isUBL() ? ublTables : ciiTables).add(table);
                 }
-                // log all duplicated XML nodes
-//2DO            semanticNode.logDuplicateXPathErrors();
-                TypeStatistic.table(title, mIsXML, mIsUBL);
-                clearAll();
             }
         }
+        ValidationReport report = new ValidationReport();
+        SyntaxConsistencyCheck.compare(ublTables, ciiTables, report);
+        synchronized (this) {
+            if (mSyntaxConsistencyReport != null) {
+                mValidationReport.removeAll(mSyntaxConsistencyReport);
+                addFindingCounts(mMetrics, mSyntaxConsistencyReport, -1);
+            }
+            mSyntaxConsistencyReport = report;
+            // the findings about several documents are counted by the run
+            addFindingCounts(mMetrics, report, 1);
+        }
+        addValidationReport(null, report);
+        return report;
+    }
+
+    /**
+     * Adds the number of errors and warnings of the report to the metrics.
+     *
+     * @param sign 1 to add the counts, -1 to subtract the counts of replaced
+     * findings
+     */
+    private static void addFindingCounts(ExtractionMetrics metrics, ValidationReport report, int sign) {
+        metrics.add(ExtractionMetrics.Metric.ERRORS, sign * report.getCount(ValidationFinding.Severity.ERROR));
+        metrics.add(ExtractionMetrics.Metric.WARNINGS, sign * report.getCount(ValidationFinding.Severity.WARNING));
+    }
+
+    /**
+     * Adds the findings to the findings of all tables and of their document
+     * and prints them, if enabled.
+     *
+     * @param document the document of the findings, null if they are about
+     * several documents
+     */
+    private void addValidationReport(DocumentContext document, ValidationReport report) {
+        mValidationReport.addAll(report);
+        if (document != null) {
+            document.getValidationReport().addAll(report);
+        }
+        if (mIsPrintingValidation && !report.isEmpty()) {
+            try {
+                report.writeText(new OutputStreamWriter(System.out, Charset.defaultCharset()));
+            } catch (IOException e) {
+                LOG.error("ERROR: Could not print validation report!", e);
+            }
+        }
+    }
+
+    private static boolean isNormative(TableContext table) {
+        int columnCount = table.getColumnCount();
+        return columnCount == NORMATIVE_TABLE_SIZE || columnCount == NORMATIVE_EDIFACT_TABLE_SIZE;
+    }
+
+    /**
+     * Dumps the table model into XML and JSON files, the subset of normative
+     * tables gets a suffix.
+     */
+    private void writeOutputs(TableContext table) {
+        Set<TableSerializer.Output> outputs = EnumSet.range(TableSerializer.Output.XML, TableSerializer.Output.SEMANTIC_JSON);
+        if (mIsBindingJson) {
+            outputs.add(TableSerializer.Output.JSON);
+        }
+        ExtractionMetrics metrics = table.getMetrics();
+        long writeStart = System.nanoTime();
+        ExtractionEvents.FileWrite writeEvent = new ExtractionEvents.FileWrite();
+        writeEvent.begin();
+        new TableSerializer(table).write(isNormative(table), outputs);
+        writeEvent.end();
+        metrics.add(ExtractionMetrics.Metric.WRITE_TIME, System.nanoTime() - writeStart);
+        metrics.add(ExtractionMetrics.Metric.TABLES, 1);
+        metrics.stop();
+        table.getDocument().getMetrics().addChild(metrics);
+        if (writeEvent.shouldCommit()) {
+            writeEvent.table = table.getTitle();
+            writeEvent.outputs = outputs.size();
+            writeEvent.bytes = metrics.get(ExtractionMetrics.Metric.BYTES_WRITTEN);
+            writeEvent.commit();
+        }
+        ExtractionEvents.Table tableEvent = table.getEvent();
+        tableEvent.end();
+        if (tableEvent.shouldCommit()) {
+            tableEvent.document = table.getDocument().getFileName();
+            tableEvent.table = table.getTitle();
+            tableEvent.rows = metrics.get(ExtractionMetrics.Metric.ROWS);
+            tableEvent.semantics = table.getSemanticNodes().size();
+            tableEvent.commit();
+        }
     }
 
     private String mapSemantic(String cellContent, int c, NodeSemantic semanticNode) {
@@ -403,17 +958,17 @@ public class OdtTableExtraction {
         return label;
     }
 
-    private String mapSyntax(String cellContent, NodeSyntax syntaxNode, SyntaxHeading columnType) {
+    private String mapSyntax(String cellContent, NodeSyntax syntaxNode, SyntaxHeading columnType, TableContext table) {
         String label = columnType.getLabel();
         if (cellContent != null) {
-            cellContent = cellContent.replaceAll(LEADING_TRAILING_WHITESPACES, "");
+            cellContent = Whitespace.trim(cellContent);
             if (!cellContent.isEmpty()) {
                 switch (columnType) {
                     case TYPE: // only for XML
                         ((NodeXml) syntaxNode).setType(cellContent);
                         break;
                     case CARD:
-                        if (mIsXML) {
+                        if (table.isXML()) {
                             ((NodeXml) syntaxNode).setCardinalityXml(cellContent);
                         } else {
                             ((NodeEdifact) syntaxNode).setCardinalityEdifact(cellContent);
@@ -434,9 +989,8 @@ public class OdtTableExtraction {
         return label;
     }
 
-    private String getCellContent(OdfTableCell tc) {
+    static String getCellContent(TableTableCellElementBase c) {
         String content = null;
-        TableTableCellElementBase c = tc.getOdfElement();
         StringBuilder sb = null;
         Node node = c.getFirstChild();
         while (node != null) {
@@ -451,30 +1005,11 @@ public class OdtTableExtraction {
         }
         if (sb != null) {
             content = sb.toString();
+        } else {
+            // e.g. covered table cells without any paragraph
+            content = "";
         }
-        return content.replaceAll(LEADING_TRAILING_WHITESPACES, "");
-    }
-
-    static void clearAll() {
-        try {
-            if (NodeSemantic.allSemanticNodes != null) {
-                Collection<NodeSemantic> semanticNodes = NodeSemantic.allSemanticNodes.values();
-                for (NodeSemantic s : semanticNodes) {
-                    if (s.syntaxRepresentations != null) {
-                        s.syntaxRepresentations.clear();
-                    }
-                }
-                NodeSemantic.allSemanticNodes.clear();
-            }
-            if (NodeSyntax.allSyntaxNodes != null) {
-                NodeSyntax.allSyntaxNodes.clear();
-            }
-            if (NodeSyntax.duplicatePathList != null) {
-                NodeSyntax.duplicatePathList.clear();
-            }
-        } catch (Throwable e) {
-            LoggerFactory.getLogger(NodeSemantic.class.getName()).error("ERROR: " + e.getMessage(), e);
-        }
+        return Whitespace.trim(content);
     }
 
     /*
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.ValidationFinding.Rule;
+import de.prototypefund.en16931.type.SemanticIdKey;
+import de.prototypefund.en16931.type.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Checks the semantic data of the normative UBL tables (EN 16931-3-2) against
+ * the normative CII tables (EN 16931-3-3), which shall both describe the same
+ * semantic model.
+ *
+ * The tables are joined by semantic ID: a hash table of the UBL semantics is
+ * built once and probed by every CII semantic, so each side is read only
+ * once. Compared are level, cardinality, business term and data type,
+ * semantics being mapped to only one of the syntaxes are not reported.
+ */
+final class SyntaxConsistencyCheck {
+
+    private SyntaxConsistencyCheck() {
+    }
+
+    /**
+     * Adds a finding for each differing data of a semantic within a UBL and a
+     * CII table.
+     *
+     * @param ublTables the normative UBL tables
+     * @param ciiTables the normative CII tables, the findings are assigned to
+     * @param report the report of the findings
+     */
+    static void compare(List<TableContext> ublTables, List<TableContext> ciiTables, ValidationReport report) {
+        if (ublTables.isEmpty() || ciiTables.isEmpty()) {
+            return;
+        }
+        // build: usually there is a single UBL table per semantic ID
+        Map<SemanticIdKey, List<NodeSemantic>> ublSemantics = new HashMap<>();
+        for (TableContext table : ublTables) {
+            for (Map.Entry<SemanticIdKey, NodeSemantic> entry : table.getSemanticNodes().entrySet()) {
+                ublSemantics.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(1)).add(entry.getValue());
+            }
+        }
+        // probe: in the order of the CII tables and their semantic IDs
+        for (TableContext table : ciiTables) {
+            for (Map.Entry<SemanticIdKey, NodeSemantic> entry : table.getSemanticNodes().entrySet()) {
+                List<NodeSemantic> matches = ublSemantics.get(entry.getKey());
+                if (matches != null) {
+                    for (NodeSemantic ubl : matches) {
+                        compare(ubl, entry.getValue(), report);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void compare(NodeSemantic ubl, NodeSemantic cii, ValidationReport report) {
+        compare("level", ubl.getLevel(), cii.getLevel(), ubl, cii, report);
+        compare("card", getValue(ubl.getCardinality()), getValue(cii.getCardinality()), ubl, cii, report);
+        compare("bt", ubl.getBusinessTerm(), cii.getBusinessTerm(), ubl, cii, report);
+        compare("datatype", getValue(ubl.getDataType()), getValue(cii.getDataType()), ubl, cii, report);
+    }
+
+    private static void compare(String name, Object ublValue, Object ciiValue, NodeSemantic ubl, NodeSemantic cii, ValidationReport report) {
+        if (!Objects.equals(ublValue, ciiValue)) {
+            report.add(Rule.SYNTAX_SEMANTIC_DIVERGING, cii.getTable(), cii.getId(), null,
+                    name + " '" + ciiValue + "' instead of '" + ublValue + "' of '" + ubl.getTable().getDocument().getFileName() + "'");
+        }
+    }
+
+    private static String getValue(Type type) {
+        return type == null ? null : type.getValue();
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A compact and interned syntax path, e.g. an XPath. A path is its parent
+ * path and the interned name of its last step, so the common leading steps of
+ * all paths are stored only once. Equal paths are the same instance, so paths
+ * are compared in O(1) by identity. The string of a path is rendered on
+ * demand.
+ *
+ * Paths are split at '/' outside of predicates and string literals, the
+ * rendered string always equals the parsed one.
+ *
+ * A path only references its parent, children and names are held weakly, so
+ * paths no longer used by any syntax node are garbage collected, e.g. the
+ * former paths of a document being edited in watch or daemon mode.
+ */
+public final class SyntaxPath {
+
+    private static final char SEPARATOR = '/';
+    // the step names of all living paths, each name is stored once, guarded by itself
+    private static final Map<String, WeakReference<String>> NAMES = new WeakHashMap<>();
+    // the references of collected child paths to be removed from their parents
+    private static final ReferenceQueue<SyntaxPath> COLLECTED = new ReferenceQueue<>();
+    private static final SyntaxPath ABSOLUTE_ROOT = new SyntaxPath(null, "");
+    private static final SyntaxPath RELATIVE_ROOT = new SyntaxPath(null, "");
+    private final SyntaxPath mParent;
+    private final String mName;
+    private final int mDepth;
+    // the child paths by their interned name, guarded by this
+    private Map<String, ChildReference> mChildren = null;
+
+    /**
+     * The weak reference of a parent to a child path.
+     */
+    private static final class ChildReference extends WeakReference<SyntaxPath> {
+
+        private final SyntaxPath mParent;
+        private final String mName;
+
+        ChildReference(SyntaxPath child) {
+            super(child, COLLECTED);
+            mParent = child.mParent;
+            mName = child.mName;
+        }
+    }
+
+    private SyntaxPath(SyntaxPath parent, String name) {
+        mParent = parent;
+        mName = name;
+        mDepth = parent == null ? 0 : parent.mDepth + 1;
+    }
+
+    /**
+     * @param path the path, e.g. "/Invoice/cac:AccountingSupplierParty/cac:Party"
+     * @return the interned path
+     */
+    public static SyntaxPath of(String path) {
+        return parse(path, true);
+    }
+
+    /**
+     * @param path the path, e.g. "/Invoice/cac:AccountingSupplierParty/cac:Party"
+     * @return the interned path or null if it was never interned, no path is
+     * being created
+     */
+    public static SyntaxPath find(String path) {
+        return parse(path, false);
+    }
+
+    private static SyntaxPath parse(String path, boolean isCreating) {
+        removeCollected();
+        int length = path.length();
+        boolean isAbsolute = length > 0 && path.charAt(0) == SEPARATOR;
+        SyntaxPath node = isAbsolute ? ABSOLUTE_ROOT : RELATIVE_ROOT;
+        int start = isAbsolute ? 1 : 0;
+        if (start == length) {
+            return node;
+        }
+        int depth = 0;
+        char quote = 0;
+        for (int i = start; i <= length && node != null; i++) {
+            char c = i < length ? path.charAt(i) : SEPARATOR;
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else if (i == length) {
+                    // an unterminated literal ends with the path
+                    node = node.getChild(path.substring(start), isCreating);
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            } else if (c == SEPARATOR && (depth <= 0 || i == length)) {
+                node = node.getChild(path.substring(start, i), isCreating);
+                start = i + 1;
+            }
+        }
+        return node;
+    }
+
+    private synchronized SyntaxPath getChild(String name, boolean isCreating) {
+        ChildReference reference = mChildren == null ? null : mChildren.get(name);
+        SyntaxPath child = reference == null ? null : reference.get();
+        if (child == null && isCreating) {
+            child = new SyntaxPath(this, intern(name));
+            if (mChildren == null) {
+                mChildren = new HashMap<>(4);
+            }
+            mChildren.put(child.mName, new ChildReference(child));
+        }
+        return child;
+    }
+
+    private static String intern(String name) {
+        synchronized (NAMES) {
+            WeakReference<String> reference = NAMES.get(name);
+            String interned = reference == null ? null : reference.get();
+            if (interned == null) {
+                interned = name;
+                NAMES.put(interned, new WeakReference<>(interned));
+            }
+            return interned;
+        }
+    }
+
+    /**
+     * Removes the references of collected paths from their parents, called
+     * without holding the lock of any path.
+     */
+    private static void removeCollected() {
+        for (ChildReference reference = (ChildReference) COLLECTED.poll(); reference != null; reference = (ChildReference) COLLECTED.poll()) {
+            SyntaxPath parent = reference.mParent;
+            synchronized (parent) {
+                if (parent.mChildren != null && parent.mChildren.get(reference.mName) == reference) {
+                    parent.mChildren.remove(reference.mName);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return this path followed by all its descendant paths interned so far,
+     * in no particular order
+     */
+    List<SyntaxPath> getSubtree() {
+        List<SyntaxPath> subtree = new ArrayList<>();
+        subtree.add(this);
+        for (int i = 0; i < subtree.size(); i++) {
+            subtree.get(i).addChildren(subtree);
+        }
+        return subtree;
+    }
+
+    private synchronized void addChildren(List<SyntaxPath> paths) {
+        if (mChildren != null) {
+            for (ChildReference reference : mChildren.values()) {
+                SyntaxPath child = reference.get();
+                if (child != null) {
+                    paths.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the path without its last step, null for the root paths "/" and
+     * ""
+     */
+    public SyntaxPath getParent() {
+        return mParent;
+    }
+
+    /**
+     * @return the last step of the path, e.g. "cbc:ID" or "@schemeID"
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * @return the number of steps
+     */
+    public int getDepth() {
+        return mDepth;
+    }
+
+    public boolean isAbsolute() {
+        return getRoot() == ABSOLUTE_ROOT;
+    }
+
+    private SyntaxPath getRoot() {
+        SyntaxPath node = this;
+        while (node.mParent != null) {
+            node = node.mParent;
+        }
+        return node;
+    }
+
+    /**
+     * @return true if the leading steps of this path are the given path
+     */
+    public boolean startsWith(SyntaxPath prefix) {
+        SyntaxPath node = this;
+        for (int i = mDepth - prefix.mDepth; i > 0; i--) {
+            node = node.mParent;
+        }
+        return node == prefix;
+    }
+
+    @Override
+    public String toString() {
+        if (mParent == null) {
+            return this == ABSOLUTE_ROOT ? "/" : "";
+        }
+        String[] names = new String[mDepth];
+        int length = mDepth - 1;
+        SyntaxPath node = this;
+        for (int i = mDepth - 1; i >= 0; i--) {
+            names[i] = node.mName;
+            length += node.mName.length();
+            node = node.mParent;
+        }
+        StringBuilder sb = new StringBuilder(length + 1);
+        if (node == ABSOLUTE_ROOT) {
+            sb.append(SEPARATOR);
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(names[i]);
+        }
+        return sb.toString();
+    }
+}
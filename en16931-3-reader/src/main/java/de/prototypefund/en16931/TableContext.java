@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.type.SemanticIdKey;
+import de.prototypefund.en16931.type.TypeStatistic;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The state of the extraction of a single table: Its data model of semantic
+ * and syntax nodes, the type statistic and the parse state of the current row.
+ */
+public class TableContext {
+
+    private final DocumentContext mDocument;
+    private final String mTitle;
+    // semantic IDs are parsed once into keys, sorted number aware
+    private final TreeMap<SemanticIdKey, NodeSemantic> mSemanticNodes = new TreeMap<>();
+    private final TypeStatistic mStatistic = new TypeStatistic();
+    private final ValidationReport mValidationReport = new ValidationReport();
+    private final WhitespaceDiagnostics mWhitespaceDiagnostics = new WhitespaceDiagnostics();
+    private final ExtractionMetrics mMetrics;
+    private final ExtractionEvents.Table mEvent = new ExtractionEvents.Table();
+    private Boolean mIsXML = Boolean.FALSE;
+    private Boolean mIsUBL = Boolean.FALSE;
+    private int mColumnCount = 0;
+    // used by NodeSemantics to collect info on Semantic ID problem using different hyphens
+    List<String> mMultiHyphenDiff = null;
+    List<String> mMultiHyphenSame = null;
+    // the syntax nodes of the table by their interned path
+    private final Map<SyntaxPath, List<NodeSyntax>> mSyntaxPaths = new HashMap<>();
+    // the syntax nodes of paths being used by multiple syntax nodes, in order of their first duplication
+    private final List<List<NodeSyntax>> mDuplicatePaths = new ArrayList<>();
+    // the semantic node of the current (or previous) row
+    NodeSemantic mSemanticNode = null;
+    // only required for the informative cell to remember the two Syntax contents, until Semantic was created
+    String mInformativeTable_CellContentOne = null;
+    String mInformativeTable_CellContentTwo = null;
+    String mInformativeTable_CellContentThree = null;
+
+    /**
+     * @param document the context of the specification document of the table
+     * @param title the heading (or paragraph) preceding the table
+     */
+    TableContext(DocumentContext document, String title) {
+        mDocument = document;
+        mTitle = title;
+        mMetrics = new ExtractionMetrics(document.getFileName(), document.getMetrics().getPath(), title);
+        mEvent.begin();
+    }
+
+    /**
+     * @return the flight recorder event of the table, begun by the creation of
+     * the context
+     */
+    ExtractionEvents.Table getEvent() {
+        return mEvent;
+    }
+
+    /**
+     * @return the metrics of the extraction of the table, started by the
+     * creation of the context
+     */
+    public ExtractionMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * @return the whitespace problems of the cell content, collected until
+     * logged at the end of the table
+     */
+    WhitespaceDiagnostics getWhitespaceDiagnostics() {
+        return mWhitespaceDiagnostics;
+    }
+
+    /**
+     * Adds the syntax node to the paths of the table, its interned path is the
+     * key.
+     */
+    void addSyntaxPath(NodeSyntax node) {
+        List<NodeSyntax> nodes = mSyntaxPaths.computeIfAbsent(node.getSyntaxPath(), k -> new ArrayList<>(1));
+        nodes.add(node);
+        if (nodes.size() == 2) {
+            mDuplicatePaths.add(nodes);
+        }
+    }
+
+    /**
+     * @return for each syntax path being used by multiple syntax nodes of this
+     * table its syntax nodes
+     */
+    List<List<NodeSyntax>> getDuplicatePaths() {
+        return mDuplicatePaths;
+    }
+
+    public DocumentContext getDocument() {
+        return mDocument;
+    }
+
+    /**
+     * @return the heading (or paragraph) preceding the table
+     */
+    public String getTitle() {
+        return mTitle;
+    }
+
+    /**
+     * @return all semantic nodes of the table sorted by their ID
+     */
+    TreeMap<SemanticIdKey, NodeSemantic> getSemanticNodes() {
+        return mSemanticNodes;
+    }
+
+    public TypeStatistic getStatistic() {
+        return mStatistic;
+    }
+
+    /**
+     * @return the findings of the validation of the table
+     */
+    public ValidationReport getValidationReport() {
+        return mValidationReport;
+    }
+
+    public Boolean isXML() {
+        return mIsXML;
+    }
+
+    public Boolean isUBL() {
+        return mIsUBL;
+    }
+
+    void setSyntax(Boolean isXML, Boolean isUBL) {
+        mIsXML = isXML;
+        mIsUBL = isUBL;
+    }
+
+    int getColumnCount() {
+        return mColumnCount;
+    }
+
+    void setColumnCount(int columnCount) {
+        mColumnCount = columnCount;
+    }
+
+    void addMultiHyphenDiff(String id) {
+        if (mMultiHyphenDiff == null) {
+            mMultiHyphenDiff = new ArrayList<>();
+        }
+        mMultiHyphenDiff.add(id);
+    }
+
+    void addMultiHyphenSame(String id) {
+        if (mMultiHyphenSame == null) {
+            mMultiHyphenSame = new ArrayList<>();
+        }
+        mMultiHyphenSame.add(id);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import org.odftoolkit.odfdom.dom.element.table.TableTableCellElementBase;
+import org.odftoolkit.odfdom.dom.element.table.TableTableColumnElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableColumnGroupElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableColumnsElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableHeaderColumnsElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableHeaderRowsElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableRowElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableRowGroupElement;
+import org.odftoolkit.odfdom.dom.element.table.TableTableRowsElement;
+import org.w3c.dom.Node;
+
+/**
+ * Forward-only cursor over the rows and cells of an ODF table.
+ *
+ * Every <code>table:table-row</code> and <code>table:table-cell</code> (or
+ * <code>table:covered-table-cell</code>) element is visited exactly once by
+ * walking the DOM siblings. Repeated rows and cells are expanded lazily by
+ * returning the same element again, instead of splitting the DOM as
+ * <code>OdfTable.getRowByIndex()</code> and
+ * <code>OdfTableRow.getCellByIndex()</code> do, which made the extraction of
+ * a table quadratic to its size.
+ */
+final class TableCursor {
+
+    private final TableTableElement mTable;
+    private TableTableRowElement mRow = null;
+    private int mRowRepetition = 0;
+    private TableTableCellElementBase mCell = null;
+    private int mCellRepetition = 0;
+
+    TableCursor(TableTableElement table) {
+        mTable = table;
+    }
+
+    /**
+     * Moves the cursor to the next row of the table.
+     *
+     * @return false if there is no further row
+     */
+    boolean nextRow() {
+        mCell = null;
+        mCellRepetition = 0;
+        if (mRowRepetition > 1) {
+            mRowRepetition--;
+            return Boolean.TRUE;
+        }
+        Node node = mRow == null ? mTable.getFirstChild() : getFollowing(mRow);
+        while (node != null) {
+            if (node instanceof TableTableRowElement) {
+                mRow = (TableTableRowElement) node;
+                mRowRepetition = getRepetition(mRow.getTableNumberRowsRepeatedAttribute());
+                return Boolean.TRUE;
+            } else if (isRowContainer(node) && node.getFirstChild() != null) {
+                node = node.getFirstChild();
+            } else {
+                node = getFollowing(node);
+            }
+        }
+        mRow = null;
+        mRowRepetition = 0;
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Moves the cursor to the next cell of the current row.
+     *
+     * @return false if there is no further cell in the current row
+     */
+    boolean nextCell() {
+        if (mCellRepetition > 1) {
+            mCellRepetition--;
+            return Boolean.TRUE;
+        }
+        if (mRow == null) {
+            return Boolean.FALSE;
+        }
+        Node node = mCell == null ? mRow.getFirstChild() : mCell.getNextSibling();
+        while (node != null) {
+            if (node instanceof TableTableCellElementBase) {
+                mCell = (TableTableCellElementBase) node;
+                mCellRepetition = getRepetition(mCell.getTableNumberColumnsRepeatedAttribute());
+                return Boolean.TRUE;
+            }
+            node = node.getNextSibling();
+        }
+        mCell = null;
+        mCellRepetition = 0;
+        return Boolean.FALSE;
+    }
+
+    /**
+     * @return the element of the current row, might be returned for multiple
+     * rows if the row is being repeated
+     */
+    TableTableRowElement getRow() {
+        return mRow;
+    }
+
+    /**
+     * @return the element of the current cell, might be returned for multiple
+     * cells if the cell is being repeated
+     */
+    TableTableCellElementBase getCell() {
+        return mCell;
+    }
+
+    /**
+     * @return true if the current row is part of the table header rows
+     */
+    boolean isHeaderRow() {
+        return mRow != null && mRow.getParentNode() instanceof TableTableHeaderRowsElement;
+    }
+
+    /**
+     * @return the number of columns declared by the table, including
+     * repeated columns
+     */
+    static int getColumnCount(TableTableElement table) {
+        return countColumns(table);
+    }
+
+    /**
+     * @return the number of header rows of the table, including repeated
+     * rows
+     */
+    static int getHeaderRowCount(TableTableElement table) {
+        int headerRowCount = 0;
+        for (Node node = table.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof TableTableHeaderRowsElement) {
+                for (Node row = node.getFirstChild(); row != null; row = row.getNextSibling()) {
+                    if (row instanceof TableTableRowElement) {
+                        headerRowCount += getRepetition(((TableTableRowElement) row).getTableNumberRowsRepeatedAttribute());
+                    }
+                }
+            }
+        }
+        return headerRowCount;
+    }
+
+    private static int countColumns(Node parent) {
+        int columnCount = 0;
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof TableTableColumnElement) {
+                columnCount += getRepetition(((TableTableColumnElement) node).getTableNumberColumnsRepeatedAttribute());
+            } else if (node instanceof TableTableColumnsElement
+                || node instanceof TableTableHeaderColumnsElement
+                || node instanceof TableTableColumnGroupElement) {
+                columnCount += countColumns(node);
+            }
+        }
+        return columnCount;
+    }
+
+    private static boolean isRowContainer(Node node) {
+        return node instanceof TableTableHeaderRowsElement
+            || node instanceof TableTableRowsElement
+            || node instanceof TableTableRowGroupElement;
+    }
+
+    /**
+     * @return the next node in document order, which is not a descendant of
+     * the given node, but still within the table
+     */
+    private Node getFollowing(Node node) {
+        while (node.getNextSibling() == null) {
+            node = node.getParentNode();
+            if (node == null || node == mTable) {
+                return null;
+            }
+        }
+        return node.getNextSibling();
+    }
+
+    private static int getRepetition(Integer repeated) {
+        if (repeated == null || repeated < 1) {
+            return 1;
+        }
+        return repeated;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.ValidationFinding.Rule;
+import de.prototypefund.en16931.type.SemanticIdKey;
+import de.prototypefund.en16931.type.Type;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares the informative table with the subset of its normative table,
+ * which shall carry exactly the same data. The semantic nodes of both tables
+ * are merged in a single pass over their maps sorted by semantic ID, the
+ * syntax nodes of a semantic sorted by their path, unless both tables list
+ * the same paths in the same order.
+ *
+ * Compared are the data of the subset files: level, cardinality, business
+ * term, description and data type of a semantic, the cardinality of a syntax
+ * node.
+ */
+final class TableDiff {
+
+    private static final Comparator<NodeSyntax> BY_PATH = Comparator.comparing(NodeSyntax::getPath);
+    private static final NodeSyntax[] NO_SYNTAX = new NodeSyntax[0];
+
+    private TableDiff() {
+    }
+
+    /**
+     * Adds a finding for each semantic or syntax node missing in one of the
+     * tables and for each of their differing data.
+     *
+     * @param normative the normative table
+     * @param informative the informative table, the findings are assigned to
+     * @param report the report of the findings
+     */
+    static void compare(TableContext normative, TableContext informative, ValidationReport report) {
+        Iterator<Map.Entry<SemanticIdKey, NodeSemantic>> normativeIt = normative.getSemanticNodes().entrySet().iterator();
+        Iterator<Map.Entry<SemanticIdKey, NodeSemantic>> informativeIt = informative.getSemanticNodes().entrySet().iterator();
+        Map.Entry<SemanticIdKey, NodeSemantic> n = next(normativeIt);
+        Map.Entry<SemanticIdKey, NodeSemantic> i = next(informativeIt);
+        while (n != null || i != null) {
+            int order = n == null ? 1 : i == null ? -1 : n.getKey().compareTo(i.getKey());
+            if (order < 0) {
+                report.add(Rule.INFORMATIVE_SEMANTIC_MISSING, informative, n.getValue().getId(), null, null);
+                n = next(normativeIt);
+            } else if (order > 0) {
+                report.add(Rule.INFORMATIVE_SEMANTIC_ADDED, informative, i.getValue().getId(), null, null);
+                i = next(informativeIt);
+            } else {
+                compare(n.getValue(), i.getValue(), informative, report);
+                n = next(normativeIt);
+                i = next(informativeIt);
+            }
+        }
+    }
+
+    private static void compare(NodeSemantic normative, NodeSemantic informative, TableContext table, ValidationReport report) {
+        String id = informative.getId();
+        compare("level", normative.getLevel(), informative.getLevel(), id, null, table, report);
+        compare("card", getValue(normative.getCardinality()), getValue(informative.getCardinality()), id, null, table, report);
+        compare("bt", normative.getBusinessTerm(), informative.getBusinessTerm(), id, null, table, report);
+        compare("desc", normative.getDescription(), informative.getDescription(), id, null, table, report);
+        compare("datatype", getValue(normative.getDataType()), getValue(informative.getDataType()), id, null, table, report);
+
+        List<NodeSyntax> normativeList = normative.syntaxRepresentations;
+        List<NodeSyntax> informativeList = informative.syntaxRepresentations;
+        if (normativeList != null && informativeList != null && isSamePathOrder(normativeList, informativeList)) {
+            // usually both tables list the same paths in the same order, no sorting is required
+            for (int i = 0; i < normativeList.size(); i++) {
+                compare("card", normativeList.get(i).getCardinality(), informativeList.get(i).getCardinality(), id, informativeList.get(i), table, report);
+            }
+            return;
+        }
+        NodeSyntax[] normativeSyntax = sortedSyntax(normative);
+        NodeSyntax[] informativeSyntax = sortedSyntax(informative);
+        int n = 0;
+        int i = 0;
+        while (n < normativeSyntax.length || i < informativeSyntax.length) {
+            int order = n == normativeSyntax.length ? 1 : i == informativeSyntax.length ? -1
+                    : normativeSyntax[n].getPath().compareTo(informativeSyntax[i].getPath());
+            if (order < 0) {
+                report.add(Rule.INFORMATIVE_SYNTAX_MISSING, table, id, normativeSyntax[n++].getPath(), null);
+            } else if (order > 0) {
+                report.add(Rule.INFORMATIVE_SYNTAX_ADDED, table, id, informativeSyntax[i++].getPath(), null);
+            } else {
+                compare("card", normativeSyntax[n].getCardinality(), informativeSyntax[i].getCardinality(), id, informativeSyntax[i], table, report);
+                n++;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * @param syntax the informative syntax node of the data or null for
+     * semantic data, its path is only rendered for a difference
+     */
+    private static void compare(String name, Object normative, Object informative, String id, NodeSyntax syntax, TableContext table, ValidationReport report) {
+        if (!Objects.equals(normative, informative)) {
+            report.add(Rule.INFORMATIVE_DATA_CHANGED, table, id, syntax == null ? null : syntax.getPath(), name + " '" + informative + "' instead of '" + normative + "'");
+        }
+    }
+
+    /**
+     * @return true if both lists have the same paths in the same order,
+     * compared by the identity of the interned paths
+     */
+    private static boolean isSamePathOrder(List<NodeSyntax> normative, List<NodeSyntax> informative) {
+        if (normative.size() != informative.size()) {
+            return false;
+        }
+        for (int i = 0; i < normative.size(); i++) {
+            if (normative.get(i).getSyntaxPath() != informative.get(i).getSyntaxPath()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static NodeSyntax[] sortedSyntax(NodeSemantic semantic) {
+        if (semantic.syntaxRepresentations == null) {
+            return NO_SYNTAX;
+        }
+        NodeSyntax[] syntax = semantic.syntaxRepresentations.toArray(NO_SYNTAX);
+        Arrays.sort(syntax, BY_PATH);
+        return syntax;
+    }
+
+    private static String getValue(Type type) {
+        return type == null ? null : type.getValue();
+    }
+
+    private static <T> T next(Iterator<T> it) {
+        return it.hasNext() ? it.next() : null;
+    }
+}
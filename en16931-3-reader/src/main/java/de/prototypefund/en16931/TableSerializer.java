@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes the data model of a table into its output files.
+ *
+ * The semantic nodes are walked once and each node is streamed into all
+ * requested outputs by buffered writers, instead of building a complete
+ * string of each output file in memory.
+ */
+final class TableSerializer {
+
+    /**
+     * The output files of a table.
+     */
+    enum Output {
+        /**
+         * all semantic and syntax data of the table, saved in a directory
+         * named after the specification document
+         */
+        XML,
+        /**
+         * the semantic and syntax data shared by normative and informative
+         * tables, saved in a directory of the same syntax binding
+         */
+        SUBSET_XML,
+        /**
+         * only the semantic data of the table, saved in the directory of the
+         * same semantic
+         */
+        SEMANTIC_XML,
+        /**
+         * only the semantic data of the table as JSON, saved in the directory
+         * of the same semantic
+         */
+        SEMANTIC_JSON,
+        /**
+         * all semantic and syntax data of the table as JSON, saved next to
+         * the XML file of the full table dataset
+         */
+        JSON
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableSerializer.class);
+    private static final String ODT_SUFFIX = ".odt";
+    private static final String INVALID_FILE_CHARACTERS = "[\\\\/:*?\"<>|]";
+    // Following properites are for naming the new output directories for the various output files
+    private static final String FILE_SUFFIX__SUBSET = "_SUBSET";
+    private static final String FILE_SUFFIX__SEMANTIC = "_SEMANTIC";
+    private static final String SAME_SEMANTIC_DIR_NAME = "_SAME_SEMANTIC";
+    private static final String SAME_BINDING_PREFIX = "_SAME_BINDING";
+    private static final String BINDING_TYPE_INVOICE = "_INV__";
+    private static final String BINDING_TYPE_CREDIT_NOTE = "_CN__";
+    private final TableContext mTable;
+
+    TableSerializer(TableContext table) {
+        mTable = table;
+    }
+
+    /**
+     * Writes the output files of the table, except the JSON file of the full
+     * table dataset.
+     *
+     * @param isNormative true if the table is a normative table, the subset
+     * file name gets a suffix
+     */
+    void write(Boolean isNormative) {
+        write(isNormative, EnumSet.range(Output.XML, Output.SEMANTIC_JSON));
+    }
+
+    /**
+     * Writes the requested output files of the table by a single walk over
+     * its semantic nodes.
+     *
+     * @param isNormative true if the table is a normative table, the subset
+     * file name gets a suffix
+     * @param outputs the output files to be written
+     */
+    void write(Boolean isNormative, Set<Output> outputs) {
+        String fileName = mTable.getDocument().getFileName();
+        if (fileName.endsWith(ODT_SUFFIX)) {
+            fileName = fileName.substring(0, fileName.length() - ODT_SUFFIX.length());
+        }
+        String title = mTable.getTitle();
+        Collection<NodeSemantic> semanticNodes = mTable.getSemanticNodes().values();
+        int semanticCount = semanticNodes.size();
+        int xmlCount = 0;
+        for (NodeSemantic s : semanticNodes) {
+            if (s.syntaxRepresentations != null) {
+                xmlCount += s.syntaxRepresentations.size();
+            }
+        }
+        Map<Output, File> files = new EnumMap<>(Output.class);
+        Map<Output, Writer> writers = new EnumMap<>(Output.class);
+        try {
+            // XML files are saved in at least different folder (same semantic data-set, same informative & normative-subset, full table dataset)
+            for (Output output : outputs) {
+                File file = getOutputFile(output, fileName, title, isNormative);
+                files.put(output, file);
+                // the characters are encoded directly into the channel of the file,
+                // the file is not converted to a path as the title might not be mappable to the file system encoding
+                writers.put(output, new BufferedWriter(Channels.newWriter(new FileOutputStream(file).getChannel(), StandardCharsets.UTF_8.newEncoder(), -1)));
+            }
+            Map<Output, XmlWriter> xmlWriters = new EnumMap<>(Output.class);
+            Map<Output, JsonWriter> jsonWriters = new EnumMap<>(Output.class);
+            for (Map.Entry<Output, Writer> entry : writers.entrySet()) {
+                if (isJson(entry.getKey())) {
+                    JsonWriter json = new JsonWriter(entry.getValue());
+                    json.startObject(Boolean.FALSE);
+                    json.member("semanticCount", semanticCount);
+                    if (entry.getKey() == Output.JSON) {
+                        json.member("syntaxCount", xmlCount);
+                    }
+                    json.member("file", fileName);
+                    json.member("table", title);
+                    json.name("semantics");
+                    json.startArray(Boolean.TRUE);
+                    jsonWriters.put(entry.getKey(), json);
+                } else {
+                    XmlWriter xml = new XmlWriter(entry.getValue());
+                    xml.startDocument();
+                    xml.startElement("semantics");
+                    xml.attribute("semantics", semanticCount);
+                    xml.attribute("xml", xmlCount);
+                    xml.attribute("file", fileName);
+                    xml.attribute("table", title);
+                    xml.whitespace("\n");
+                    xmlWriters.put(entry.getKey(), xml);
+                }
+            }
+            for (NodeSemantic s : semanticNodes) {
+                for (Map.Entry<Output, Writer> entry : writers.entrySet()) {
+                    Output output = entry.getKey();
+                    switch (output) {
+                        case XML:
+                            s.writeXml(xmlWriters.get(output));
+                            xmlWriters.get(output).whitespace("\n");
+                            break;
+                        case SUBSET_XML:
+                        case SEMANTIC_XML:
+                            s.writeSubXml(xmlWriters.get(output), output == Output.SEMANTIC_XML);
+                            xmlWriters.get(output).whitespace("\n");
+                            break;
+                        case SEMANTIC_JSON:
+                        case JSON:
+                            s.writeJson(jsonWriters.get(output), output == Output.SEMANTIC_JSON);
+                            break;
+                    }
+                }
+            }
+            for (Map.Entry<Output, Writer> entry : writers.entrySet()) {
+                if (isJson(entry.getKey())) {
+                    jsonWriters.get(entry.getKey()).endArray();
+                    jsonWriters.get(entry.getKey()).endObject();
+                } else {
+                    xmlWriters.get(entry.getKey()).endElement();
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("ERROR: " + e.getMessage(), e);
+        } finally {
+            for (Writer w : writers.values()) {
+                try {
+                    w.close();
+                } catch (IOException e) {
+                    LOG.error("ERROR: " + e.getMessage(), e);
+                }
+            }
+        }
+        for (File file : files.values()) {
+            mTable.getMetrics().add(ExtractionMetrics.Metric.BYTES_WRITTEN, file.length());
+            LOG.info("\nSaving extracted syntax binding into file:\n\t{}\n", file.getAbsoluteFile());
+        }
+    }
+
+    /**
+     * XML files are saved in at least three different folder (same semantic
+     * data-set, same informative & normative-subset, full table dataset) In the
+     * case of UBL there are even two same informative & normative-subsets.
+     */
+    private File getOutputFile(Output output, String fileName, String title, Boolean isNormative) {
+        String outputPath = mTable.getDocument().getOutputPath();
+        String outputFilePath = null;
+        String outputFileSuffix = isJson(output) ? ".json" : ".xml";
+        if (output == Output.SUBSET_XML) {
+            if (isNormative) {
+                title += FILE_SUFFIX__SUBSET;
+            }
+            String bindingDirName = getBindingDirName(fileName);
+            File newDir = new File(outputPath + File.separator + bindingDirName);
+            newDir.mkdirs();
+            outputFilePath = newDir.getAbsolutePath() + File.separator + title.replaceAll(INVALID_FILE_CHARACTERS, "_") + outputFileSuffix;
+        } else if (output == Output.SEMANTIC_XML || output == Output.SEMANTIC_JSON) {
+            title += FILE_SUFFIX__SEMANTIC;
+            File newDir = new File(outputPath + File.separator + SAME_SEMANTIC_DIR_NAME);
+            newDir.mkdirs();
+            outputFilePath = newDir.getAbsolutePath() + File.separator + fileName + "_" + title.replaceAll(INVALID_FILE_CHARACTERS, "_") + outputFileSuffix;
+        } else {
+            // informative data needs to be saved twice (root and subdirectory for comparison)
+            File newDir = new File(outputPath + File.separator + fileName);
+            newDir.mkdirs();
+            outputFilePath = newDir.getAbsolutePath() + File.separator + title.replaceAll(INVALID_FILE_CHARACTERS, "_") + outputFileSuffix;
+        }
+        return new File(outputFilePath);
+    }
+
+    private static boolean isJson(Output output) {
+        return output == Output.SEMANTIC_JSON || output == Output.JSON;
+    }
+
+    private String getBindingDirName(String fileName) {
+        String enType = BINDING_TYPE_INVOICE;
+        if (mTable.getDocument().nextSyntaxBindingCount() > 2) {
+            enType = BINDING_TYPE_CREDIT_NOTE;
+        }
+        return SAME_BINDING_PREFIX + enType + fileName;
+    }
+}
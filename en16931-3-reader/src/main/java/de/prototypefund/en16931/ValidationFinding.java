@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+/**
+ * A single finding of the validation of a syntax binding table.
+ *
+ * A finding only references its rule and the location it was found at, the
+ * message is created when being asked for, so collecting findings during
+ * extraction costs no string formatting.
+ */
+public final class ValidationFinding {
+
+    /**
+     * The severity of a finding
+     */
+    public static enum Severity {
+        ERROR, WARNING, INFO
+    }
+
+    /**
+     * The rules being tested, each with its severity and message, where the
+     * argument of the finding replaces "%s".
+     */
+    public static enum Rule {
+
+        SEMANTIC_CARDINALITY_MISSING(Severity.ERROR, "Semantic Cardinality have to be set!"),
+        SYNTAX_CARDINALITY_MISSING(Severity.ERROR, "XML Cardinality have to be set!"),
+        MISMATCH_UNKNOWN(Severity.ERROR, "Mismatch should be set!"),
+        CARDINALITY_MISMATCH_REPEATED(Severity.ERROR, "Cardinality level %s is multiple times present!"),
+        CARDINALITY_MISMATCH_MISSING(Severity.ERROR, "%s is missing!"),
+        CARDINALITY_MISMATCH_MISPLACED(Severity.ERROR, "%s is misplaced!"),
+        SYNTAX_MISSING(Severity.WARNING, "Semantic without XML representation!"),
+        SEMANTIC_ID_HYPHEN_DIFFERENT(Severity.WARNING, "Semantic ID is using different hyphen characters, hyphen-minus shown as '*', 'START OF GUARDED AREA' as '+': %s"),
+        SEMANTIC_ID_HYPHEN_SAME(Severity.INFO, "Semantic ID is using two identical hyphen!"),
+        SYNTAX_PATH_DUPLICATE(Severity.WARNING, "Syntax path is used by several syntax nodes of the semantics: %s"),
+        INFORMATIVE_SEMANTIC_MISSING(Severity.WARNING, "Semantic of the normative table is missing in the informative table!"),
+        INFORMATIVE_SEMANTIC_ADDED(Severity.WARNING, "Semantic is missing in the normative table!"),
+        INFORMATIVE_SYNTAX_MISSING(Severity.WARNING, "Syntax node of the normative table is missing in the informative table!"),
+        INFORMATIVE_SYNTAX_ADDED(Severity.WARNING, "Syntax node is missing in the normative table!"),
+        INFORMATIVE_DATA_CHANGED(Severity.WARNING, "Informative table differs from the normative table: %s"),
+        SYNTAX_SEMANTIC_DIVERGING(Severity.WARNING, "Semantic differs between the normative tables of UBL and CII: %s");
+
+        private final Severity mSeverity;
+        private final String mMessage;
+
+        Rule(Severity severity, String message) {
+            mSeverity = severity;
+            mMessage = message;
+        }
+
+        public Severity getSeverity() {
+            return mSeverity;
+        }
+
+        String getMessage(String argument) {
+            return argument == null ? mMessage : mMessage.replace("%s", argument);
+        }
+    }
+
+    private final Rule mRule;
+    private final String mDocument;
+    private final String mTable;
+    private final String mSemanticId;
+    private final String mPath;
+    private final String mArgument;
+
+    /**
+     * @param rule the violated rule
+     * @param document the file name of the specification document
+     * @param table the title of the syntax binding table
+     * @param semanticId the ID of the semantic node
+     * @param path the path of the syntax node, might be null
+     * @param argument the argument of the message, might be null
+     */
+    ValidationFinding(Rule rule, String document, String table, String semanticId, String path, String argument) {
+        mRule = rule;
+        mDocument = document;
+        mTable = table;
+        mSemanticId = semanticId;
+        mPath = path;
+        mArgument = argument;
+    }
+
+    public Rule getRule() {
+        return mRule;
+    }
+
+    public Severity getSeverity() {
+        return mRule.getSeverity();
+    }
+
+    /**
+     * @return the file name of the specification document
+     */
+    public String getDocument() {
+        return mDocument;
+    }
+
+    /**
+     * @return the title of the syntax binding table
+     */
+    public String getTable() {
+        return mTable;
+    }
+
+    public String getSemanticId() {
+        return mSemanticId;
+    }
+
+    /**
+     * @return the path of the syntax node, null if the finding is about the
+     * semantic node
+     */
+    public String getPath() {
+        return mPath;
+    }
+
+    /**
+     * @return the message of the finding, created on each call
+     */
+    public String getMessage() {
+        return mRule.getMessage(mArgument);
+    }
+
+    @Override
+    public String toString() {
+        return getSeverity() + ": " + mSemanticId + (mPath == null ? "" : " " + mPath) + ": " + getMessage() + " [" + mRule + "]";
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.ValidationFinding.Rule;
+import de.prototypefund.en16931.ValidationFinding.Severity;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The findings of the validation of syntax binding tables in the order they
+ * were found.
+ *
+ * Findings are collected cheaply during the extraction, a report is only
+ * rendered as text, JSON or JUnit XML when being written. Findings might be
+ * added concurrently by documents being extracted in parallel.
+ */
+public final class ValidationReport {
+
+    private final List<ValidationFinding> mFindings = new ArrayList<>();
+
+    synchronized void add(ValidationFinding finding) {
+        mFindings.add(finding);
+    }
+
+    /**
+     * Adds a finding about the semantic or syntax node of the given table.
+     *
+     * @param path the path of the syntax node, null if the finding is about the
+     * semantic node
+     * @param argument the argument of the message of the rule, might be null
+     */
+    void add(Rule rule, TableContext table, String semanticId, String path, String argument) {
+        add(new ValidationFinding(rule, table.getDocument().getFileName(), table.getTitle(), semanticId, path, argument));
+    }
+
+    /**
+     * Adds all findings of the given report.
+     */
+    void addAll(ValidationReport report) {
+        List<ValidationFinding> findings = report.getFindings();
+        synchronized (this) {
+            mFindings.addAll(findings);
+        }
+    }
+
+    /**
+     * Removes the findings of the given report, e.g. of a former extraction of
+     * a document.
+     */
+    void removeAll(ValidationReport report) {
+        Set<ValidationFinding> findings = Collections.newSetFromMap(new IdentityHashMap<>());
+        findings.addAll(report.getFindings());
+        synchronized (this) {
+            mFindings.removeIf(findings::contains);
+        }
+    }
+
+    /**
+     * @return a copy of all findings in the order they were found
+     */
+    public synchronized List<ValidationFinding> getFindings() {
+        return new ArrayList<>(mFindings);
+    }
+
+    /**
+     * @return the number of findings of the given severity
+     */
+    public synchronized int getCount(Severity severity) {
+        return getCount(mFindings, severity);
+    }
+
+    public synchronized boolean isEmpty() {
+        return mFindings.isEmpty();
+    }
+
+    /**
+     * Saves the report in the format given by the suffix of the file: ".json"
+     * for JSON, ".xml" for JUnit XML, otherwise text.
+     */
+    public void save(File file) throws IOException {
+        String name = file.getName();
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            if (name.endsWith(".json")) {
+                writeJson(w);
+            } else if (name.endsWith(".xml")) {
+                writeJUnitXml(w);
+            } else {
+                writeText(w);
+            }
+        }
+    }
+
+    /**
+     * Writes a line for each finding, preceded by the table whenever the table
+     * changes.
+     */
+    public void writeText(Writer w) throws IOException {
+        ValidationFinding previous = null;
+        for (ValidationFinding finding : getFindings()) {
+            if (previous == null || !isSameTable(previous, finding)) {
+                w.write("\nTable '" + finding.getTable() + "' of '" + finding.getDocument() + "':\n");
+            }
+            w.write(finding.toString());
+            w.write('\n');
+            previous = finding;
+        }
+        w.flush();
+    }
+
+    /**
+     * Writes the count of findings by severity followed by all findings.
+     */
+    public void writeJson(Writer w) throws IOException {
+        List<ValidationFinding> findings = getFindings();
+        JsonWriter json = new JsonWriter(w);
+        json.startObject(Boolean.FALSE);
+        for (Severity severity : Severity.values()) {
+            json.member(severity.name().toLowerCase() + "Count", getCount(findings, severity));
+        }
+        json.name("findings");
+        json.startArray(Boolean.TRUE);
+        for (ValidationFinding finding : findings) {
+            json.startObject(Boolean.FALSE);
+            json.member("severity", finding.getSeverity());
+            json.member("rule", finding.getRule());
+            json.member("document", finding.getDocument());
+            json.member("table", finding.getTable());
+            json.member("semanticId", finding.getSemanticId());
+            json.member("path", finding.getPath());
+            json.member("message", finding.getMessage());
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * Writes the findings in the JUnit XML format understood by CI servers: a
+     * test suite for each table, a test case for each finding, failing for
+     * errors.
+     */
+    public void writeJUnitXml(Writer w) throws IOException {
+        List<ValidationFinding> findings = getFindings();
+        Map<String, List<ValidationFinding>> suites = new LinkedHashMap<>();
+        for (ValidationFinding finding : findings) {
+            suites.computeIfAbsent(finding.getDocument() + ": " + finding.getTable(), k -> new ArrayList<>()).add(finding);
+        }
+        XmlWriter xml = new XmlWriter(w);
+        xml.startDocument();
+        xml.startElement("testsuites");
+        xml.attribute("tests", findings.size());
+        xml.attribute("failures", getCount(findings, Severity.ERROR));
+        for (Map.Entry<String, List<ValidationFinding>> suite : suites.entrySet()) {
+            xml.whitespace("\n\t");
+            xml.startElement("testsuite");
+            xml.attribute("name", suite.getKey());
+            xml.attribute("tests", suite.getValue().size());
+            xml.attribute("failures", getCount(suite.getValue(), Severity.ERROR));
+            for (ValidationFinding finding : suite.getValue()) {
+                xml.whitespace("\n\t\t");
+                xml.startElement("testcase");
+                xml.attribute("classname", finding.getDocument());
+                xml.attribute("name", finding.getSemanticId() + (finding.getPath() == null ? "" : " " + finding.getPath()) + " [" + finding.getRule() + "]");
+                if (finding.getSeverity() == Severity.ERROR) {
+                    xml.startElement("failure");
+                    xml.attribute("type", finding.getRule());
+                    xml.attribute("message", finding.getMessage());
+                    xml.endElement();
+                } else {
+                    xml.startElement("system-out");
+                    xml.text(finding.getSeverity() + ": " + finding.getMessage());
+                    xml.endElement();
+                }
+                xml.endElement();
+            }
+            xml.whitespace("\n\t");
+            xml.endElement();
+        }
+        xml.whitespace("\n");
+        xml.endElement();
+        xml.flush();
+    }
+
+    private static boolean isSameTable(ValidationFinding f1, ValidationFinding f2) {
+        return Objects.equals(f1.getTable(), f2.getTable()) && Objects.equals(f1.getDocument(), f2.getDocument());
+    }
+
+    private static int getCount(List<ValidationFinding> findings, Severity severity) {
+        int count = 0;
+        for (ValidationFinding finding : findings) {
+            if (finding.getSeverity() == severity) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+/**
+ * Internal helper class normalising the whitespace of cell content by a
+ * single scan over the characters.
+ *
+ * The results are equal to the former regular expressions, but the given
+ * instance is returned unchanged if there is nothing to normalise, which is
+ * the usual case.
+ */
+final class Whitespace {
+
+    private Whitespace() {
+    }
+
+    /**
+     * Removes leading and trailing horizontal whitespace, equal to
+     * <code>s.replaceAll("(^\\h*)|(\\h*$)", "")</code>. Like the regular
+     * expression horizontal whitespace in front of a final line terminator is
+     * removed as well.
+     *
+     * @param s the text to be trimmed
+     * @return the trimmed text or the given instance if nothing was trimmed
+     */
+    static String trim(String s) {
+        int length = s.length();
+        int start = 0;
+        while (start < length && isHorizontal(s.charAt(start))) {
+            start++;
+        }
+        int terminator = getFinalTerminatorStart(s, start);
+        int end = terminator;
+        while (end > start && isHorizontal(s.charAt(end - 1))) {
+            end--;
+        }
+        if (start == 0 && end == terminator) {
+            return s;
+        } else if (end == terminator) {
+            return s.substring(start, length);
+        } else if (terminator == length) {
+            return s.substring(start, end);
+        }
+        return new StringBuilder(length - start - terminator + end)
+            .append(s, start, end).append(s, terminator, length).toString();
+    }
+
+    /**
+     * Replaces each sequence of whitespace by a single space, equal to
+     * <code>s.replaceAll("\\s+", " ")</code>.
+     *
+     * @param s the text to be collapsed
+     * @return the collapsed text or the given instance if nothing was
+     * collapsed
+     */
+    static String collapse(String s) {
+        int length = s.length();
+        int i = getFirstCollapsible(s);
+        if (i == length) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(length).append(s, 0, i);
+        boolean isPrecedingSpace = Boolean.FALSE;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (isSpace(c)) {
+                if (!isPrecedingSpace) {
+                    sb.append(' ');
+                    isPrecedingSpace = Boolean.TRUE;
+                }
+            } else {
+                sb.append(c);
+                isPrecedingSpace = Boolean.FALSE;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Collapses and afterwards trims the whitespace of the text, as done for
+     * business terms and descriptions.
+     *
+     * @param s the text to be normalised
+     * @return the normalised text or the given instance if it was already
+     * normalised
+     */
+    static String normalize(String s) {
+        return trim(collapse(s));
+    }
+
+    /**
+     * @param s the text to be tested
+     * @return true if {@link #normalize(String)} would change the text, the
+     * test does not create any object
+     */
+    static boolean hasWhitespaceProblems(String s) {
+        int length = s.length();
+        if (getFirstCollapsible(s) != length) {
+            return Boolean.TRUE;
+        }
+        // there is no whitespace besides single spaces, so trimming is all left
+        if (length == 0) {
+            return Boolean.FALSE;
+        }
+        if (isHorizontal(s.charAt(0))) {
+            return Boolean.TRUE;
+        }
+        int terminator = getFinalTerminatorStart(s, 0);
+        return terminator > 0 && isHorizontal(s.charAt(terminator - 1));
+    }
+
+    /**
+     * @return the text with visible whitespace: space as '.' and Java
+     * abbreviations for \t,\r,\f,\n
+     */
+    static String visualize(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case ' ':
+                    sb.append('.');
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the index of the first whitespace that would be replaced by
+     * {@link #collapse(String)} or the length of the text
+     */
+    private static int getFirstCollapsible(String s) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (isSpace(c) && (c != ' ' || (i + 1 < length && isSpace(s.charAt(i + 1))))) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * The regular expression '$' matches in front of a final line terminator,
+     * so horizontal whitespace is trimmed in front of it.
+     *
+     * @return the index of a final line terminator or the length of the text
+     */
+    private static int getFinalTerminatorStart(String s, int start) {
+        int length = s.length();
+        if (length > start) {
+            char last = s.charAt(length - 1);
+            if (last == '\n') {
+                if (length - 1 > start && s.charAt(length - 2) == '\r') {
+                    return length - 2;
+                }
+                return length - 1;
+            } else if (last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029') {
+                return length - 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @return true for the regular expression '\s' (without
+     * UNICODE_CHARACTER_CLASS)
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return true for the regular expression '\h'
+     */
+    private static boolean isHorizontal(char c) {
+        return c == ' ' || c == '\t' || c == '\u00A0' || c == '\u1680' || c == '\u180E'
+            || (c >= '\u2000' && c <= '\u200A') || c == '\u202F' || c == '\u205F' || c == '\u3000';
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+
+/**
+ * Collects the cell content with whitespace problems of a table. Only the
+ * content is kept, the messages with visible whitespace are formatted when
+ * being logged and only if warnings are enabled.
+ */
+final class WhitespaceDiagnostics {
+
+    private final List<String> mProblems = new ArrayList<>();
+
+    /**
+     * @param id the semantic ID of the row
+     * @param field the name of the column, e.g. "description"
+     * @param content the original content of the cell
+     * @param normalized the content with normalised whitespace
+     */
+    void add(String id, String field, String content, String normalized) {
+        mProblems.add(id);
+        mProblems.add(field);
+        mProblems.add(content);
+        mProblems.add(normalized);
+    }
+
+    int size() {
+        return mProblems.size() / 4;
+    }
+
+    /**
+     * Logs and removes all collected problems.
+     */
+    void log(Logger log) {
+        if (log.isWarnEnabled()) {
+            for (int i = 0; i < mProblems.size(); i += 4) {
+                log.warn("WARNING: " + mProblems.get(i) + " '" + mProblems.get(i + 1) + "' has whitespace problems:"
+                        + "\n\tWith visible whitespace (space = . and Java abbreviations \\t,\\r,\\f,\\n):\n\t\t"
+                        + "\"" + Whitespace.visualize(mProblems.get(i + 2)) + "\"\n");
+                log.warn("\tinstead of:\n\t\t\"" + mProblems.get(i + 3) + "\"\n\n");
+            }
+        }
+        mProblems.clear();
+    }
+}
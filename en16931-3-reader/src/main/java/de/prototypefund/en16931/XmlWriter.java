@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019 Svante Schubert
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming XML writer for the output files.
+ *
+ * Attribute values and text are escaped while being written to the
+ * underlying writer, runs of characters without the need of escaping are
+ * written at once. Indentation is written explicitly via
+ * {@link #whitespace(String)}, so the output is exactly the one of the former
+ * string concatenation, as long as nothing had to be escaped.
+ */
+final class XmlWriter {
+
+    private final Writer mWriter;
+    private final Deque<String> mOpenElements = new ArrayDeque<>();
+    private boolean mIsStartTagOpen = Boolean.FALSE;
+
+    XmlWriter(Writer writer) {
+        mWriter = writer;
+    }
+
+    /**
+     * Writes the XML declaration followed by a line break.
+     */
+    void startDocument() throws IOException {
+        mWriter.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    }
+
+    void startElement(String name) throws IOException {
+        closeStartTag();
+        mWriter.write('<');
+        mWriter.write(name);
+        mOpenElements.push(name);
+        mIsStartTagOpen = Boolean.TRUE;
+    }
+
+    /**
+     * Adds an attribute to the element just started. Nothing is written if
+     * the value is null.
+     */
+    void attribute(String name, Object value) throws IOException {
+        if (value != null) {
+            attribute(name, value.toString());
+        }
+    }
+
+    /**
+     * Adds an attribute to the element just started. Nothing is written if
+     * the value is null.
+     */
+    void attribute(String name, String value) throws IOException {
+        if (value != null) {
+            mWriter.write(' ');
+            mWriter.write(name);
+            mWriter.write("=\"");
+            escape(mWriter, value, Boolean.TRUE);
+            mWriter.write('"');
+        }
+    }
+
+    /**
+     * Writes escaped character content.
+     */
+    void text(String text) throws IOException {
+        closeStartTag();
+        escape(mWriter, text, Boolean.FALSE);
+    }
+
+    /**
+     * Writes whitespace used for indentation without any escaping.
+     */
+    void whitespace(String whitespace) throws IOException {
+        closeStartTag();
+        mWriter.write(whitespace);
+    }
+
+    /**
+     * Ends the current element, as empty element tag if it had no content.
+     */
+    void endElement() throws IOException {
+        String name = mOpenElements.pop();
+        if (mIsStartTagOpen) {
+            mWriter.write("/>");
+            mIsStartTagOpen = Boolean.FALSE;
+        } else {
+            mWriter.write("</");
+            mWriter.write(name);
+            mWriter.write('>');
+        }
+    }
+
+    void flush() throws IOException {
+        mWriter.flush();
+    }
+
+    private void closeStartTag() throws IOException {
+        if (mIsStartTagOpen) {
+            mWriter.write('>');
+            mIsStartTagOpen = Boolean.FALSE;
+        }
+    }
+
+    /**
+     * Escapes markup characters of text or double-quoted attribute values.
+     * Whitespace characters other than space are escaped within attribute
+     * values to survive the attribute value normalisation, characters not
+     * allowed in XML 1.0 are dropped.
+     *
+     * @param w the writer to write into
+     * @param s the text to be escaped
+     * @param isAttribute true if the text is a double-quoted attribute value
+     */
+    static void escape(Writer w, String s, boolean isAttribute) throws IOException {
+        int length = s.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c > '>' && c < 0xD800) {
+                // the usual case: no markup, whitespace or invalid character
+                continue;
+            }
+            String replacement;
+            switch (c) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    // only required to avoid the sequence "]]>" in text
+                    replacement = isAttribute || i < 2 || s.charAt(i - 1) != ']' || s.charAt(i - 2) != ']' ? null : "&gt;";
+                    break;
+                case '"':
+                    replacement = isAttribute ? "&quot;" : null;
+                    break;
+                case '\t':
+                    replacement = isAttribute ? "&#x9;" : null;
+                    break;
+                case '\n':
+                    replacement = isAttribute ? "&#xA;" : null;
+                    break;
+                case '\r':
+                    replacement = "&#xD;";
+                    break;
+                default:
+                    replacement = isAllowed(c, s, i) ? null : "";
+            }
+            if (replacement != null) {
+                if (i > start) {
+                    w.write(s, start, i - start);
+                }
+                w.write(replacement);
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            w.write(s, start, length - start);
+        }
+    }
+
+    /**
+     * @return false for characters not allowed in XML 1.0 (control
+     * characters, U+FFFE, U+FFFF and unpaired surrogates)
+     */
+    private static boolean isAllowed(char c, String s, int i) {
+        if (c < 0x20) {
+            return Boolean.FALSE;
+        } else if (c < 0xD800) {
+            return Boolean.TRUE;
+        } else if (Character.isHighSurrogate(c)) {
+            return i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1));
+        } else if (Character.isLowSurrogate(c)) {
+            return i > 0 && Character.isHighSurrogate(s.charAt(i - 1));
+        }
+        return c != '\uFFFE' && c != '\uFFFF';
+    }
+}
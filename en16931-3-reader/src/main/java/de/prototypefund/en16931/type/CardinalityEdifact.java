@@ -17,14 +17,12 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
  * This enum describes the Cardinality type being used in EN16931-3-4
  */
-public enum CardinalityEdifact {
+public enum CardinalityEdifact implements Type {
 
     /**
      * Cardinalities
@@ -59,9 +57,11 @@ public enum CardinalityEdifact {
         }
     }
 
-    public static CardinalityEdifact getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static CardinalityEdifact getByValue(String value, String semanticID, TypeStatistic statistic) {
         CardinalityEdifact ce = mCardMap.get(value);
+        if (statistic != null) {
+            statistic.count(CardinalityEdifact.class, ce);
+        }
         if (ce == null) {
             LoggerFactory.getLogger(CardinalityEdifact.class.getName()).error("ERROR: There is no cardinality for '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
         }
@@ -80,29 +80,4 @@ public enum CardinalityEdifact {
     CardinalityEdifact(String cardinality) {
         this.mCardinality = cardinality;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
@@ -17,15 +17,13 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
  * This enum describes the CardinalitySemantic type being used in EN16931,
  * which is the same as for XML, but has it is own class for its statistic.
  */
-public enum CardinalitySemantic {
+public enum CardinalitySemantic implements Type {
 
     /**
      * Cardinalities
@@ -46,9 +44,11 @@ public enum CardinalitySemantic {
         }
     }
 
-    public static CardinalitySemantic getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static CardinalitySemantic getByValue(String value, String semanticID, TypeStatistic statistic) {
         CardinalitySemantic c = mCardMap.get(value);
+        if (statistic != null) {
+            statistic.count(CardinalitySemantic.class, c);
+        }
         if (c == null) {
             LoggerFactory.getLogger(CardinalitySemantic.class.getName()).error("ERROR: There is no cardinality for '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
         }
@@ -67,30 +67,5 @@ public enum CardinalitySemantic {
     CardinalitySemantic(String cardinality) {
         this.mCardinality = cardinality;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
 
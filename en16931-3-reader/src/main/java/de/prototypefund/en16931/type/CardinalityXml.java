@@ -17,14 +17,12 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
  * This enum describes the CardinalityXML type being used in EN16931
  */
-public enum CardinalityXml {
+public enum CardinalityXml implements Type {
 
     /**
      * Cardinalities
@@ -45,9 +43,11 @@ public enum CardinalityXml {
         }
     }
 
-    public static CardinalityXml getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static CardinalityXml getByValue(String value, String semanticID, TypeStatistic statistic) {
         CardinalityXml c = mCardMap.get(value);
+        if (statistic != null) {
+            statistic.count(CardinalityXml.class, c);
+        }
         if (c == null) {
             LoggerFactory.getLogger(CardinalityXml.class.getName()).error("ERROR: There is no cardinality for '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
         }
@@ -66,30 +66,5 @@ public enum CardinalityXml {
     CardinalityXml(String cardinality) {
         this.mCardinality = cardinality;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
 
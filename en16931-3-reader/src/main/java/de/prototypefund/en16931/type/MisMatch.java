@@ -21,7 +21,7 @@ import org.slf4j.LoggerFactory;
  * Mismatch on either semantic, structure or cardinality level. Exposing
  * discrepancies.
  */
-public interface MisMatch {
+public interface MisMatch extends Type {
 
     /**
      * @return the MisMatch value
@@ -30,23 +30,25 @@ public interface MisMatch {
 
     /**
      * Creates a single mismatch from its EN16931 value, e.g. "STR-1"
+     *
+     * @param statistic counts the usage of the mismatch, might be null
      */
-    public static MisMatch createMisMatch(String match, String semanticID) {
+    public static MisMatch createMisMatch(String match, String semanticID, TypeStatistic statistic) {
         MisMatch misMatch = null;
         if (match != null && !match.isEmpty()) {
             String ID = match.substring(0, 3);
             switch (ID) {
                 case "CAR":
-                    misMatch = MisMatchCardinality.getByValue(match, semanticID);
+                    misMatch = MisMatchCardinality.getByValue(match, semanticID, statistic);
                     break;
                 case "SEM":
-                    misMatch = MisMatchSemantic.getByValue(match, semanticID);
+                    misMatch = MisMatchSemantic.getByValue(match, semanticID, statistic);
                     break;
                 case "STR":
-                    misMatch = MisMatchStructural.getByValue(match, semanticID);
+                    misMatch = MisMatchStructural.getByValue(match, semanticID, statistic);
                     break;
                 case "SYN":
-                    misMatch = MisMatchDatatype.getByValue(match, semanticID);
+                    misMatch = MisMatchDatatype.getByValue(match, semanticID, statistic);
                     break;
                 default:
                     LoggerFactory.getLogger(MisMatch.class.getName()).error("ERROR: There is no mismatch for '" + match + "' used in Semantic object with ID '" + semanticID + "'!\n");
@@ -17,8 +17,6 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -35,16 +33,68 @@ public enum MisMatchCardinality implements MisMatch {
     CARDINALITY_SINGLE("CAR-4"), // less detail
     CARDINALITY_ELEMENT_MANDATORY("CAR-5"); // higher detail
     private static final Map<String, MisMatchCardinality> mMatchMap = new HashMap<String, MisMatchCardinality>();
+    // the expected cardinality mismatches as bitmask by the ordinals of semantic and syntax cardinality
+    private static final int[][] mXmlMasks;
+    private static final int[][] mEdifactMasks;
 
     static {
         for (MisMatchCardinality c : values()) {
             mMatchMap.put(c.getValue(), c);
         }
+        mXmlMasks = new int[CardinalitySemantic.values().length][CardinalityXml.values().length];
+        for (CardinalitySemantic sem : CardinalitySemantic.values()) {
+            for (CardinalityXml syn : CardinalityXml.values()) {
+                mXmlMasks[sem.ordinal()][syn.ordinal()] = getExpectedMask(sem.getValue(), syn.getValue());
+            }
+        }
+        mEdifactMasks = new int[CardinalitySemantic.values().length][CardinalityEdifact.values().length];
+        for (CardinalitySemantic sem : CardinalitySemantic.values()) {
+            for (CardinalityEdifact syn : CardinalityEdifact.values()) {
+                mEdifactMasks[sem.ordinal()][syn.ordinal()] = getExpectedMask(sem.getValue(), syn.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the cardinality mismatches to be declared for the given
+     * semantic and XML cardinality as bitmask of {@link #getMask()}
+     */
+    public static int getExpectedMask(CardinalitySemantic semantic, CardinalityXml syntax) {
+        return mXmlMasks[semantic.ordinal()][syntax.ordinal()];
+    }
+
+    /**
+     * @return the cardinality mismatches to be declared for the given
+     * semantic and EDIFACT cardinality as bitmask of {@link #getMask()}
+     */
+    public static int getExpectedMask(CardinalitySemantic semantic, CardinalityEdifact syntax) {
+        return mEdifactMasks[semantic.ordinal()][syntax.ordinal()];
+    }
+
+    /**
+     * CAR-1 and CAR-2 are given by a different lower bound, CAR-3 and CAR-4
+     * by a different upper bound of 1 and n.
+     */
+    private static int getExpectedMask(String cSem, String cSyn) {
+        int mask = 0;
+        if (cSem.charAt(0) == '0' && cSyn.charAt(0) == '1') {
+            mask |= CARDINALITY_MANDATORY.getMask();
+        } else if (cSem.charAt(0) == '1' && cSyn.charAt(0) == '0') {
+            mask |= CARDINALITY_OPTIONAL.getMask();
+        }
+        if (cSem.charAt(3) == '1' && cSyn.charAt(3) == 'n') {
+            mask |= CARDINALITY_MULTIPLE.getMask();
+        } else if (cSem.charAt(3) == 'n' && cSyn.charAt(3) == '1') {
+            mask |= CARDINALITY_SINGLE.getMask();
+        }
+        return mask;
     }
 
-    public static MisMatchCardinality getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static MisMatchCardinality getByValue(String value, String semanticID, TypeStatistic statistic) {
         MisMatchCardinality c = mMatchMap.get(value);
+        if (statistic != null) {
+            statistic.count(MisMatchCardinality.class, c);
+        }
         if (c == null) {
             LoggerFactory.getLogger(MisMatchCardinality.class.getName()).error("ERROR: There is no cardinality mismatch for '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
         }
@@ -61,33 +111,22 @@ public enum MisMatchCardinality implements MisMatch {
         return mMatch;
     }
 
-    MisMatchCardinality(String match) {
-        this.mMatch = match;
-    }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
+    /**
+     * @return the single bit of this mismatch within a bitmask of mismatches
+     */
+    public int getMask() {
+        return 1 << ordinal();
     }
 
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
+    /**
+     * @return the number of the mismatch, e.g. 1 for "CAR-1"
+     */
+    public int getLevel() {
+        return ordinal() + 1;
     }
 
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
+    MisMatchCardinality(String match) {
+        this.mMatch = match;
     }
 }
 
@@ -17,8 +17,6 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -40,9 +38,11 @@ public enum MisMatchDatatype implements MisMatch {
         }
     }
 
-    public static MisMatchDatatype getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static MisMatchDatatype getByValue(String value, String semanticID, TypeStatistic statistic) {
         MisMatchDatatype d = mMatchMap.get(value);
+        if (statistic != null) {
+            statistic.count(MisMatchDatatype.class, d);
+        }
         if (d == null) {
             LoggerFactory.getLogger(MisMatchDatatype.class.getName()).error("ERROR: There is no datatype mismatch for '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
         }
@@ -62,30 +62,5 @@ public enum MisMatchDatatype implements MisMatch {
     MisMatchDatatype(String match) {
         this.mMatch = match;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
 
@@ -17,8 +17,6 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -41,9 +39,11 @@ public enum MisMatchSemantic implements MisMatch {
         }
     }
 
-    public static MisMatchSemantic getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static MisMatchSemantic getByValue(String value, String semanticID, TypeStatistic statistic) {
         MisMatchSemantic s = mMatchMap.get(value);
+        if (statistic != null) {
+            statistic.count(MisMatchSemantic.class, s);
+        }
         if (s == null) {
             LoggerFactory.getLogger(MisMatchSemantic.class.getName()).error("ERROR: There is no semantic mismatch for '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
         }
@@ -63,29 +63,4 @@ public enum MisMatchSemantic implements MisMatch {
     MisMatchSemantic(String match) {
         this.mMatch = match;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
@@ -17,8 +17,6 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -42,9 +40,11 @@ public enum MisMatchStructural implements MisMatch {
         }
     }
 
-    public static MisMatchStructural getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static MisMatchStructural getByValue(String value, String semanticID, TypeStatistic statistic) {
         MisMatchStructural s = mMatchMap.get(value);
+        if (statistic != null) {
+            statistic.count(MisMatchStructural.class, s);
+        }
 
         if (s == null) {
             LoggerFactory.getLogger(MisMatchSemantic.class.getName()).error("ERROR: There is no structural mismatch for '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
@@ -65,29 +65,4 @@ public enum MisMatchStructural implements MisMatch {
     MisMatchStructural(String match) {
         this.mMatch = match;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
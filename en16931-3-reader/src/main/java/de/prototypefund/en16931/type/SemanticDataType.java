@@ -17,8 +17,6 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -65,9 +63,11 @@ public enum SemanticDataType implements Type {
         }
     }
 
-    public static SemanticDataType getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static SemanticDataType getByValue(String value, String semanticID, TypeStatistic statistic) {
         SemanticDataType d = mTypeMap.get(value);
+        if (statistic != null) {
+            statistic.count(SemanticDataType.class, d);
+        }
         if (d == null) {
            LoggerFactory.getLogger(SemanticDataType.class.getName()).error("ERROR: The semantic data type being abbreviated '" + value + "' does not exist! Found in Semantic object with ID '" + semanticID + "'!\n");
         }
@@ -86,29 +86,4 @@ public enum SemanticDataType implements Type {
     SemanticDataType(String dataType) {
         this.mDataType = dataType;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
@@ -0,0 +1,153 @@
+/*
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.prototypefund.en16931.type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A semantic ID (e.g. "BT-18-1") parsed once into its text and number parts,
+ * so sorted maps compare the numbers as ints instead of splitting and parsing
+ * the ID for every comparison.
+ *
+ * The order is the one of {@link NumberAwareStringComparator}: "BG-" before
+ * "BT-", "BT-2" before "BT-10" and "BT-1" before "BT-1-1". Hyphen variants
+ * (e.g. the en dash used by "BT-18–1") are taken as hyphen-minus, so both
+ * spellings of an ID are the same key.
+ */
+public final class SemanticIdKey implements Comparable<SemanticIdKey> {
+
+    private static final int NO_NUMBER = -1;
+    private final String mId;
+    private final String mCanonicalId;
+    private final String[] mParts;
+    // the int value of each part, or NO_NUMBER if the part is no (int) number
+    private final int[] mNumbers;
+
+    public SemanticIdKey(String id) {
+        mId = id;
+        mCanonicalId = canonicalizeHyphens(id);
+        List<String> parts = new ArrayList<>(4);
+        int length = mCanonicalId.length();
+        int start = 0;
+        for (int i = 1; i <= length; i++) {
+            if (i == length || isDigit(mCanonicalId.charAt(i)) != isDigit(mCanonicalId.charAt(i - 1))) {
+                parts.add(mCanonicalId.substring(start, i));
+                start = i;
+            }
+        }
+        mParts = parts.toArray(new String[parts.size()]);
+        mNumbers = new int[mParts.length];
+        for (int i = 0; i < mParts.length; i++) {
+            mNumbers[i] = parseNumber(mParts[i]);
+        }
+    }
+
+    /**
+     * @return the ID as given
+     */
+    public String getId() {
+        return mId;
+    }
+
+    /**
+     * @return the ID with all hyphen variants replaced by hyphen-minus
+     */
+    public String getCanonicalId() {
+        return mCanonicalId;
+    }
+
+    @Override
+    public int compareTo(SemanticIdKey other) {
+        int partCount = Math.min(mParts.length, other.mParts.length);
+        for (int i = 0; i < partCount; i++) {
+            if (mNumbers[i] != NO_NUMBER && other.mNumbers[i] != NO_NUMBER) {
+                int diff = Integer.compare(mNumbers[i], other.mNumbers[i]);
+                if (diff != 0) {
+                    return diff;
+                }
+            } else if (!mParts[i].equals(other.mParts[i])) {
+                return mCanonicalId.compareTo(other.mCanonicalId);
+            }
+        }
+        // nothing comes before something
+        int diff = Integer.compare(mParts.length, other.mParts.length);
+        if (diff == 0) {
+            // e.g. "BT-1" before "BT-01"
+            diff = Integer.compare(mCanonicalId.length(), other.mCanonicalId.length());
+            if (diff == 0) {
+                diff = mCanonicalId.compareTo(other.mCanonicalId);
+            }
+        }
+        return diff;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SemanticIdKey && mCanonicalId.equals(((SemanticIdKey) o).mCanonicalId);
+    }
+
+    @Override
+    public int hashCode() {
+        return mCanonicalId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mId;
+    }
+
+    private static String canonicalizeHyphens(String id) {
+        for (int i = 0; i < id.length(); i++) {
+            if (isHyphenVariant(id.charAt(i))) {
+                char[] chars = id.toCharArray();
+                for (; i < chars.length; i++) {
+                    if (isHyphenVariant(chars[i])) {
+                        chars[i] = '-';
+                    }
+                }
+                return new String(chars);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * @return true for hyphen, non-breaking hyphen, figure dash, en dash and
+     * minus sign
+     */
+    private static boolean isHyphenVariant(char c) {
+        return (c >= '\u2010' && c <= '\u2013') || c == '\u2212';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return the value of a part of digits or NO_NUMBER if it is no digit
+     * part or exceeds an int
+     */
+    private static int parseNumber(String part) {
+        if (!isDigit(part.charAt(0)) || part.length() > 9) {
+            return NO_NUMBER;
+        }
+        int number = 0;
+        for (int i = 0; i < part.length(); i++) {
+            number = number * 10 + (part.charAt(i) - '0');
+        }
+        return number;
+    }
+}
@@ -17,8 +17,6 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -50,9 +48,11 @@ public enum SyntaxType implements Type {
         }
     }
 
-    public static SyntaxType getByValue(String value, String semanticID) {
-        updateStatistic(value);
+    public static SyntaxType getByValue(String value, String semanticID, TypeStatistic statistic) {
         SyntaxType t = mTypeMap.get(value);
+        if (statistic != null) {
+            statistic.count(SyntaxType.class, t);
+        }
 
         if (t == null) {
             LoggerFactory.getLogger(SyntaxType.class.getName()).error("ERROR: It do not exist a syntax type of '" + value + "'. Found in Semantic object with ID '" + semanticID + "'!\n");
@@ -72,30 +72,5 @@ public enum SyntaxType implements Type {
     SyntaxType(String type) {
         this.mType = type;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
 
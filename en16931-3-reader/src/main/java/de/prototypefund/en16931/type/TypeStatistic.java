@@ -15,171 +15,186 @@
  */
 package de.prototypefund.en16931.type;
 
-import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  *
  * This class creates a statistic from the counting of the types during an
- * extraction run, e.g. test.
+ * extraction run, e.g. test. Each table counts its types within its own
+ * instance, the statistic of all documents is kept by the extraction.
+ *
+ * The occurrences of each type are counted by LongAdders indexed by the
+ * ordinal of the enum value, with an additional counter for unknown values,
+ * so tables can be counted and summed up in parallel without locking.
  */
 public class TypeStatistic {
 
     private static Logger LOG = LoggerFactory.getLogger(TypeStatistic.class.getName());
-    // one global map for each data type
-    private static SortedMap<String, Integer> mSemanticDataTypes = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mMismatchCardinality = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mMismatchDataTypes = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mMismatchSemantic = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mMismatchStructural = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mTypesOfXml = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mTypesOfUblXml = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mCardinalites = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mCardinalitesSemantic = new TreeMap<String, Integer>();
-    private static SortedMap<String, Integer> mCardinalitesEdifact = new TreeMap<String, Integer>();
+    private static final String UNKNOWN = "UNKNOWN";
+    // all types being counted
+    private static final List<Class<? extends Enum<?>>> TYPES = List.of(
+            SemanticDataType.class, CardinalitySemantic.class,
+            MisMatchCardinality.class, MisMatchDatatype.class, MisMatchSemantic.class, MisMatchStructural.class,
+            UblDataType.class, SyntaxType.class, CardinalityXml.class, CardinalityEdifact.class);
+    // the counters of each type, all being created in advance, so the map is never changed
+    private final Map<Class<?>, Counter> mCounters = new HashMap<>();
+
+    public TypeStatistic() {
+        for (Class<? extends Enum<?>> type : TYPES) {
+            mCounters.put(type, new Counter(type.getEnumConstants().length));
+        }
+    }
 
     /**
-     * Logs for each data type its occurrences and resets the counter. Usually
-     * being called after parsing a table.
+     * The occurrences of the values of a single type.
      */
-    static public void table(String tableTitle, Boolean isXML, Boolean isUBL) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\n--------------------------------------------------------------------------------------------------------\n");
-        sb.append("TABLE DATATYPE STATISTIC:\n\t").append(tableTitle).append("\n");
-        sb.append("--------------------------------------------------------------------------------------------------------\n");
-
-        SortedMap<String, Integer> m = SemanticDataType.getStatistic();
-        log(sb.append("* Semantic Data Type (BT only)"), m);
-        if (m != null) {
-            mSemanticDataTypes.putAll(m);
-            m.clear();
-            SemanticDataType.clearStatistic();
-        }
+    private static final class Counter {
 
-        m = CardinalitySemantic.getStatistic();
-        log(sb.append("* Cardinalities used by Semantic (BT & BG)"), m);
-        if (m != null) {
-            mCardinalitesSemantic.putAll(m);
-            m.clear();
-            CardinalitySemantic.clearStatistic();
-        }
+        private final LongAdder[] mCounts;
+        private final LongAdder mUnknown = new LongAdder();
 
-        m = MisMatchCardinality.getStatistic();
-        log(sb.append("* Mismatch Cardinal."), m);
-        if (m != null) {
-            mMismatchCardinality.putAll(m);
-            m.clear();
-            MisMatchCardinality.clearStatistic();
+        Counter(int valueCount) {
+            mCounts = new LongAdder[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                mCounts[i] = new LongAdder();
+            }
         }
 
-        m = MisMatchDatatype.getStatistic();
-        log(sb.append("* Mismatch Data Type"), MisMatchDatatype.getStatistic());
-        if (m != null) {
-            mMismatchDataTypes.putAll(m);
-            m.clear();
-            MisMatchDatatype.clearStatistic();
+        void count(Enum<?> value) {
+            if (value == null) {
+                mUnknown.increment();
+            } else {
+                mCounts[value.ordinal()].increment();
+            }
         }
 
-        m = MisMatchSemantic.getStatistic();
-        log(sb.append("* Mismatch Semantic"), MisMatchSemantic.getStatistic());
-        if (m != null) {
-            mMismatchSemantic.putAll(m);
-            m.clear();
-            MisMatchSemantic.clearStatistic();
+        void add(Counter counter, int sign) {
+            for (int i = 0; i < mCounts.length; i++) {
+                mCounts[i].add(sign * counter.mCounts[i].sum());
+            }
+            mUnknown.add(sign * counter.mUnknown.sum());
         }
+    }
 
-        m = MisMatchStructural.getStatistic();
-        log(sb.append("* Mismatch Structural"), m);
-        if (m != null) {
-            mMismatchStructural.putAll(m);
-            m.clear();
-            MisMatchStructural.clearStatistic();
-        }
+    /**
+     * Counts an occurrence of the given value of the given type, usually being
+     * called for every type value parsed from a table cell.
+     *
+     * @param value the value of the type or null if the parsed value was
+     * unknown
+     */
+    <E extends Enum<E>> void count(Class<E> type, E value) {
+        mCounters.get(type).count(value);
+    }
 
-        m = SyntaxType.getStatistic();
+    /**
+     * @return the occurrences of the given value
+     */
+    public long getCount(Enum<?> value) {
+        return mCounters.get(value.getDeclaringClass()).mCounts[value.ordinal()].sum();
+    }
 
-        if (isUBL) {
-            m = UblDataType.getStatistic();
-            log(sb.append("* Types of UBL XML (BT only)"), m);
-            if (m != null) {
-                mTypesOfUblXml.putAll(m);
-                m.clear();
-                UblDataType.clearStatistic();
-            }
-        } else {
-            if (isXML) {
-                log(sb.append("* Types of CII XML Syntax (BT only)"), m);
+    /**
+     * @return the occurrences of values unknown to the given type
+     */
+    public long getUnknownCount(Class<? extends Enum<?>> type) {
+        return mCounters.get(type).mUnknown.sum();
+    }
+
+    /**
+     * Adds the occurrences of the given statistic to this statistic.
+     */
+    public void add(TypeStatistic statistic) {
+        add(statistic, 1);
+    }
+
+    /**
+     * Subtracts the occurrences of the given statistic, which had been added
+     * before, e.g. of a document being extracted again.
+     */
+    public void remove(TypeStatistic statistic) {
+        add(statistic, -1);
+    }
+
+    private void add(TypeStatistic statistic, int sign) {
+        for (Map.Entry<Class<?>, Counter> counter : mCounters.entrySet()) {
+            counter.getValue().add(statistic.mCounters.get(counter.getKey()), sign);
+        }
+    }
+
+    /**
+     * Logs for each data type its occurrences. Usually being called after
+     * parsing a table.
+     */
+    public void table(String tableTitle, Boolean isXML, Boolean isUBL) {
+        if (LOG.isInfoEnabled()) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("\n--------------------------------------------------------------------------------------------------------\n");
+            sb.append("TABLE DATATYPE STATISTIC:\n\t").append(tableTitle).append("\n");
+            sb.append("--------------------------------------------------------------------------------------------------------\n");
+            log(sb.append("* Semantic Data Type (BT only)"), SemanticDataType.class);
+            log(sb.append("* Cardinalities used by Semantic (BT & BG)"), CardinalitySemantic.class);
+            log(sb.append("* Mismatch Cardinal."), MisMatchCardinality.class);
+            log(sb.append("* Mismatch Data Type"), MisMatchDatatype.class);
+            log(sb.append("* Mismatch Semantic"), MisMatchSemantic.class);
+            log(sb.append("* Mismatch Structural"), MisMatchStructural.class);
+            if (isUBL) {
+                log(sb.append("* Types of UBL XML (BT only)"), UblDataType.class);
+            } else if (isXML) {
+                log(sb.append("* Types of CII XML Syntax (BT only)"), SyntaxType.class);
             } else {
-                log(sb.append("* Types of EDIFACT Syntax (BT only)"), m);
+                log(sb.append("* Types of EDIFACT Syntax (BT only)"), SyntaxType.class);
             }
-            if (m != null) {
-                mTypesOfXml.putAll(m);
-                m.clear();
-                SyntaxType.clearStatistic();
+            if (isUBL) {
+                log(sb.append("* Cardinalities used by UBL XML (BT & BG)"), CardinalityXml.class);
+            } else {
+                log(sb.append("* Cardinalities used by CII XML (BT & BG)"), CardinalityXml.class);
             }
-        }
-
-        m = CardinalityXml.getStatistic();
-        if (isUBL) {
-            log(sb.append("* Cardinalities used by UBL XML (BT & BG)"), m);
-        } else {
-            log(sb.append("* Cardinalities used by CII XML (BT & BG)"), m);
-        }
-        if (m != null) {
-            mCardinalites.putAll(m);
-            m.clear();
-            CardinalityXml.clearStatistic();
-        }
-        if (!isXML) {
-            m = CardinalityEdifact.getStatistic();
-            log(sb.append("* Cardinalities used by EDIFACT"), m);
-            if (m != null) {
-                mCardinalitesEdifact.putAll(m);
-                m.clear();
-                CardinalityEdifact.clearStatistic();
+            if (!isXML) {
+                log(sb.append("* Cardinalities used by EDIFACT"), CardinalityEdifact.class);
             }
+            LOG.info(sb.toString());
         }
-        LOG.info(sb.toString());
-        sb.append("\n----------------------------------------------------\n");
     }
 
     /**
-     * Logs for each data type its occurrences during the extraction run. Best
-     * called after a test of various documents.
+     * Logs for each data type its occurrences in all documents, this being the
+     * statistic of an extraction. Best called after a test of various
+     * documents.
      */
-    static public void allDocuments() {
+    public void allDocuments() {
         StringBuilder sb = new StringBuilder();
         sb.append("\n\n\n+++ GLOABL DATATYPE USAGE STATISTIC:\n");
         sb.append("++++++++++++++++++++++++++++++++++++++++++++++++++++\n");
-        log(sb.append("+ Semantic Data Type"), mSemanticDataTypes);
-        log(sb.append("+ Mismatch Cardinal."), mMismatchCardinality);
-        log(sb.append("+ Mismatch Data Type"), mMismatchDataTypes);
-        log(sb.append("+ Mismatch Semantic"), mMismatchSemantic);
-        log(sb.append("+ Mismatch Structural"), mMismatchStructural);
-        log(sb.append("+ Types of UBL"), mTypesOfUblXml);
-        log(sb.append("+ Types of EDIFACT/CII"), mTypesOfXml);
-        log(sb.append("+ Cardinalities used by Semantic and XML"), mCardinalites);
-        log(sb.append("+ Cardinalities used by EDIFACT"), mCardinalitesEdifact);
+        log(sb.append("+ Semantic Data Type"), SemanticDataType.class);
+        log(sb.append("+ Cardinalities used by Semantic"), CardinalitySemantic.class);
+        log(sb.append("+ Mismatch Cardinal."), MisMatchCardinality.class);
+        log(sb.append("+ Mismatch Data Type"), MisMatchDatatype.class);
+        log(sb.append("+ Mismatch Semantic"), MisMatchSemantic.class);
+        log(sb.append("+ Mismatch Structural"), MisMatchStructural.class);
+        log(sb.append("+ Types of UBL"), UblDataType.class);
+        log(sb.append("+ Types of EDIFACT/CII"), SyntaxType.class);
+        log(sb.append("+ Cardinalities used by XML"), CardinalityXml.class);
+        log(sb.append("+ Cardinalities used by EDIFACT"), CardinalityEdifact.class);
         sb.append("++++++++++++++++++++++++++++++++++++++++++++++++++++\n");
         LOG.info(sb.toString());
     }
 
-
-    static private void log(StringBuilder sb, SortedMap<String, Integer> statistic) {
+    private void log(StringBuilder sb, Class<? extends Enum<?>> type) {
+        Counter counter = mCounters.get(type);
+        Enum<?>[] values = type.getEnumConstants();
+        long total = 0;
         sb.append(": ");
-        if (statistic != null && !statistic.isEmpty()) {
-            Set<String> keys = statistic.keySet();
-            int total = 0;
-            int current = 0;
-            for (String key : keys) {
-                sb.append("\n\t");
-                current = statistic.get(key);
-                sb.append(key).append(" : ").append(current);
-                total += current;
-            }
+        for (int i = 0; i < values.length; i++) {
+            total += log(sb, ((Type) values[i]).getValue(), counter.mCounts[i].sum());
+        }
+        total += log(sb, UNKNOWN, counter.mUnknown.sum());
+        if (total > 0) {
             sb.append("\n\t--------");
             sb.append("\n\tTOTAL: " + total);
         } else {
@@ -187,4 +202,12 @@ public class TypeStatistic {
         }
         sb.append("\n\n");
     }
+
+    private static long log(StringBuilder sb, String value, long current) {
+        if (current > 0) {
+            sb.append("\n\t");
+            sb.append(value).append(" : ").append(current);
+        }
+        return current;
+    }
 }
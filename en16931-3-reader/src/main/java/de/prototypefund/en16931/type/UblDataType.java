@@ -17,8 +17,6 @@ package de.prototypefund.en16931.type;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -63,9 +61,11 @@ public enum UblDataType implements Type {
         }
     }
 
-    public static UblDataType getByValue(String value, String ublID) {
-        updateStatistic(value);
+    public static UblDataType getByValue(String value, String ublID, TypeStatistic statistic) {
         UblDataType d = mTypeMap.get(value);
+        if (statistic != null) {
+            statistic.count(UblDataType.class, d);
+        }
         if (d == null) {
            LoggerFactory.getLogger(SyntaxType.class.getName()).error("ERROR: The UBL XML data type being abbreviated '" + value + "' does not exist! Found in UBL object with ID '" + ublID + "'!\n");
         }
@@ -85,29 +85,4 @@ public enum UblDataType implements Type {
     UblDataType(String dataType) {
         this.mDataType = dataType;
     }
-
-    private static SortedMap<String, Integer> statistic = null;
-
-    static private void updateStatistic(String value){
-        if(statistic == null){
-           statistic = new TreeMap<String, Integer>();
-        }
-        Integer occurances = statistic.get(value);
-        if(occurances == null){
-            occurances = 1;
-        }else{
-            occurances += 1;
-        }
-        statistic.put(value, occurances);
-    }
-
-    static SortedMap<String, Integer> getStatistic(){
-        return statistic;
-    }
-
-    static void clearStatistic(){
-        if(statistic != null){
-            statistic.clear();
-        }
-    }
 }
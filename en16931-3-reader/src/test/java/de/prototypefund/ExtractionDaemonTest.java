@@ -0,0 +1,82 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExtractionDaemonTest {
+
+    private static final String ODT_EXAMPLE = "16931-3-3_example.odt";
+
+    /* A job submitted to the daemon shall save the output files into the given directory. */
+    @Test
+    public void submit() throws Exception {
+        File testFolder = new File(ExtractionDaemonTest.class.getClassLoader().getResource("").toURI());
+        File outputDir = new File(testFolder, "daemon");
+        File tokenDir = new File(testFolder.getParentFile(), "daemon-token");
+        try (ExtractionDaemon daemon = new ExtractionDaemon(0, tokenDir)) {
+            Thread thread = new Thread(daemon::run);
+            thread.start();
+            StringWriter out = new StringWriter();
+            File tokenFile = ExtractionDaemon.getTokenFile(tokenDir, daemon.getPort());
+            if (tokenFile.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile.toPath())));
+            }
+            Assert.assertTrue(ExtractionDaemon.submit(daemon.getPort(), tokenDir,
+                    Arrays.asList("--output=" + outputDir.getAbsolutePath(), new File(testFolder, ODT_EXAMPLE).getAbsolutePath()), out));
+            Assert.assertEquals(2, new File(outputDir, "16931-3-3_example").listFiles().length);
+
+            // an invalid job shall not stop the daemon
+            out = new StringWriter();
+            Assert.assertFalse(ExtractionDaemon.submit(daemon.getPort(), tokenDir, Arrays.asList("--parallel=x"), out));
+            Assert.assertEquals("Invalid option: --parallel=x\n", out.toString());
+
+            // a job without the token shall be rejected
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+                Writer job = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+                job.write("wrong token\n" + ExtractionDaemon.STOP + "\n\n");
+                job.flush();
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                Assert.assertEquals("Invalid token of the extraction daemon!", in.readLine());
+                Assert.assertEquals(ExtractionDaemon.EXIT_PREFIX + "1", in.readLine());
+            }
+            Assert.assertTrue(thread.isAlive());
+            Assert.assertTrue(ExtractionDaemon.submit(daemon.getPort(), tokenDir, Collections.singletonList(ExtractionDaemon.STOP), out));
+            thread.join(10000);
+            Assert.assertFalse(thread.isAlive());
+            Assert.assertFalse(tokenFile.exists());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BindingIndexTest {
+
+    private static final String ODT_EXAMPLE = "16931-3-3_example.odt";
+
+    /* The syntax paths of the example shall be found by semantic ID, exact path and path prefix. */
+    @Test
+    public void lookups() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setIndexing(true);
+        extraction.collectSpecData(ODT_EXAMPLE);
+        BindingIndex index = extraction.getBindingIndex();
+        int syntaxCount = index.getSyntaxCount(BindingIndex.Syntax.CII);
+        Assert.assertTrue(syntaxCount > 0);
+        Assert.assertEquals(0, index.getSyntaxCount(BindingIndex.Syntax.UBL));
+
+        List<NodeSyntax> nodes = index.getSyntaxNodesByPath(BindingIndex.Syntax.CII, "/my:invoice/my:DateTimeString/@format");
+        Assert.assertFalse(nodes.isEmpty());
+        for (NodeSyntax node : nodes) {
+            Assert.assertEquals("BT-2", node.getSemanticNode().getId());
+        }
+        for (NodeSyntax node : index.getSyntaxNodes("BT-2", BindingIndex.Syntax.CII)) {
+            Assert.assertTrue(node.getPath().startsWith("/my:invoice/my:DateTimeString"));
+        }
+        Assert.assertEquals(index.getSyntaxNodes("BT-2", BindingIndex.Syntax.CII).size(),
+                index.getSyntaxNodesByPrefix(BindingIndex.Syntax.CII, "/my:invoice/my:DateTimeString").size());
+        Assert.assertTrue(index.getSyntaxNodesByPrefix(BindingIndex.Syntax.CII, "/my:invoice/my:Date").isEmpty());
+        Assert.assertEquals(syntaxCount, index.getSyntaxNodesByPrefix(BindingIndex.Syntax.CII, "/my:invoice").size());
+        Assert.assertFalse(index.getSemantics("BT–1").isEmpty());
+
+        // a document extracted again replaces its former tables
+        extraction.collectSpecData(ODT_EXAMPLE);
+        Assert.assertEquals(syntaxCount, index.getSyntaxCount(BindingIndex.Syntax.CII));
+    }
+
+    /* By default the data model of a document is not kept after its output files were written. */
+    @Test
+    public void notIndexing() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.collectSpecData(ODT_EXAMPLE);
+        Assert.assertEquals(0, extraction.getBindingIndex().getSyntaxCount(BindingIndex.Syntax.CII));
+        Assert.assertTrue(extraction.getBindingIndex().getDocuments().isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExtractionEventsTest {
+
+    private static final String ODT_EXAMPLE = "16931-3-3_example.odt";
+
+    /* A recording with the extraction events enabled shall contain all of them, the row events only when explicitly enabled. */
+    @Test
+    public void recording() throws Exception {
+        File recordingFile = new File(FileHelper.getTestOutputFolder(), "extraction.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ExtractionEvents.DocumentLoad.class);
+            recording.enable(ExtractionEvents.Table.class);
+            recording.enable(ExtractionEvents.Row.class);
+            recording.enable(ExtractionEvents.Validation.class);
+            recording.enable(ExtractionEvents.FileWrite.class);
+            recording.start();
+            OdtTableExtraction extraction = new OdtTableExtraction();
+            extraction.collectSpecData(ODT_EXAMPLE);
+            recording.stop();
+            recording.dump(recordingFile.toPath());
+        }
+        Set<String> eventNames = new HashSet<>();
+        int tableCount = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile.toPath())) {
+            String name = event.getEventType().getName();
+            eventNames.add(name);
+            if (name.equals("de.prototypefund.en16931.Table")) {
+                Assert.assertEquals(ODT_EXAMPLE, event.getString("document"));
+                Assert.assertTrue(event.getLong("rows") > 0);
+                tableCount++;
+            }
+        }
+        Assert.assertEquals(2, tableCount);
+        Assert.assertTrue(eventNames.contains("de.prototypefund.en16931.DocumentLoad"));
+        Assert.assertTrue(eventNames.contains("de.prototypefund.en16931.Row"));
+        Assert.assertTrue(eventNames.contains("de.prototypefund.en16931.Validation"));
+        Assert.assertTrue(eventNames.contains("de.prototypefund.en16931.FileWrite"));
+    }
+}
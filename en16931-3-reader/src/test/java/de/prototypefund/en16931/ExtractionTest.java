@@ -20,6 +20,14 @@
  *********************************************************************** */
 package de.prototypefund.en16931;
 
+import de.prototypefund.en16931.type.CardinalitySemantic;
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +38,9 @@ public class ExtractionTest {
         Path can be relative to working directory "en16831-3-reader" or
         to the classpath "target/test-classes", where files from "src/test/resources" will be copied to! */
     private static final String ODT_RESOURCE =   "./"; // or only a single document via "16931-3-3_example.odt";
+    private static final String ODT_EXAMPLE = "16931-3-3_example.odt";
+    // relative to the working directory "en16831-3-reader"
+    private static final String DOCS_RESOURCES = "../docs/resources/";
 
     @Test
     public void collectSpecData() throws Exception {
@@ -39,4 +50,238 @@ public class ExtractionTest {
             LoggerFactory.getLogger(ExtractionTest.class.getName()).error("ERROR: " + t.getMessage(), t);
         }
     }
+
+    /* The streaming extraction shall result into the same output files as the extraction via ODFDOM. */
+    @Test
+    public void collectSpecDataStreaming() throws Exception {
+        OdtTableExtraction domExtraction = new OdtTableExtraction();
+        File domDir = newOutputDirectory("dom");
+        domExtraction.setOutputDirectory(domDir);
+        domExtraction.collectSpecData(ODT_EXAMPLE);
+        Map<String, String> domOutput = loadOutputFiles(domDir);
+
+        OdtTableExtraction streamingExtraction = new OdtTableExtraction();
+        File streamingDir = newOutputDirectory("streaming");
+        streamingExtraction.setOutputDirectory(streamingDir);
+        streamingExtraction.setStreaming(true);
+        streamingExtraction.collectSpecData(ODT_EXAMPLE);
+        Map<String, String> streamingOutput = loadOutputFiles(streamingDir);
+
+        Assert.assertFalse(domOutput.isEmpty());
+        Assert.assertEquals(domOutput, streamingOutput);
+    }
+
+    /* The parallel extraction of a directory shall result into the same output files as the sequential extraction. */
+    @Test
+    public void collectSpecDataParallel() throws Exception {
+        OdtTableExtraction sequentialExtraction = new OdtTableExtraction();
+        File sequentialDir = newOutputDirectory("sequential");
+        sequentialExtraction.setOutputDirectory(sequentialDir);
+        sequentialExtraction.collectSpecData(ODT_RESOURCE);
+        Map<String, String> sequentialOutput = loadOutputFiles(sequentialDir);
+
+        OdtTableExtraction parallelExtraction = new OdtTableExtraction();
+        File parallelDir = newOutputDirectory("parallel");
+        parallelExtraction.setOutputDirectory(parallelDir);
+        parallelExtraction.setParallelism(4);
+        parallelExtraction.collectSpecData(ODT_RESOURCE);
+        Map<String, String> parallelOutput = loadOutputFiles(parallelDir);
+
+        Assert.assertFalse(sequentialOutput.isEmpty());
+        Assert.assertEquals(sequentialOutput, parallelOutput);
+    }
+
+    /* The output of the example shall equal the documented files under docs/resources, which are indented by spaces instead of tabs. */
+    @Test
+    public void goldenFiles() throws Exception {
+        new OdtTableExtraction().collectSpecData(ODT_EXAMPLE);
+        File outputDir = new File(FileHelper.getTestOutputFolder(), "16931-3-3_example");
+        for (File output : outputDir.listFiles()) {
+            String golden = null;
+            if (output.getName().endsWith("(normative).xml")) {
+                golden = "16931-3-3_example_normative.xml";
+            } else if (output.getName().endsWith("(informative).xml")) {
+                golden = "16931-3-3_example_informative.xml";
+            }
+            if (golden != null) {
+                String expected = FileHelper.loadFileAsString(new File(DOCS_RESOURCES + golden));
+                Assert.assertEquals(expected.trim(), FileHelper.loadFileAsString(output).replace("\t", "    "));
+            }
+        }
+    }
+
+    /* A second extraction with the cache shall not parse the document, but result into the same output files. */
+    @Test
+    public void collectSpecDataCached() throws Exception {
+        File cacheDir = new File(FileHelper.getTestOutputFolder(), "cache");
+        delete(cacheDir);
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setCacheDirectory(cacheDir);
+        File parsedDir = newOutputDirectory("parsed");
+        extraction.setOutputDirectory(parsedDir);
+        extraction.collectSpecData(ODT_EXAMPLE);
+        Map<String, String> parsedOutput = loadOutputFiles(parsedDir);
+        Assert.assertEquals(0, extraction.getMetrics().get(ExtractionMetrics.Metric.CACHED_DOCUMENTS));
+        Assert.assertEquals(1, cacheDir.listFiles().length);
+        long lastModified = cacheDir.listFiles()[0].lastModified();
+
+        File cachedDir = newOutputDirectory("cached");
+        extraction.setOutputDirectory(cachedDir);
+        extraction.collectSpecData(ODT_EXAMPLE);
+        Map<String, String> cachedOutput = loadOutputFiles(cachedDir);
+        Assert.assertEquals(1, extraction.getMetrics().get(ExtractionMetrics.Metric.CACHED_DOCUMENTS));
+        Assert.assertEquals(1, cacheDir.listFiles().length);
+        Assert.assertEquals(lastModified, cacheDir.listFiles()[0].lastModified());
+        Assert.assertFalse(parsedOutput.isEmpty());
+        Assert.assertEquals(parsedOutput, cachedOutput);
+    }
+
+    /* The tables restored from the cache shall be validated and compared like parsed ones, resulting into the same findings. */
+    @Test
+    public void validationReportCached() throws Exception {
+        File cacheDir = new File(FileHelper.getTestOutputFolder(), "cache-validation");
+        delete(cacheDir);
+        List<String> findings = new ArrayList<>();
+        long[] findingCounts = new long[2];
+        for (int run = 0; run < 2; run++) {
+            OdtTableExtraction extraction = new OdtTableExtraction();
+            extraction.setCacheDirectory(cacheDir);
+            extraction.setComparingTables(true);
+            extraction.setOutputDirectory(newOutputDirectory("validation-" + run));
+            extraction.collectSpecData(ODT_EXAMPLE);
+            Assert.assertEquals(run, extraction.getMetrics().get(ExtractionMetrics.Metric.CACHED_DOCUMENTS));
+            findings.add(extraction.getValidationReport().getFindings().toString());
+            findingCounts[run] = extraction.getMetrics().get(ExtractionMetrics.Metric.ERRORS) + extraction.getMetrics().get(ExtractionMetrics.Metric.WARNINGS);
+        }
+        Assert.assertNotEquals("[]", findings.get(0));
+        Assert.assertEquals(findings.get(0), findings.get(1));
+        Assert.assertEquals(findingCounts[0], findingCounts[1]);
+    }
+
+    /* The JSON binding of a table shall contain the syntax data, which is missing in the JSON of the semantic data. */
+    @Test
+    public void bindingJson() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setBindingJson(true);
+        extraction.collectSpecData(ODT_EXAMPLE);
+        File outputDir = new File(FileHelper.getTestOutputFolder(), "16931-3-3_example");
+        int jsonCount = 0;
+        for (File output : outputDir.listFiles()) {
+            if (output.getName().endsWith(".json")) {
+                String json = FileHelper.loadFileAsString(output);
+                Assert.assertTrue(json.startsWith("{\"semanticCount\":\"2\", \"syntaxCount\":"));
+                Assert.assertTrue(json.contains("\"syntaxRepresentations\":["));
+                jsonCount++;
+            }
+        }
+        Assert.assertEquals(2, jsonCount);
+    }
+
+    /* The validation findings of all tables are collected by the extraction, the example has no errors. */
+    @Test
+    public void validationReport() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.collectSpecData(ODT_EXAMPLE);
+        Assert.assertEquals(0, extraction.getValidationReport().getCount(ValidationFinding.Severity.ERROR));
+    }
+
+    /* The metrics of the tables are summed up to their document and run. */
+    @Test
+    public void metrics() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.collectSpecData(ODT_EXAMPLE);
+        ExtractionMetrics run = extraction.getMetrics();
+        Assert.assertEquals(1, run.get(ExtractionMetrics.Metric.DOCUMENTS));
+        Assert.assertEquals(2, run.get(ExtractionMetrics.Metric.TABLES));
+        ExtractionMetrics document = run.getChildren().get(0);
+        Assert.assertEquals(ODT_EXAMPLE, document.getDocument());
+        long rows = 0;
+        for (ExtractionMetrics table : document.getChildren()) {
+            Assert.assertTrue(table.get(ExtractionMetrics.Metric.BYTES_WRITTEN) > 0);
+            rows += table.get(ExtractionMetrics.Metric.ROWS);
+        }
+        Assert.assertTrue(rows > 0);
+        Assert.assertEquals(rows, run.get(ExtractionMetrics.Metric.ROWS));
+
+        StringWriter prometheus = new StringWriter();
+        run.writePrometheus(prometheus);
+        Assert.assertEquals(new File(FileHelper.getTestOutputFolder(), ODT_EXAMPLE).getAbsolutePath(), document.getPath());
+        Assert.assertTrue(prometheus.toString().contains("\nen16931_document_rows{document=\"" + ODT_EXAMPLE + "\",path=\"" + document.getPath() + "\"} " + rows + "\n"));
+        StringWriter json = new StringWriter();
+        run.writeJson(json);
+        Assert.assertTrue(json.toString().contains("\"rowCount\":" + rows + ", "));
+    }
+
+    /* Metrics with equal labels shall be written as a single series, as Prometheus rejects duplicated series. */
+    @Test
+    public void prometheusDuplicates() throws Exception {
+        ExtractionMetrics run = new ExtractionMetrics(null, null, null);
+        for (String path : new String[]{"/a/spec.odt", "/b/spec.odt", "/b/spec.odt"}) {
+            ExtractionMetrics document = new ExtractionMetrics("spec.odt", path, null);
+            document.add(ExtractionMetrics.Metric.ROWS, 2);
+            run.addChild(document);
+        }
+        StringWriter prometheus = new StringWriter();
+        run.writePrometheus(prometheus);
+        Assert.assertTrue(prometheus.toString().contains("\nen16931_document_rows{document=\"spec.odt\",path=\"/a/spec.odt\"} 2\n"
+                + "en16931_document_rows{document=\"spec.odt\",path=\"/b/spec.odt\"} 4\n"));
+    }
+
+    /* A document extracted again, e.g. by the watcher, replaces its former findings, metrics and type statistic. */
+    @Test
+    public void extractedAgain() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        // the only finding of the example is a difference of its informative table
+        extraction.setComparingTables(true);
+        extraction.collectSpecData(ODT_EXAMPLE);
+        List<ValidationFinding> findings = extraction.getValidationReport().getFindings();
+        long rows = extraction.getMetrics().get(ExtractionMetrics.Metric.ROWS);
+        Assert.assertFalse(findings.isEmpty());
+        long cardinalities = extraction.getStatistic().getCount(CardinalitySemantic.ONE2ONE);
+        Assert.assertTrue(cardinalities > 0);
+
+        extraction.collectSpecData(ODT_EXAMPLE);
+        Assert.assertEquals(findings.size(), extraction.getValidationReport().getFindings().size());
+        Assert.assertFalse(extraction.getValidationReport().getFindings().contains(findings.get(0)));
+        Assert.assertEquals(1, extraction.getMetrics().get(ExtractionMetrics.Metric.DOCUMENTS));
+        Assert.assertEquals(1, extraction.getMetrics().getChildren().size());
+        Assert.assertEquals(rows, extraction.getMetrics().get(ExtractionMetrics.Metric.ROWS));
+        Assert.assertEquals(cardinalities, extraction.getStatistic().getCount(CardinalitySemantic.ONE2ONE));
+    }
+
+    /* Each run writes into its own empty directory, so files left by another run cannot hide missing output files. */
+    private static File newOutputDirectory(String name) {
+        File dir = new File(new File(FileHelper.getTestOutputFolder()).getParentFile(), "outputs" + File.separatorChar + name);
+        delete(dir);
+        return dir;
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        f.delete();
+    }
+
+    /**
+     * @return the content of the output files by their path relative to the
+     * directory
+     */
+    private static Map<String, String> loadOutputFiles(File dir) {
+        return loadOutputFiles(dir.getAbsolutePath().length() + 1, dir, new TreeMap<>());
+    }
+
+    private static Map<String, String> loadOutputFiles(int rootLength, File dir, Map<String, String> outputFiles) {
+        for (File f : dir.listFiles()) {
+            if (f.isDirectory()) {
+                loadOutputFiles(rootLength, f, outputFiles);
+            } else if (f.getName().endsWith(".xml") || f.getName().endsWith(".json")) {
+                outputFiles.put(f.getAbsolutePath().substring(rootLength), FileHelper.loadFileAsString(f));
+            }
+        }
+        return outputFiles;
+    }
 }
@@ -0,0 +1,73 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExtractionWatcherTest {
+
+    private static final String ODT_EXAMPLE = "16931-3-3_example.odt";
+
+    /* A document copied into a watched directory shall be extracted, saving its output files next to it. */
+    @Test
+    public void changedDocument() throws Exception {
+        // not within the test output folder, where all documents are extracted by other tests
+        File watchedDir = new File(new File(FileHelper.getTestOutputFolder()).getParentFile(), "watched");
+        File outputDir = new File(watchedDir, "16931-3-3_example");
+        watchedDir.mkdirs();
+        for (File f : watchedDir.listFiles()) {
+            if (f.isFile()) {
+                f.delete();
+            }
+        }
+        if (outputDir.isDirectory()) {
+            for (File f : outputDir.listFiles()) {
+                f.delete();
+            }
+            outputDir.delete();
+        }
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        try (ExtractionWatcher watcher = new ExtractionWatcher(extraction)) {
+            watcher.setDebounceMillis(100);
+            watcher.watch(watchedDir);
+            Thread thread = new Thread(() -> {
+                try {
+                    watcher.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            Files.copy(new File(FileHelper.getTestOutputFolder(), ODT_EXAMPLE).toPath(), new File(watchedDir, ODT_EXAMPLE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            for (int i = 0; i < 100 && extraction.getMetrics().get(ExtractionMetrics.Metric.DOCUMENTS) == 0; i++) {
+                Thread.sleep(100);
+            }
+            watcher.close();
+            thread.join(10000);
+        }
+        Assert.assertEquals(1, extraction.getMetrics().get(ExtractionMetrics.Metric.DOCUMENTS));
+        Assert.assertEquals(2, outputDir.listFiles().length);
+    }
+}
@@ -0,0 +1,71 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import java.io.StringWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonWriterTest {
+
+    /* Quotation marks, backslashes and control characters shall be escaped, other characters are written as they are. */
+    @Test
+    public void escaping() throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.startObject(Boolean.FALSE);
+        json.member("desc", "The \"net\" amount\tper\nline in C:\\ \u0001 \u2028 \u20ac");
+        json.endObject();
+        Assert.assertEquals("{\"desc\":\"The \\\"net\\\" amount\\tper\\nline in C:\\\\ \\u0001 \\u2028 \u20ac\"}", out.toString());
+    }
+
+    /* Members of wrapped containers are written on lines of their own, members of other containers separated by a space. */
+    @Test
+    public void layout() throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter json = new JsonWriter(out);
+        json.startObject(Boolean.FALSE);
+        json.member("semanticCount", 2);
+        json.member("file", null);
+        json.name("semantics");
+        json.startArray(Boolean.TRUE);
+        json.startObject(Boolean.FALSE);
+        json.member("id", "BT-1");
+        json.name("mismatches");
+        json.startArray(Boolean.FALSE);
+        json.value("CAR-1");
+        json.value("CAR-2");
+        json.endArray();
+        json.endObject();
+        json.startObject(Boolean.FALSE);
+        json.member("id", "BT-2");
+        json.name("syntaxRepresentations");
+        json.startArray(Boolean.TRUE);
+        json.endArray();
+        json.endObject();
+        json.endArray();
+        json.endObject();
+        Assert.assertEquals("{\"semanticCount\":\"2\", \"semantics\":[\n"
+            + "\t{\"id\":\"BT-1\", \"mismatches\":[\"CAR-1\", \"CAR-2\"]},\n"
+            + "\t{\"id\":\"BT-2\", \"syntaxRepresentations\":[]}\n"
+            + "]}", out.toString());
+    }
+}
@@ -0,0 +1,78 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.ValidationFinding.Rule;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyntaxConsistencyCheckTest {
+
+    private static final String ODT_EXAMPLE = "16931-3-3_example.odt";
+
+    /* The example has tables of a single syntax only, there is nothing to compare. */
+    @Test
+    public void example() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setIndexing(true);
+        extraction.collectSpecData(ODT_EXAMPLE);
+        Assert.assertTrue(extraction.checkSyntaxConsistency().isEmpty());
+    }
+
+    /* Diverging data of a semantic shall be reported for the CII table, semantics of a single syntax are ignored. */
+    @Test
+    public void divergences() {
+        TableContext ubl = new TableContext(new DocumentContext("16931-3-2.odt", "/tmp/"), "Table 2 (normative)");
+        ubl.setSyntax(Boolean.TRUE, Boolean.TRUE);
+        TableContext cii = new TableContext(new DocumentContext("16931-3-3.odt", "/tmp/"), "Table 2 (normative)");
+        cii.setSyntax(Boolean.TRUE, Boolean.FALSE);
+        for (TableContext table : new TableContext[]{ubl, cii}) {
+            NodeSemantic s = new NodeSemantic("BT-1", table);
+            s.setLevel(1);
+            s.setBusinessTerm("Invoice number");
+            s.setCardinality(table == ubl ? "1..1" : "0..1");
+            s.setDataType("I");
+            s = new NodeSemantic("BT-2", table);
+            s.setLevel(table == ubl ? 1 : 2);
+            s.setBusinessTerm(table == ubl ? "Invoice issue date" : "Issue date");
+            s.setCardinality("1..1");
+            s.setDataType("D");
+        }
+        new NodeSemantic("BT-3", ubl);
+        new NodeSemantic("BT-4", cii);
+        ValidationReport report = new ValidationReport();
+        SyntaxConsistencyCheck.compare(Collections.singletonList(ubl), Collections.singletonList(cii), report);
+        List<ValidationFinding> findings = report.getFindings();
+        Assert.assertEquals(3, findings.size());
+        for (ValidationFinding finding : findings) {
+            Assert.assertEquals(Rule.SYNTAX_SEMANTIC_DIVERGING, finding.getRule());
+            Assert.assertEquals("16931-3-3.odt", finding.getDocument());
+        }
+        Assert.assertEquals("BT-1", findings.get(0).getSemanticId());
+        Assert.assertEquals("Semantic differs between the normative tables of UBL and CII: card '0..1' instead of '1..1' of '16931-3-2.odt'",
+                findings.get(0).getMessage());
+        Assert.assertEquals("BT-2", findings.get(1).getSemanticId());
+        Assert.assertTrue(findings.get(1).getMessage().contains("level '2' instead of '1'"));
+        Assert.assertTrue(findings.get(2).getMessage().contains("bt 'Issue date' instead of 'Invoice issue date'"));
+    }
+}
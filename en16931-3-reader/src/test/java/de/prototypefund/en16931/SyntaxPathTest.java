@@ -0,0 +1,65 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyntaxPathTest {
+
+    private static final String[] SAMPLES = {"/", "", "/Invoice", "/Invoice/cac:TaxTotal[cbc:ID='a/b']/cbc:Amount", "Invoice/cbc:ID/",
+        "//cbc:ID", "/Invoice/cbc:Note[@x='it]", "UNH+1/BGM[1]", "/Invoice/cbc:ID]/x"};
+
+    /* The rendered path shall equal the parsed one and equal paths shall be the same instance. */
+    @Test
+    public void interned() {
+        for (String s : SAMPLES) {
+            SyntaxPath path = SyntaxPath.of(s);
+            Assert.assertEquals(s, path.toString());
+            Assert.assertSame(path, SyntaxPath.of(new String(s)));
+            Assert.assertSame(path, SyntaxPath.find(s));
+        }
+        Assert.assertNull(SyntaxPath.find("/Invoice/cbc:NeverUsed"));
+        SyntaxPath amount = SyntaxPath.of("/Invoice/cac:TaxTotal[cbc:ID='a/b']/cbc:Amount");
+        Assert.assertEquals(3, amount.getDepth());
+        Assert.assertEquals("cbc:Amount", amount.getName());
+        Assert.assertTrue(amount.isAbsolute());
+        Assert.assertTrue(amount.startsWith(SyntaxPath.of("/Invoice")));
+        Assert.assertFalse(amount.startsWith(SyntaxPath.of("Invoice")));
+        List<SyntaxPath> subtree = amount.getParent().getSubtree();
+        Assert.assertSame(amount.getParent(), subtree.get(0));
+        Assert.assertTrue(subtree.contains(amount));
+        Assert.assertFalse(subtree.contains(SyntaxPath.of("/Invoice")));
+    }
+
+    /* A path no longer referenced shall be garbage collected, so the interned paths do not grow with every edited revision. */
+    @Test
+    public void collected() throws Exception {
+        String path = "/Invoice/cbc:Revision" + System.nanoTime();
+        Assert.assertEquals(path, SyntaxPath.of(path).toString());
+        for (int i = 0; i < 50 && SyntaxPath.find(path) != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(SyntaxPath.find(path));
+    }
+}
@@ -0,0 +1,83 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.ValidationFinding.Rule;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TableDiffTest {
+
+    private static final String ODT_EXAMPLE = "16931-3-3_example.odt";
+
+    /* The informative table of the example differs only by the XML cardinality of BT-1 from its normative table. */
+    @Test
+    public void example() throws Exception {
+        OdtTableExtraction extraction = new OdtTableExtraction();
+        extraction.setComparingTables(true);
+        extraction.collectSpecData(ODT_EXAMPLE);
+        List<ValidationFinding> differences = new ArrayList<>();
+        for (ValidationFinding finding : extraction.getValidationReport().getFindings()) {
+            if (finding.getRule().name().startsWith("INFORMATIVE_")) {
+                differences.add(finding);
+            }
+        }
+        Assert.assertEquals(1, differences.size());
+        // the metrics count the differences as well
+        ValidationReport report = extraction.getValidationReport();
+        Assert.assertEquals(report.getCount(ValidationFinding.Severity.WARNING), extraction.getMetrics().get(ExtractionMetrics.Metric.WARNINGS));
+        Assert.assertEquals(report.getCount(ValidationFinding.Severity.ERROR), extraction.getMetrics().get(ExtractionMetrics.Metric.ERRORS));
+        Assert.assertEquals("WARNING: BT-1 /my:invoice/my:ID: Informative table differs from the normative table: card '1..1' instead of '0..1' [INFORMATIVE_DATA_CHANGED]",
+                differences.get(0).toString());
+    }
+
+    /* Missing, added and changed semantics and syntax nodes shall be reported in the order of their IDs and paths. */
+    @Test
+    public void differences() {
+        DocumentContext document = new DocumentContext("spec.odt", "/tmp/");
+        TableContext normative = new TableContext(document, "Table 2 (normative)");
+        TableContext informative = new TableContext(document, "Table 3 (informative)");
+        for (TableContext table : new TableContext[]{normative, informative}) {
+            table.setSyntax(Boolean.TRUE, Boolean.TRUE);
+            NodeSemantic s = new NodeSemantic("BT-1", table);
+            s.setBusinessTerm("Invoice number");
+            s.setCardinality(table == normative ? "1..1" : "0..1");
+            new NodeXml("/Invoice/cbc:ID", s).setCardinalityXml("1..1");
+            new NodeXml(table == normative ? "/Invoice/cbc:ID/@schemeID" : "/Invoice/cbc:ID/@schemeAgencyID", s);
+        }
+        new NodeSemantic("BT-2", normative);
+        new NodeSemantic("BT-10", informative);
+        ValidationReport report = new ValidationReport();
+        TableDiff.compare(normative, informative, report);
+        List<ValidationFinding> findings = report.getFindings();
+        Assert.assertEquals(5, findings.size());
+        Assert.assertEquals("Informative table differs from the normative table: card '0..1' instead of '1..1'", findings.get(0).getMessage());
+        Assert.assertEquals(Rule.INFORMATIVE_SYNTAX_ADDED, findings.get(1).getRule());
+        Assert.assertEquals("/Invoice/cbc:ID/@schemeAgencyID", findings.get(1).getPath());
+        Assert.assertEquals(Rule.INFORMATIVE_SYNTAX_MISSING, findings.get(2).getRule());
+        Assert.assertEquals(Rule.INFORMATIVE_SEMANTIC_MISSING, findings.get(3).getRule());
+        Assert.assertEquals("BT-2", findings.get(3).getSemanticId());
+        Assert.assertEquals(Rule.INFORMATIVE_SEMANTIC_ADDED, findings.get(4).getRule());
+        Assert.assertEquals("Table 3 (informative)", findings.get(4).getTable());
+    }
+}
@@ -0,0 +1,139 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import de.prototypefund.en16931.ValidationFinding.Rule;
+import de.prototypefund.en16931.ValidationFinding.Severity;
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+public class ValidationReportTest {
+
+    private static ValidationReport createReport() {
+        TableContext table = new TableContext(new DocumentContext("spec.odt", "/tmp/"), "Table \"UBL\" <normative>");
+        ValidationReport report = new ValidationReport();
+        report.add(Rule.CARDINALITY_MISMATCH_MISSING, table, "BT-1", "/Invoice/cbc:ID", "CAR-1");
+        report.add(Rule.SYNTAX_MISSING, table, "BG-2", null, null);
+        return report;
+    }
+
+    @Test
+    public void findings() throws Exception {
+        ValidationReport report = createReport();
+        Assert.assertEquals(1, report.getCount(Severity.ERROR));
+        Assert.assertEquals(1, report.getCount(Severity.WARNING));
+        ValidationFinding finding = report.getFindings().get(0);
+        Assert.assertEquals("CAR-1 is missing!", finding.getMessage());
+        Assert.assertEquals("Table \"UBL\" <normative>", finding.getTable());
+
+        StringWriter text = new StringWriter();
+        report.writeText(text);
+        Assert.assertEquals("\nTable 'Table \"UBL\" <normative>' of 'spec.odt':\n"
+                + "ERROR: BT-1 /Invoice/cbc:ID: CAR-1 is missing! [CARDINALITY_MISMATCH_MISSING]\n"
+                + "WARNING: BG-2: Semantic without XML representation! [SYNTAX_MISSING]\n", text.toString());
+    }
+
+    @Test
+    public void json() throws Exception {
+        StringWriter json = new StringWriter();
+        createReport().writeJson(json);
+        Assert.assertTrue(json.toString().startsWith("{\"errorCount\":\"1\", \"warningCount\":\"1\", \"infoCount\":\"0\", \"findings\":["));
+        Assert.assertTrue(json.toString().contains("\"table\":\"Table \\\"UBL\\\" <normative>\""));
+    }
+
+    /* Each syntax path used by several syntax nodes shall be reported once with the IDs of its semantics. */
+    @Test
+    public void duplicatePaths() {
+        TableContext table = new TableContext(new DocumentContext("spec.odt", "/tmp/"), "Table 2");
+        table.setSyntax(Boolean.TRUE, Boolean.TRUE);
+        NodeSemantic allowance = new NodeSemantic("BG-20", table);
+        new NodeXml("/Invoice/cac:AllowanceCharge/cbc:ChargeIndicator", allowance);
+        new NodeXml("/Invoice/cac:AllowanceCharge/cbc:Amount", allowance);
+        NodeSemantic charge = new NodeSemantic("BG-21", table);
+        new NodeXml("/Invoice/cac:AllowanceCharge/cbc:ChargeIndicator", charge);
+        new NodeXml("/Invoice/cac:AllowanceCharge/cbc:Amount", charge);
+        new NodeXml("/Invoice/cac:AllowanceCharge/cbc:Amount", charge);
+        new NodeXml("/Invoice/cac:AllowanceCharge", charge);
+        NodeSemantic.validateDuplicatePaths(table);
+        List<ValidationFinding> findings = table.getValidationReport().getFindings();
+        Assert.assertEquals(2, findings.size());
+        Assert.assertEquals("/Invoice/cac:AllowanceCharge/cbc:ChargeIndicator", findings.get(0).getPath());
+        Assert.assertEquals("Syntax path is used by several syntax nodes of the semantics: BG-20, BG-21", findings.get(0).getMessage());
+        Assert.assertEquals(Rule.SYNTAX_PATH_DUPLICATE, findings.get(1).getRule());
+    }
+
+    /* The parallel validation shall result into the same findings in the same order as the sequential validation. */
+    @Test
+    public void parallelValidation() throws Exception {
+        TableContext sequentialTable = createTable(5000);
+        NodeSemantic.validateCardinalityMismatches(sequentialTable, false);
+        TableContext parallelTable = createTable(5000);
+        NodeSemantic.validateCardinalityMismatches(parallelTable, true);
+
+        List<String> sequentialFindings = new ArrayList<>();
+        for (ValidationFinding finding : sequentialTable.getValidationReport().getFindings()) {
+            sequentialFindings.add(finding.toString());
+        }
+        List<String> parallelFindings = new ArrayList<>();
+        for (ValidationFinding finding : parallelTable.getValidationReport().getFindings()) {
+            parallelFindings.add(finding.toString());
+        }
+        Assert.assertEquals(2000, sequentialFindings.size());
+        Assert.assertEquals(sequentialFindings, parallelFindings);
+    }
+
+    /* Every fifth semantic has a misplaced CAR-3 instead of the missing CAR-2. */
+    private static TableContext createTable(int semanticCount) {
+        TableContext table = new TableContext(new DocumentContext("spec.odt", "/tmp/"), "Table 2");
+        table.setSyntax(Boolean.TRUE, Boolean.TRUE);
+        for (int i = 1; i <= semanticCount; i++) {
+            NodeSemantic s = new NodeSemantic("BT-" + i, table);
+            s.setCardinality("1..1");
+            NodeXml x = new NodeXml("/Invoice/cbc:Note" + i, s);
+            x.setCardinalityXml("0..1");
+            x.setMisMatch(i % 5 == 0 ? "CAR-3" : "CAR-2");
+        }
+        return table;
+    }
+
+    /* Errors are failing test cases within a test suite of their table. */
+    @Test
+    public void junitXml() throws Exception {
+        StringWriter xml = new StringWriter();
+        createReport().writeJUnitXml(xml);
+        Element suites = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+            .parse(new ByteArrayInputStream(xml.toString().getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+        Assert.assertEquals("2", suites.getAttribute("tests"));
+        Assert.assertEquals("1", suites.getAttribute("failures"));
+        Element suite = (Element) suites.getElementsByTagName("testsuite").item(0);
+        Assert.assertEquals("spec.odt: Table \"UBL\" <normative>", suite.getAttribute("name"));
+        Element failure = (Element) suite.getElementsByTagName("failure").item(0);
+        Assert.assertEquals("CARDINALITY_MISMATCH_MISSING", failure.getAttribute("type"));
+        Assert.assertEquals("CAR-1 is missing!", failure.getAttribute("message"));
+    }
+}
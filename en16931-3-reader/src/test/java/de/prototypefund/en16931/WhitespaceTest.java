@@ -0,0 +1,61 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.helpers.NOPLogger;
+
+public class WhitespaceTest {
+
+    private static final String LEADING_TRAILING_WHITESPACES = "(^\\h*)|(\\h*$)";
+    private static final String[] SAMPLES = {"", " ", "BT-1", " BT-1", "BT-1\t", " Invoice number ",
+        "Invoice  number", "Invoice\nnumber", " \t\n", "a \n", "a \r\n", "a  ", "  \n", "a\u000B b", "0..1"};
+
+    /* The scanner shall give the same results as the former regular expressions. */
+    @Test
+    public void equalToRegularExpressions() {
+        for (String s : SAMPLES) {
+            String trimmed = s.replaceAll(LEADING_TRAILING_WHITESPACES, "");
+            String normalized = s.replaceAll("\\s+", " ").replaceAll(LEADING_TRAILING_WHITESPACES, "");
+            Assert.assertEquals(trimmed, Whitespace.trim(s));
+            Assert.assertEquals(s.replaceAll("\\s+", " "), Whitespace.collapse(s));
+            Assert.assertEquals(normalized, Whitespace.normalize(s));
+            Assert.assertEquals(!normalized.equals(s), Whitespace.hasWhitespaceProblems(s));
+            if (normalized.equals(s)) {
+                Assert.assertSame(s, Whitespace.normalize(s));
+            }
+        }
+    }
+
+    /* Whitespace problems of a table are collected unformatted until being logged. */
+    @Test
+    public void diagnostics() {
+        TableContext table = new TableContext(new DocumentContext("test.odt", "./"), "Table 1");
+        NodeSemantic s = new NodeSemantic("BT-1", table);
+        s.setBusinessTerm("Invoice  number");
+        s.setDescription("A unique identification of the Invoice.");
+        Assert.assertEquals("Invoice number", s.getBusinessTerm());
+        Assert.assertEquals(1, table.getWhitespaceDiagnostics().size());
+        table.getWhitespaceDiagnostics().log(NOPLogger.NOP_LOGGER);
+        Assert.assertEquals(0, table.getWhitespaceDiagnostics().size());
+    }
+}
@@ -0,0 +1,69 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+public class XmlWriterTest {
+
+    /* Markup characters in attributes and text shall survive a roundtrip through an XML parser. */
+    @Test
+    public void escaping() throws Exception {
+        String desc = "The \"net\" amount of <line> & 'charges'\tper\nline";
+        String rules = "Only value \"4711\" & < 5 ]]> done";
+        StringWriter out = new StringWriter();
+        XmlWriter xml = new XmlWriter(out);
+        xml.startDocument();
+        xml.startElement("semantic");
+        xml.attribute("desc", desc);
+        xml.whitespace("\n\t");
+        xml.startElement("xml");
+        xml.attribute("path", "/Invoice/cbc:Note");
+        xml.text(rules);
+        xml.endElement();
+        xml.whitespace("\n");
+        xml.endElement();
+
+        Element semantic = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+            .parse(new ByteArrayInputStream(out.toString().getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+        Assert.assertEquals(desc, semantic.getAttribute("desc"));
+        Assert.assertEquals(rules, semantic.getElementsByTagName("xml").item(0).getTextContent());
+    }
+
+    /* Without characters to be escaped, the output stays as written by the former string concatenation. */
+    @Test
+    public void noEscaping() throws Exception {
+        StringWriter out = new StringWriter();
+        XmlWriter xml = new XmlWriter(out);
+        xml.startElement("xml");
+        xml.attribute("path", "/my:invoice/my:DateTimeString");
+        xml.attribute("type", "ELEMENT");
+        xml.text("@format=\"X\"");
+        xml.endElement();
+        Assert.assertEquals("<xml path=\"/my:invoice/my:DateTimeString\" type=\"ELEMENT\">@format=\"X\"</xml>", out.toString());
+    }
+}
@@ -0,0 +1,50 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931.type;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MisMatchCardinalityTest {
+
+    /* The expected mismatches result from the different lower (CAR-1, CAR-2) and upper (CAR-3, CAR-4) bounds. */
+    @Test
+    public void expectedMask() {
+        Assert.assertEquals(0, MisMatchCardinality.getExpectedMask(CardinalitySemantic.ZERO2ONE, CardinalityXml.ZERO2ONE));
+        Assert.assertEquals(MisMatchCardinality.CARDINALITY_MANDATORY.getMask(),
+            MisMatchCardinality.getExpectedMask(CardinalitySemantic.ZERO2ONE, CardinalityXml.ONE2ONE));
+        Assert.assertEquals(MisMatchCardinality.CARDINALITY_OPTIONAL.getMask() | MisMatchCardinality.CARDINALITY_MULTIPLE.getMask(),
+            MisMatchCardinality.getExpectedMask(CardinalitySemantic.ONE2ONE, CardinalityXml.ZERO2MANY));
+        Assert.assertEquals(MisMatchCardinality.CARDINALITY_SINGLE.getMask(),
+            MisMatchCardinality.getExpectedMask(CardinalitySemantic.ONE2MANY, CardinalityXml.ONE2ONE));
+        // only the bounds 1 and n are compared
+        Assert.assertEquals(0, MisMatchCardinality.getExpectedMask(CardinalitySemantic.ZERO2MANY, CardinalityEdifact.ZERO2_99));
+        Assert.assertEquals(MisMatchCardinality.CARDINALITY_SINGLE.getMask(),
+            MisMatchCardinality.getExpectedMask(CardinalitySemantic.ZERO2MANY, CardinalityEdifact.ZERO2TEN));
+    }
+
+    @Test
+    public void mask() {
+        Assert.assertEquals(1, MisMatchCardinality.CARDINALITY_MANDATORY.getMask());
+        Assert.assertEquals(16, MisMatchCardinality.CARDINALITY_ELEMENT_MANDATORY.getMask());
+        Assert.assertEquals(3, MisMatchCardinality.CARDINALITY_MULTIPLE.getLevel());
+    }
+}
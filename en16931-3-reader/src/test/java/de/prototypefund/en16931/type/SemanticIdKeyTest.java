@@ -0,0 +1,57 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931.type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SemanticIdKeyTest {
+
+    @Test
+    public void numberAwareOrder() {
+        List<String> expected = Arrays.asList("BG-1", "BG-2", "BG-10", "BT-1", "BT-1-1", "BT-1-2", "BT-2", "BT-10", "BT-18-1", "BT-18-2");
+        List<SemanticIdKey> keys = new ArrayList<>();
+        for (String id : expected) {
+            keys.add(new SemanticIdKey(id));
+        }
+        Collections.reverse(keys);
+        Collections.sort(keys);
+        List<String> ids = new ArrayList<>();
+        for (SemanticIdKey key : keys) {
+            ids.add(key.getId());
+        }
+        Assert.assertEquals(expected, ids);
+    }
+
+    /* 16931-3-4 uses two different hyphen in its ID "BT-18–1" */
+    @Test
+    public void hyphenVariants() {
+        SemanticIdKey hyphenMinus = new SemanticIdKey("BT-18-1");
+        SemanticIdKey enDash = new SemanticIdKey("BT-18–1");
+        Assert.assertEquals(0, hyphenMinus.compareTo(enDash));
+        Assert.assertEquals(hyphenMinus, enDash);
+        Assert.assertEquals(hyphenMinus.hashCode(), enDash.hashCode());
+    }
+}
@@ -0,0 +1,70 @@
+/** **********************************************************************
+ *
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License isx distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *********************************************************************** */
+package de.prototypefund.en16931.type;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TypeStatisticTest {
+
+    /* Values are counted by getByValue, unknown values separately. */
+    @Test
+    public void count() {
+        TypeStatistic statistic = new TypeStatistic();
+        CardinalityXml.getByValue("0..1", "BT-1", statistic);
+        CardinalityXml.getByValue("0..1", "BT-2", statistic);
+        CardinalityXml.getByValue("1..1", "BT-3", statistic);
+        CardinalityXml.getByValue("7..7", "BT-4", statistic);
+        Assert.assertEquals(2, statistic.getCount(CardinalityXml.ZERO2ONE));
+        Assert.assertEquals(1, statistic.getCount(CardinalityXml.ONE2ONE));
+        Assert.assertEquals(1, statistic.getUnknownCount(CardinalityXml.class));
+        Assert.assertEquals(0, statistic.getCount(CardinalitySemantic.ZERO2ONE));
+    }
+
+    /* The statistics of several tables are summed up, instead of the last table overwriting the occurrences. */
+    @Test
+    public void add() {
+        TypeStatistic table1 = new TypeStatistic();
+        MisMatch.createMisMatch("CAR-1", "BT-1", table1);
+        TypeStatistic table2 = new TypeStatistic();
+        MisMatch.createMisMatch("CAR-1", "BT-1", table2);
+        MisMatch.createMisMatch("CAR-9", "BT-2", table2);
+        TypeStatistic all = new TypeStatistic();
+        all.add(table1);
+        all.add(table2);
+        Assert.assertEquals(2, all.getCount(MisMatchCardinality.CARDINALITY_MANDATORY));
+        Assert.assertEquals(1, all.getUnknownCount(MisMatchCardinality.class));
+    }
+
+    /* A removed statistic, e.g. of a document extracted again, no longer contributes to the sum. */
+    @Test
+    public void remove() {
+        TypeStatistic document = new TypeStatistic();
+        MisMatch.createMisMatch("CAR-1", "BT-1", document);
+        MisMatch.createMisMatch("CAR-9", "BT-2", document);
+        TypeStatistic all = new TypeStatistic();
+        all.add(document);
+        all.add(document);
+        all.remove(document);
+        Assert.assertEquals(1, all.getCount(MisMatchCardinality.CARDINALITY_MANDATORY));
+        Assert.assertEquals(1, all.getUnknownCount(MisMatchCardinality.class));
+    }
+}